@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database.benchmark;
+
+import be.yildizgames.module.database.DataBaseConnectionProvider;
+import be.yildizgames.module.database.ItemBinder;
+import be.yildizgames.module.database.QueryExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Insert 1000 items with executeBatch, for several batch sizes, as JDBC batches or multi-row statements.
+ * The table is emptied before every iteration.
+ *
+ * @author Grégory Van den Borre
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+    private static final String INSERT = "INSERT INTO item (id, name, amount) VALUES (?, ?, ?)";
+
+    private static final ItemBinder<Item> BINDER = (s, item) -> {
+        s.setInt(1, item.id());
+        s.setString(2, item.name());
+        s.setDouble(3, item.amount());
+    };
+
+    private static final List<Item> ITEMS = IntStream.range(0, 1000).mapToObj(i -> new Item(i, "item-" + i, i * 1.5)).toList();
+
+    @Param({"1", "10", "100", "1000"})
+    int batchSize;
+
+    @Param({"false", "true"})
+    boolean multiRowInsert;
+
+    private DataBaseConnectionProvider provider;
+
+    private QueryExecutor executor;
+
+    @Setup
+    public void setup() throws SQLException {
+        this.provider = BenchmarkDatabase.create("batch-" + this.batchSize + "-" + this.multiRowInsert, this.multiRowInsert);
+        BenchmarkDatabase.fill(this.provider, 0);
+        this.executor = new QueryExecutor(this.provider);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (var c = this.provider.getConnection(); var stmt = c.createStatement()) {
+            stmt.execute("TRUNCATE TABLE item");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        this.provider.close();
+    }
+
+    @Benchmark
+    public int[] executeBatch() {
+        return this.executor.executeBatch(INSERT, ITEMS, BINDER, this.batchSize);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database.benchmark;
+
+import be.yildizgames.module.database.DataBaseConnectionProvider;
+import be.yildizgames.module.database.DatabaseConnectionProviderFactory;
+import be.yildizgames.module.database.DatabaseSystem;
+import be.yildizgames.module.database.DbProperties;
+import be.yildizgames.module.database.DriverProvider;
+import org.h2.Driver;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * In memory H2 database used by the benchmarks, with a table of items filled with a given number of rows.
+ *
+ * @author Grégory Van den Borre
+ */
+final class BenchmarkDatabase {
+
+    static final String SELECT = "SELECT id, name, amount FROM item";
+
+    private BenchmarkDatabase() {
+        super();
+    }
+
+    /**
+     * Create a pooled connection provider on a new in memory database.
+     *
+     * @param name Database name, every name is a different database.
+     * @param multiRowInsert <code>true</code> to rewrite batch inserts as multi-row statements.
+     * @return The connection provider.
+     */
+    static DataBaseConnectionProvider create(String name, boolean multiRowInsert) {
+        var factory = DatabaseConnectionProviderFactory.getInstance();
+        String system = "h2-benchmark-" + multiRowInsert;
+        factory.addSystem(system, new H2System(multiRowInsert));
+        return factory.create(new H2Properties(name, system));
+    }
+
+    /**
+     * Open a connection to a database without going through the module, as a reference.
+     *
+     * @param name Database name.
+     * @return The driver connection.
+     * @throws SQLException If the connection cannot be opened.
+     */
+    static Connection connect(String name) throws SQLException {
+        var properties = new Properties();
+        properties.put("user", name);
+        properties.put("password", "");
+        return new Driver().connect(H2System.url(name), properties);
+    }
+
+    /**
+     * Create the item table, and fill it.
+     *
+     * @param provider Provider for the database.
+     * @param rows Number of rows to insert.
+     * @throws SQLException If the table cannot be created or filled.
+     */
+    static void fill(DataBaseConnectionProvider provider, int rows) throws SQLException {
+        try (var c = provider.getConnection(); var stmt = c.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS item");
+            stmt.execute("CREATE TABLE item (id INT, name VARCHAR(32), amount DOUBLE)");
+            stmt.execute("INSERT INTO item SELECT X, 'item-' || X, X * 1.5 FROM SYSTEM_RANGE(1, " + rows + ")");
+        }
+    }
+
+    private record H2System(boolean multiRowInsert) implements DatabaseSystem {
+
+        static String url(String name) {
+            return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        }
+
+        @Override
+        public String getDriver() {
+            return "org.h2.Driver";
+        }
+
+        @Override
+        public DriverProvider driverProvider() {
+            return Driver::new;
+        }
+
+        @Override
+        public String getUrl(DbProperties p) {
+            return url(p.getDbName());
+        }
+
+        @Override
+        public boolean requirePool() {
+            return true;
+        }
+
+        @Override
+        public boolean supportMultiRowInsert() {
+            return this.multiRowInsert;
+        }
+    }
+
+    private record H2Properties(String name, String system) implements DbProperties {
+
+        @Override
+        public String getDbUser() {
+            return this.name;
+        }
+
+        @Override
+        public int getDbPort() {
+            return 0;
+        }
+
+        @Override
+        public String getDbPassword() {
+            return "";
+        }
+
+        @Override
+        public String getDbHost() {
+            return "";
+        }
+
+        @Override
+        public String getDbName() {
+            return this.name;
+        }
+
+        @Override
+        public String getSystem() {
+            return this.system;
+        }
+
+        @Override
+        public String getDbRootUser() {
+            return this.name;
+        }
+
+        @Override
+        public String getDbRootPassword() {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database.benchmark;
+
+import be.yildizgames.module.database.DataBaseConnectionProvider;
+import be.yildizgames.module.database.QueryExecutor;
+import be.yildizgames.module.database.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Select all the rows of a table, with raw JDBC as reference, and with the QueryExecutor and its wrappers,
+ * reading the columns by index and by label.
+ *
+ * @author Grégory Van den Borre
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectBenchmark {
+
+    private static final RowMapper<Item> BY_INDEX = r -> new Item(r.getInt(1), r.getString(2), r.getDouble(3));
+
+    private static final RowMapper<Item> BY_LABEL = r -> new Item(r.getInt("id"), r.getString("name"), r.getDouble("amount"));
+
+    private static final RowMapper<Item> RECORD = RowMapper.forRecord(Item.class);
+
+    @Param({"1", "100", "100000"})
+    int rows;
+
+    private DataBaseConnectionProvider provider;
+
+    private QueryExecutor executor;
+
+    private Connection raw;
+
+    @Setup
+    public void setup() throws SQLException {
+        String name = "select-" + this.rows;
+        this.provider = BenchmarkDatabase.create(name, false);
+        BenchmarkDatabase.fill(this.provider, this.rows);
+        this.executor = new QueryExecutor(this.provider);
+        this.raw = BenchmarkDatabase.connect(name);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        this.raw.close();
+        this.provider.close();
+    }
+
+    @Benchmark
+    public List<Item> rawJdbcByIndex() throws SQLException {
+        var result = new ArrayList<Item>();
+        try (var stmt = this.raw.prepareStatement(BenchmarkDatabase.SELECT); var rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                result.add(new Item(rs.getInt(1), rs.getString(2), rs.getDouble(3)));
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Item> rawJdbcByLabel() throws SQLException {
+        var result = new ArrayList<Item>();
+        try (var stmt = this.raw.prepareStatement(BenchmarkDatabase.SELECT); var rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                result.add(new Item(rs.getInt("id"), rs.getString("name"), rs.getDouble("amount")));
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Item> selectByIndex() {
+        return this.executor.select(BenchmarkDatabase.SELECT, BY_INDEX);
+    }
+
+    @Benchmark
+    public List<Item> selectByLabel() {
+        return this.executor.select(BenchmarkDatabase.SELECT, BY_LABEL);
+    }
+
+    @Benchmark
+    public List<Item> selectRecord() {
+        return this.executor.select(BenchmarkDatabase.SELECT, RECORD);
+    }
+
+    @Benchmark
+    public int[] selectInts() {
+        return this.executor.selectInts("SELECT id FROM item", r -> r.getInt(1));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database.benchmark;
+
+import be.yildizgames.module.database.DataBaseConnectionProvider;
+import be.yildizgames.module.database.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of Transaction compared to a transaction managed by hand on a pooled connection,
+ * for an empty transaction and for a transaction updating a single row.
+ *
+ * @author Grégory Van den Borre
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionBenchmark {
+
+    private static final String UPDATE = "UPDATE item SET amount = amount + 1 WHERE id = 1";
+
+    private DataBaseConnectionProvider provider;
+
+    private Transaction transaction;
+
+    @Setup
+    public void setup() throws SQLException {
+        this.provider = BenchmarkDatabase.create("transaction", false);
+        BenchmarkDatabase.fill(this.provider, 1);
+        this.transaction = new Transaction(this.provider);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        this.provider.close();
+    }
+
+    @Benchmark
+    public void manualEmpty() throws SQLException {
+        try (Connection c = this.provider.getConnection()) {
+            c.setAutoCommit(false);
+            c.commit();
+            c.setAutoCommit(true);
+        }
+    }
+
+    @Benchmark
+    public boolean transactionEmpty() {
+        return this.transaction.tryExecute(c -> {});
+    }
+
+    @Benchmark
+    public int manualUpdate() throws SQLException {
+        try (Connection c = this.provider.getConnection()) {
+            c.setAutoCommit(false);
+            int updated;
+            try (var stmt = c.prepareStatement(UPDATE)) {
+                updated = stmt.executeUpdate();
+            }
+            c.commit();
+            c.setAutoCommit(true);
+            return updated;
+        }
+    }
+
+    @Benchmark
+    public boolean transactionUpdate() {
+        return this.transaction.tryExecute(c -> {
+            try (var stmt = c.prepareStatement(UPDATE)) {
+                stmt.executeUpdate();
+            }
+        });
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Execute queries without blocking the calling thread, every query is run on an executor and its result is provided as a CompletableFuture.
+ * The number of queries running at the same time is bounded by the maximum number of connections of the provider,
+ * waiting queries do not hold any connection.
+ * Cancelling a future before its query starts prevents it to run, cancelling it while it runs cancels the statement on the database.
+ * Executions are recorded in the provider metrics and slow query log, as the QueryExecutor ones.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class AsyncQueryExecutor implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(AsyncQueryExecutor.class.getName());
+
+    private final DataBaseConnectionProvider provider;
+
+    /**
+     * Executor running the queries on the calling thread, recording them as the synchronous queries.
+     */
+    private final QueryExecutor queries;
+
+    private final Executor executor;
+
+    /**
+     * Executor created by this object, null if the executor was provided.
+     */
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Permits for the queries running at the same time.
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * Create a new executor running every query on its own virtual thread.
+     *
+     * @param provider Provider for the connections.
+     */
+    public AsyncQueryExecutor(DataBaseConnectionProvider provider) {
+        this(provider, Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * Create a new executor running the queries on a given executor, the executor is not shut down when this object is closed.
+     *
+     * @param provider Provider for the connections.
+     * @param executor Executor to run the queries.
+     */
+    public AsyncQueryExecutor(DataBaseConnectionProvider provider, Executor executor) {
+        this(provider, executor, false);
+    }
+
+    private AsyncQueryExecutor(DataBaseConnectionProvider provider, Executor executor, boolean owned) {
+        super();
+        this.provider = provider;
+        this.queries = new QueryExecutor(provider);
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+        this.inFlight = new Semaphore(provider.getMaxConnections(), true);
+    }
+
+    /**
+     * Execute a query.
+     *
+     * @param query Query to execute.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return A future completed with the mapped rows.
+     */
+    public <T> CompletableFuture<List<T>> select(String query, RowMapper<T> mapper) {
+        return this.select(query, ParameterBinder.NONE, mapper);
+    }
+
+    /**
+     * Execute a parameterized query.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return A future completed with the mapped rows.
+     */
+    public <T> CompletableFuture<List<T>> select(String query, ParameterBinder binder, RowMapper<T> mapper) {
+        return this.submit(query, List::size, statement -> {
+            binder.bind(statement);
+            return QueryExecutor.map(statement, mapper);
+        });
+    }
+
+    /**
+     * Execute a parameterized insert, update or delete statement.
+     *
+     * @param query Statement to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @return A future completed with the number of updated rows.
+     */
+    public CompletableFuture<Integer> update(String query, ParameterBinder binder) {
+        return this.submit(query, Integer::longValue, statement -> {
+            binder.bind(statement);
+            int updated = statement.executeUpdate();
+            this.provider.invalidateResults(query);
+            return updated;
+        });
+    }
+
+    /**
+     * Execute a statement for a given object, the execution is recorded in the metrics and slow query log without any row.
+     *
+     * @param query Statement to execute.
+     * @param object Object to feed the statement.
+     * @param execution Execution of the statement.
+     * @param <T> Type of the object.
+     * @return A future completed with the result of the execution.
+     */
+    public <T> CompletableFuture<Boolean> execute(String query, T object, QueryExecution<T> execution) {
+        return this.submit(query, executed -> 0, statement -> {
+            boolean executed = execution.execute(statement, object);
+            this.provider.invalidateResults(query);
+            return executed;
+        });
+    }
+
+    /**
+     * Shut down the executor if it was created by this object, queries already submitted are still executed.
+     */
+    @Override
+    public void close() {
+        if (this.ownedExecutor != null) {
+            this.ownedExecutor.close();
+        }
+    }
+
+    private <R> CompletableFuture<R> submit(String query, ToLongFunction<R> rows, QueryExecutor.Execution<R> call) {
+        var future = new AsyncQuery<R>();
+        try {
+            this.executor.execute(() -> this.run(future, query, rows, call));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Run a query once a permit is available, through the QueryExecutor so it is recorded in the provider metrics,
+     * slow query log and flight recorder as the synchronous queries.
+     *
+     * @param future Future to complete with the result.
+     * @param query Query to execute.
+     * @param rows Number of rows returned or updated from the result.
+     * @param call Binding and execution of the statement.
+     * @param <R> Type of the result.
+     */
+    private <R> void run(AsyncQuery<R> future, String query, ToLongFunction<R> rows, QueryExecutor.Execution<R> call) {
+        if (future.isDone()) {
+            return;
+        }
+        try {
+            this.inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return;
+        }
+        try {
+            var outcome = this.queries.execute(query, ParameterBinder.NONE, statement -> {
+                if (!future.start(statement)) {
+                    return new Outcome<R>(null, false);
+                }
+                try {
+                    return new Outcome<>(call.execute(statement), true);
+                } finally {
+                    future.stop();
+                }
+            }, o -> o.started() ? rows.applyAsLong(o.result()) : QueryExecutor.NOT_EXECUTED);
+            if (outcome.started()) {
+                future.complete(outcome.result());
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            this.inFlight.release();
+        }
+    }
+
+    /**
+     * Result of a query run by the executor.
+     *
+     * @param result Result of the execution, null if it did not start.
+     * @param started False if the future was cancelled before the statement started.
+     */
+    private record Outcome<R>(R result, boolean started) {
+    }
+
+    /**
+     * Future keeping track of the running statement to cancel it.
+     * The statement is only reachable while it runs, so a statement returned to a cache and reused by another query is never cancelled.
+     *
+     * @param <R> Type of the result.
+     */
+    private static final class AsyncQuery<R> extends CompletableFuture<R> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private WrappedPreparedStatement statement;
+
+        /**
+         * Register the statement about to run.
+         *
+         * @param statement Statement to run.
+         * @return false if the future was cancelled and the statement must not run.
+         */
+        private boolean start(WrappedPreparedStatement statement) {
+            this.lock.lock();
+            try {
+                if (this.isDone()) {
+                    return false;
+                }
+                this.statement = statement;
+                return true;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void stop() {
+            this.lock.lock();
+            try {
+                this.statement = null;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            this.lock.lock();
+            try {
+                if (cancelled && this.statement != null) {
+                    this.statement.cancel();
+                }
+            } catch (IllegalStateException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Cannot cancel the statement.", e);
+            } finally {
+                this.lock.unlock();
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a batch executed by the QueryExecutor, in its own transaction.
+ * The event is emitted for failed batches too, with success set to false.
+ *
+ * @author Grégory Van den Borre
+ */
+@Name("be.yildizgames.module.database.BatchExecute")
+@Label("Batch Execute")
+@Category({"Yildiz", "Database"})
+@Description("Statement executed for a collection of items, in a single transaction")
+final class BatchExecuteEvent extends jdk.jfr.Event {
+
+    @Label("SQL")
+    @Description("Statement SQL for a single item, with a ? for every parameter")
+    String sql;
+
+    @Label("Items")
+    long items;
+
+    @Label("Multi-row Insert")
+    @Description("Items inserted by multi-row statements instead of a JDBC batch")
+    boolean multiRow;
+
+    @Label("Success")
+    @Description("False if the batch failed and its transaction was rolled back, the items are then 0")
+    boolean success;
+
+    void complete(String sql, long items, boolean multiRow, boolean success) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.sql = sql;
+            this.items = items;
+            this.multiRow = multiRow;
+            this.success = success;
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Prepared statement kept in a statement cache, closing it returns it to the cache instead of closing it.
+ * A statement whose execution settings were changed is not cached anymore, so the next user gets the driver default settings.
+ *
+ * @author Grégory Van den Borre
+ */
+final class CachedPreparedStatement extends WrappedPreparedStatement {
+
+    private static final System.Logger LOGGER = System.getLogger(CachedPreparedStatement.class.getName());
+
+    /**
+     * SQL text used as key in the cache.
+     */
+    private final String sql;
+
+    /**
+     * Cache owning this statement.
+     */
+    private final StatementCache cache;
+
+    /**
+     * Connection this statement is currently lent through.
+     */
+    private PooledConnection owner;
+
+    /**
+     * <code>true</code> while the statement is used, and not in the cache.
+     */
+    private boolean inUse;
+
+    /**
+     * <code>true</code> if any execution setting was changed.
+     */
+    private boolean modified;
+
+    /**
+     * <code>true</code> if the remaining time of a transaction was applied as query timeout.
+     */
+    private boolean transactionTimeout;
+
+    CachedPreparedStatement(final PreparedStatement statement, final String sql, final StatementCache cache, final PooledConnection owner) {
+        super(statement);
+        this.sql = sql;
+        this.cache = cache;
+        this.lend(owner);
+    }
+
+    /**
+     * Mark this statement as used.
+     *
+     * @param owner Connection this statement is lent through.
+     */
+    void lend(final PooledConnection owner) {
+        this.owner = owner;
+        this.inUse = true;
+    }
+
+    String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * Prepare the statement to be reused, forgetting its parameters and any batch left by a failed execution.
+     *
+     * @return true if the statement can be reused, false if it must be closed.
+     */
+    boolean reset() {
+        if (this.modified) {
+            return false;
+        }
+        try {
+            if (this.transactionTimeout) {
+                super.setQueryTimeout(0);
+                this.transactionTimeout = false;
+            }
+            this.setParameterOffset(0);
+            this.captureParameters(false);
+            this.clearParameters();
+            this.clearBatch();
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Apply the remaining time of a transaction as query timeout, without preventing the statement from being reused.
+     *
+     * @param seconds Query timeout in seconds.
+     */
+    void applyTransactionTimeout(int seconds) {
+        super.setQueryTimeout(seconds);
+        this.transactionTimeout = true;
+    }
+
+    /**
+     * Close the underlying statement.
+     */
+    void closeStatement() {
+        try {
+            super.close();
+        } catch (IllegalStateException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Error while closing cached statement.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.inUse) {
+            this.inUse = false;
+            if (this.owner.isReturned()) {
+                this.closeStatement();
+            } else {
+                this.cache.release(this);
+            }
+        }
+    }
+
+    @Override
+    public void setMaxFieldSize(int i) {
+        this.modified = true;
+        super.setMaxFieldSize(i);
+    }
+
+    @Override
+    public void setMaxRows(int i) {
+        this.modified = true;
+        super.setMaxRows(i);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean b) {
+        this.modified = true;
+        super.setEscapeProcessing(b);
+    }
+
+    @Override
+    public void setQueryTimeout(int i) {
+        this.modified = true;
+        super.setQueryTimeout(i);
+    }
+
+    @Override
+    public void setCursorName(String s) {
+        this.modified = true;
+        super.setCursorName(s);
+    }
+
+    @Override
+    public void setFetchDirection(int i) {
+        this.modified = true;
+        super.setFetchDirection(i);
+    }
+
+    @Override
+    public void setFetchSize(int i) {
+        this.modified = true;
+        super.setFetchSize(i);
+    }
+
+    @Override
+    public void setPoolable(boolean b) {
+        this.modified = true;
+        super.setPoolable(b);
+    }
+
+    @Override
+    public void closeOnCompletion() {
+        this.modified = true;
+        super.closeOnCompletion();
+    }
+}
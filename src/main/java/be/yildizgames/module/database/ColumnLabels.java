@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Column indexes of a result set by label, case is ignored as in ResultSet.findColumn.
+ * Labels are stored in a small open addressing table, a lookup hashes the label without allocating
+ * and compares it with at most a few stored labels.
+ * Instances are immutable and can be shared by all the results of a same statement.
+ *
+ * @author Grégory Van den Borre
+ */
+final class ColumnLabels {
+
+    /**
+     * Labels by slot, null for an empty slot.
+     */
+    private final String[] labels;
+
+    /**
+     * Column index by slot, from 1 as in JDBC.
+     */
+    private final int[] indexes;
+
+    private final int mask;
+
+    /**
+     * Labels in column order, identifying the shape of the result.
+     */
+    private final List<String> columns;
+
+    private ColumnLabels(String[] columns) {
+        super();
+        int capacity = Integer.highestOneBit(Math.max(columns.length, 1) * 2 - 1) << 1;
+        this.labels = new String[capacity];
+        this.indexes = new int[capacity];
+        this.mask = capacity - 1;
+        this.columns = List.of(columns);
+        for (int i = 0; i < columns.length; i++) {
+            int slot = hash(columns[i]) & this.mask;
+            while (this.labels[slot] != null && !this.labels[slot].equalsIgnoreCase(columns[i])) {
+                slot = (slot + 1) & this.mask;
+            }
+            // With duplicated labels, the first column is kept, as in ResultSet.findColumn.
+            if (this.labels[slot] == null) {
+                this.labels[slot] = columns[i];
+                this.indexes[slot] = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Build the labels from the metadata of a result set.
+     *
+     * @param metaData Result set metadata.
+     * @return The column labels.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    static ColumnLabels of(ResultSetMetaData metaData) throws SQLException {
+        var columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+        }
+        return new ColumnLabels(columns);
+    }
+
+    /**
+     * Check if a result set has the same columns, in the same order, without building new labels.
+     *
+     * @param metaData Result set metadata.
+     * @return true if the labels can be used for this result set.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    boolean matches(ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        if (count != this.columns.size()) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!this.columns.get(i).equals(metaData.getColumnLabel(i + 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the index of a column.
+     *
+     * @param label Column label, case is ignored.
+     * @return The column index, from 1, or -1 if no column has this label.
+     */
+    int find(String label) {
+        int slot = hash(label) & this.mask;
+        String candidate;
+        while ((candidate = this.labels[slot]) != null) {
+            if (candidate == label || candidate.equalsIgnoreCase(label)) {
+                return this.indexes[slot];
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    int getColumnCount() {
+        return this.columns.size();
+    }
+
+    /**
+     * @return The labels in column order, equal for all results with the same shape.
+     */
+    List<String> getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Hash a label, ignoring its case.
+     *
+     * @param label Label to hash.
+     * @return The hash, with its high bits spread to the low ones.
+     */
+    private static int hash(String label) {
+        int h = 0;
+        for (int i = 0; i < label.length(); i++) {
+            char c = label.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                c -= 'a' - 'A';
+            } else if (c >= 0x80) {
+                c = Character.toUpperCase(Character.toLowerCase(c));
+            }
+            h = 31 * h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Query result stored by column instead of by row.
+ * Integer and floating point columns are stored in primitive arrays, text columns are dictionary encoded,
+ * so repeated values are kept once, and null values are tracked in a bitmap per column.
+ * Other types are kept as objects.
+ * Rows and columns are indexed from 0.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ColumnarResult {
+
+    private final Column[] columns;
+
+    /**
+     * Column indexes by upper case label.
+     */
+    private final Map<String, Integer> indexes;
+
+    private final int rowCount;
+
+    private ColumnarResult(Column[] columns, int rowCount) {
+        super();
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.indexes = new HashMap<>();
+        for (int i = columns.length - 1; i >= 0; i--) {
+            this.indexes.put(columns[i].label.toUpperCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * Read all the rows of a result set, its metadata are only read once.
+     *
+     * @param resultSet Result set to read.
+     * @return The result, by column.
+     */
+    static ColumnarResult read(WrappedResultSet resultSet) {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        Column[] columns;
+        try {
+            columns = new Column[metaData.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = Column.create(metaData.getColumnLabel(i + 1), metaData.getColumnType(i + 1));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        int row = 0;
+        while (resultSet.next()) {
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].read(resultSet, i + 1, row);
+            }
+            row++;
+        }
+        for (var column : columns) {
+            column.complete();
+        }
+        return new ColumnarResult(columns, row);
+    }
+
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    public int getColumnCount() {
+        return this.columns.length;
+    }
+
+    public String getColumnLabel(int column) {
+        return this.columns[column].label;
+    }
+
+    /**
+     * Find a column from its label, case is ignored.
+     *
+     * @param label Column label.
+     * @return The column index.
+     * @throws IllegalArgumentException If no column has this label.
+     */
+    public int getColumnIndex(String label) {
+        var index = this.indexes.get(label.toUpperCase(Locale.ROOT));
+        if (index == null) {
+            throw new IllegalArgumentException("No column " + label + " in the result.");
+        }
+        return index;
+    }
+
+    public boolean isNull(int row, int column) {
+        this.checkRow(row);
+        return this.columns[column].nulls.get(row);
+    }
+
+    /**
+     * @param row Row index.
+     * @param column Index of an integer column.
+     * @return The value, 0 if the value is null.
+     * @throws IllegalStateException If the column is not an integer column.
+     */
+    public int getInt(int row, int column) {
+        this.checkRow(row);
+        return this.ints(column)[row];
+    }
+
+    /**
+     * @param row Row index.
+     * @param column Index of an integer or long column.
+     * @return The value, 0 if the value is null.
+     * @throws IllegalStateException If the column is not an integer or long column.
+     */
+    public long getLong(int row, int column) {
+        this.checkRow(row);
+        if (this.columns[column] instanceof IntColumn c) {
+            return c.data[row];
+        }
+        return this.longs(column)[row];
+    }
+
+    /**
+     * @param row Row index.
+     * @param column Index of a numeric column.
+     * @return The value, 0 if the value is null.
+     * @throws IllegalStateException If the column is not an integer, long or double column.
+     */
+    public double getDouble(int row, int column) {
+        this.checkRow(row);
+        return switch (this.columns[column]) {
+            case IntColumn c -> c.data[row];
+            case LongColumn c -> c.data[row];
+            default -> this.doubles(column)[row];
+        };
+    }
+
+    /**
+     * @param row Row index.
+     * @param column Index of a text column.
+     * @return The value, null if the value is null.
+     * @throws IllegalStateException If the column is not a text column.
+     */
+    public String getString(int row, int column) {
+        this.checkRow(row);
+        if (this.columns[column] instanceof StringColumn c) {
+            int code = c.codes[row];
+            return code < 0 ? null : c.dictionary[code];
+        }
+        throw this.wrongType(column, "text");
+    }
+
+    /**
+     * @param row Row index.
+     * @param column Column index.
+     * @return The value of any column, boxed if the column is stored as primitives, null if the value is null.
+     */
+    public Object getObject(int row, int column) {
+        if (this.isNull(row, column)) {
+            return null;
+        }
+        return switch (this.columns[column]) {
+            case IntColumn c -> c.data[row];
+            case LongColumn c -> c.data[row];
+            case DoubleColumn c -> c.data[row];
+            case StringColumn c -> c.dictionary[c.codes[row]];
+            case ObjectColumn c -> c.data[row];
+        };
+    }
+
+    /**
+     * Provide all the values of an integer column, to loop over them without any indirection.
+     * The array is shared with this result and must not be modified, null values are stored as 0.
+     *
+     * @param column Index of an integer column.
+     * @return The values, one per row.
+     * @throws IllegalStateException If the column is not an integer column.
+     */
+    public int[] ints(int column) {
+        if (this.columns[column] instanceof IntColumn c) {
+            return c.data;
+        }
+        throw this.wrongType(column, "int");
+    }
+
+    /**
+     * Provide all the values of a long column, to loop over them without any indirection.
+     * The array is shared with this result and must not be modified, null values are stored as 0.
+     *
+     * @param column Index of a long column.
+     * @return The values, one per row.
+     * @throws IllegalStateException If the column is not a long column.
+     */
+    public long[] longs(int column) {
+        if (this.columns[column] instanceof LongColumn c) {
+            return c.data;
+        }
+        throw this.wrongType(column, "long");
+    }
+
+    /**
+     * Provide all the values of a double column, to loop over them without any indirection.
+     * The array is shared with this result and must not be modified, null values are stored as 0.
+     *
+     * @param column Index of a double column.
+     * @return The values, one per row.
+     * @throws IllegalStateException If the column is not a double column.
+     */
+    public double[] doubles(int column) {
+        if (this.columns[column] instanceof DoubleColumn c) {
+            return c.data;
+        }
+        throw this.wrongType(column, "double");
+    }
+
+    /**
+     * Provide the distinct values of a text column, in order of first appearance.
+     *
+     * @param column Index of a text column.
+     * @return The distinct non null values.
+     * @throws IllegalStateException If the column is not a text column.
+     */
+    public List<String> dictionary(int column) {
+        if (this.columns[column] instanceof StringColumn c) {
+            return List.of(c.dictionary);
+        }
+        throw this.wrongType(column, "text");
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= this.rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + this.rowCount + " rows.");
+        }
+    }
+
+    private IllegalStateException wrongType(int column, String expected) {
+        return new IllegalStateException("Column " + this.columns[column].label + " is not a " + expected + " column.");
+    }
+
+    /**
+     * Values of a single column, filled row after row, then completed to trim the storage.
+     */
+    private abstract static sealed class Column permits IntColumn, LongColumn, DoubleColumn, StringColumn, ObjectColumn {
+
+        private final String label;
+
+        final BitSet nulls = new BitSet();
+
+        private Column(String label) {
+            super();
+            this.label = label;
+        }
+
+        static Column create(String label, int sqlType) {
+            return switch (sqlType) {
+                case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> new IntColumn(label);
+                case Types.BIGINT -> new LongColumn(label);
+                case Types.DOUBLE, Types.FLOAT, Types.REAL -> new DoubleColumn(label);
+                case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR -> new StringColumn(label);
+                default -> new ObjectColumn(label);
+            };
+        }
+
+        abstract void read(WrappedResultSet resultSet, int index, int row);
+
+        abstract void complete();
+    }
+
+    private static final class IntColumn extends Column {
+
+        private IntArrayBuilder builder = new IntArrayBuilder(64);
+
+        private int[] data;
+
+        private IntColumn(String label) {
+            super(label);
+        }
+
+        @Override
+        void read(WrappedResultSet resultSet, int index, int row) {
+            this.builder.add(resultSet.getInt(index));
+            if (resultSet.wasNull()) {
+                this.nulls.set(row);
+            }
+        }
+
+        @Override
+        void complete() {
+            this.data = this.builder.toArray();
+            this.builder = null;
+        }
+    }
+
+    private static final class LongColumn extends Column {
+
+        private LongArrayBuilder builder = new LongArrayBuilder(64);
+
+        private long[] data;
+
+        private LongColumn(String label) {
+            super(label);
+        }
+
+        @Override
+        void read(WrappedResultSet resultSet, int index, int row) {
+            this.builder.add(resultSet.getLong(index));
+            if (resultSet.wasNull()) {
+                this.nulls.set(row);
+            }
+        }
+
+        @Override
+        void complete() {
+            this.data = this.builder.toArray();
+            this.builder = null;
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+
+        private DoubleArrayBuilder builder = new DoubleArrayBuilder(64);
+
+        private double[] data;
+
+        private DoubleColumn(String label) {
+            super(label);
+        }
+
+        @Override
+        void read(WrappedResultSet resultSet, int index, int row) {
+            this.builder.add(resultSet.getDouble(index));
+            if (resultSet.wasNull()) {
+                this.nulls.set(row);
+            }
+        }
+
+        @Override
+        void complete() {
+            this.data = this.builder.toArray();
+            this.builder = null;
+        }
+    }
+
+    /**
+     * Text values, every row stores the code of its value in the dictionary, or -1 for null.
+     */
+    private static final class StringColumn extends Column {
+
+        private IntArrayBuilder builder = new IntArrayBuilder(64);
+
+        private Map<String, Integer> codesByValue = new HashMap<>();
+
+        private List<String> values = new ArrayList<>();
+
+        private int[] codes;
+
+        private String[] dictionary;
+
+        private StringColumn(String label) {
+            super(label);
+        }
+
+        @Override
+        void read(WrappedResultSet resultSet, int index, int row) {
+            var value = resultSet.getString(index);
+            if (value == null) {
+                this.nulls.set(row);
+                this.builder.add(-1);
+            } else {
+                this.builder.add(this.codesByValue.computeIfAbsent(value, v -> {
+                    this.values.add(v);
+                    return this.values.size() - 1;
+                }));
+            }
+        }
+
+        @Override
+        void complete() {
+            this.codes = this.builder.toArray();
+            this.dictionary = this.values.toArray(String[]::new);
+            this.builder = null;
+            this.codesByValue = null;
+            this.values = null;
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+
+        private List<Object> values = new ArrayList<>();
+
+        private Object[] data;
+
+        private ObjectColumn(String label) {
+            super(label);
+        }
+
+        @Override
+        void read(WrappedResultSet resultSet, int index, int row) {
+            var value = resultSet.getObject(index);
+            if (value == null) {
+                this.nulls.set(row);
+            }
+            this.values.add(value);
+        }
+
+        @Override
+        void complete() {
+            this.data = this.values.toArray();
+            this.values = null;
+        }
+    }
+}
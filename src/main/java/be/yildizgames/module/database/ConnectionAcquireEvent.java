@@ -0,0 +1,53 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a connection retrieved from a provider, including the wait for a pooled connection.
+ *
+ * @author Grégory Van den Borre
+ */
+@Name("be.yildizgames.module.database.ConnectionAcquire")
+@Label("Connection Acquire")
+@Category({"Yildiz", "Database"})
+@Description("Connection retrieved from a provider, including the wait for a pooled connection")
+final class ConnectionAcquireEvent extends jdk.jfr.Event {
+
+    @Label("URI")
+    String uri;
+
+    @Label("Success")
+    @Description("False if no connection could be retrieved")
+    boolean success;
+
+    /**
+     * Set the event values and commit it, if it is enabled and over its threshold.
+     *
+     * @param uri Connection URI.
+     * @param success False if no connection could be retrieved.
+     */
+    void complete(String uri, boolean success) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.uri = uri;
+            this.success = success;
+            this.commit();
+        }
+    }
+}
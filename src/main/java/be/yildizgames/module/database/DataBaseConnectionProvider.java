@@ -27,7 +27,11 @@ package be.yildizgames.module.database;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Provide connections to the database system.
@@ -59,11 +63,47 @@ public abstract class DataBaseConnectionProvider implements AutoCloseable {
      */
     private final String password;
 
+    /**
+     * Maximum number of connections to use at the same time.
+     */
+    private final int maxConnections;
+
     /**
      * <code>true</code> will log every sql request.
      */
     private boolean debug;
 
+    /**
+     * Log of the queries executed over a threshold, disabled until a threshold is set.
+     */
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog();
+
+    /**
+     * Counters for the prepared statement caches of the provided connections.
+     */
+    private final StatementCacheStatistics statementCacheStatistics = new StatementCacheStatistics();
+
+    /**
+     * Cache for the query results, null if results are not cached.
+     */
+    private volatile QueryResultCache resultCache;
+
+    /**
+     * Entity caches reading from this provider, invalidated with the cached results.
+     */
+    private final Set<EntityCache<?, ?>> entityCaches = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Transaction currently running on each thread, so nested transactions reuse its connection.
+     */
+    private final ThreadLocal<TransactionScope> transactionScope = new ThreadLocal<>();
+
+    /**
+     * Metrics of the connections, queries and transactions of this provider, created at first use
+     * so their connection gauges never reference a provider still being built.
+     */
+    private final AtomicReference<DatabaseMetrics> metrics = new AtomicReference<>();
+
     /**
      * Create a new Database connection provider.
      *
@@ -84,14 +124,26 @@ public abstract class DataBaseConnectionProvider implements AutoCloseable {
         this.password = root ? properties.getDbRootPassword() : properties.getDbPassword();
         this.uri = system.getUrl(properties);
         this.system = system;
+        this.maxConnections = properties.getPoolMaxSize();
         assert this.invariant();
     }
 
     /**
-     * Activate debug mode to log all queries.
+     * Activate debug mode to log all queries, with their parameters, in the slow query log.
      */
     public final void setDebugMode() {
         this.debug = true;
+        this.slowQueryLog.setThreshold(Duration.ZERO);
+        this.slowQueryLog.setParameterSampling(1);
+    }
+
+    /**
+     * Provide the log of the queries executed by the QueryExecutor and AsyncQueryExecutor taking longer than a threshold.
+     *
+     * @return The slow query log.
+     */
+    public final SlowQueryLog getSlowQueryLog() {
+        return this.slowQueryLog;
     }
 
     /**
@@ -112,12 +164,56 @@ public abstract class DataBaseConnectionProvider implements AutoCloseable {
     /**
      * Retrieve a connection to the database. Do not forget to release it with
      * Connection.close()
+     * This method can be called from virtual threads, waiting for a connection never pins the carrier thread.
      *
      * @return The created database connection.
      * @throws SQLException In case the connection retrieving throws it.
      */
     public final Connection getConnection() throws SQLException {
-        return this.getConnectionImpl();
+        var event = new ConnectionAcquireEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Connection c = this.getConnectionImpl();
+            this.getMetrics().recordAcquire(System.nanoTime() - start);
+            success = true;
+            return c;
+        } finally {
+            event.complete(this.uri, success);
+        }
+    }
+
+    /**
+     * Provide the metrics of this provider, they can be published over JMX with DatabaseMetrics.register.
+     *
+     * @return The provider metrics.
+     */
+    public final DatabaseMetrics getMetrics() {
+        var result = this.metrics.get();
+        if (result == null) {
+            this.metrics.compareAndSet(null, new DatabaseMetrics(this::getActiveConnectionCount, this::getIdleConnectionCount, this.statementCacheStatistics));
+            result = this.metrics.get();
+        }
+        return result;
+    }
+
+    /**
+     * Provide the number of connections currently lent by this provider.
+     *
+     * @return The number of lent connections, -1 if not tracked.
+     */
+    int getActiveConnectionCount() {
+        return -1;
+    }
+
+    /**
+     * Provide the number of opened connections kept by this provider and not currently lent.
+     *
+     * @return The number of idle connections, -1 if the provider does not keep connections.
+     */
+    int getIdleConnectionCount() {
+        return -1;
     }
 
     public final String getDriver() {
@@ -128,6 +224,127 @@ public abstract class DataBaseConnectionProvider implements AutoCloseable {
         return uri;
     }
 
+    /**
+     * Provide the counters of the prepared statement caches, all counters stay at 0 if the provider does not cache statements.
+     *
+     * @return The statement cache counters.
+     */
+    public final StatementCacheStatistics getStatementCacheStatistics() {
+        return this.statementCacheStatistics;
+    }
+
+    /**
+     * Cache the results of the queries made with QueryExecutor.selectCached, writes made through this provider invalidate them.
+     *
+     * @param resultCache Cache to use, null to stop caching.
+     */
+    public final void setResultCache(QueryResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * @return The cache for the query results, null if results are not cached.
+     */
+    final QueryResultCache getResultCache() {
+        return this.resultCache;
+    }
+
+    /**
+     * Invalidate the entities of a cache when writes are made through this provider to its table.
+     *
+     * @param cache Entity cache to invalidate.
+     */
+    final void register(EntityCache<?, ?> cache) {
+        this.entityCaches.add(cache);
+    }
+
+    /**
+     * Stop invalidating an entity cache.
+     *
+     * @param cache Entity cache to forget.
+     */
+    final void unregister(EntityCache<?, ?> cache) {
+        this.entityCaches.remove(cache);
+    }
+
+    /**
+     * Invalidate the cached results and entities affected by a write statement.
+     *
+     * @param statement Executed statement.
+     */
+    final void invalidateResults(String statement) {
+        var cache = this.resultCache;
+        if (cache != null) {
+            cache.invalidateWrite(statement);
+        }
+        if (!this.entityCaches.isEmpty()) {
+            var table = QueryResultCache.writtenTable(statement);
+            if (table == null) {
+                this.entityCaches.forEach(EntityCache::invalidateAll);
+            } else if (!table.isEmpty()) {
+                this.entityCaches.forEach(c -> c.invalidateTable(table));
+            }
+        }
+    }
+
+    /**
+     * Invalidate the cached results of the queries mentioning some tables, and the cached entities of those tables.
+     *
+     * @param tables Names of the written tables.
+     */
+    final void invalidateTables(String... tables) {
+        var cache = this.resultCache;
+        for (var table : tables) {
+            if (cache != null) {
+                cache.invalidate(table);
+            }
+            this.entityCaches.forEach(c -> c.invalidateTable(table));
+        }
+    }
+
+    /**
+     * Invalidate all the cached results and entities.
+     */
+    final void invalidateAllResults() {
+        var cache = this.resultCache;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+        this.entityCaches.forEach(EntityCache::invalidateAll);
+    }
+
+    /**
+     * Provide the transaction running on the current thread.
+     *
+     * @return The current transaction scope, null if no transaction is running.
+     */
+    final TransactionScope getTransactionScope() {
+        return this.transactionScope.get();
+    }
+
+    /**
+     * Set the transaction running on the current thread.
+     *
+     * @param scope Scope of the transaction, null once it completes.
+     */
+    final void setTransactionScope(TransactionScope scope) {
+        if (scope == null) {
+            this.transactionScope.remove();
+        } else {
+            this.transactionScope.set(scope);
+        }
+    }
+
+    /**
+     * Provide the maximum number of connections to use at the same time, callers running queries concurrently
+     * should not go over it to avoid waiting for a connection.
+     *
+     * @return The maximum number of connections.
+     */
+    public final int getMaxConnections() {
+        return this.maxConnections;
+    }
+
     protected final DatabaseSystem getSystem() {
         return system;
     }
@@ -153,6 +370,9 @@ public abstract class DataBaseConnectionProvider implements AutoCloseable {
     }
 
     /**
+     * Implementations must not block while holding a monitor, as callers can be virtual threads:
+     * use java.util.concurrent locks, semaphores or lock-free structures instead of synchronized.
+     *
      * @return A database connection from the underlying implementation.
      * @throws SQLException When connection cannot be retrieved.
      */
@@ -85,6 +85,6 @@ public class DatabaseConnectionProviderFactory {
 
     private ConnectionProviderRegisterer getRegisterer() {
         var registerer = ServiceLoader.load(ConnectionProviderRegisterer.class);
-        return registerer.findFirst().orElse(new StandardConnectionProviderRegisterer());
+        return registerer.findFirst().orElseGet(PooledConnectionProviderRegisterer::new);
     }
 }
@@ -0,0 +1,281 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Metrics of a connection provider: connection acquisition, queries, batches and transactions.
+ * Recording only updates striped counters and does not allocate once a query fingerprint is known, so the metrics can stay enabled in production.
+ * Queries are identified by their SQL, parameters being bound with ?, a bounded number of fingerprints is kept,
+ * the queries recorded once the limit is reached are aggregated under a single fingerprint.
+ * The metrics can be published on the platform MBean server with register.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class DatabaseMetrics implements DatabaseMetricsMXBean {
+
+    /**
+     * Maximum number of query fingerprints kept.
+     */
+    static final int MAX_FINGERPRINTS = 512;
+
+    /**
+     * Fingerprint of the queries recorded once the maximum number of fingerprints is reached.
+     */
+    static final String OTHER = "<other>";
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final LatencyHistogram acquire = new LatencyHistogram();
+
+    private final Map<String, QueryStats> queries = new ConcurrentHashMap<>();
+
+    private final LongAdder queryCount = new LongAdder();
+
+    private final LongAdder queryErrors = new LongAdder();
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder batchedItems = new LongAdder();
+
+    private final LongAdder commits = new LongAdder();
+
+    private final LongAdder rollbacks = new LongAdder();
+
+    private final IntSupplier activeConnections;
+
+    private final IntSupplier idleConnections;
+
+    private final StatementCacheStatistics statementCacheStatistics;
+
+    /**
+     * Name under which the metrics are registered, null if not registered.
+     */
+    private volatile ObjectName objectName;
+
+    DatabaseMetrics(IntSupplier activeConnections, IntSupplier idleConnections, StatementCacheStatistics statementCacheStatistics) {
+        super();
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.statementCacheStatistics = statementCacheStatistics;
+    }
+
+    /**
+     * Publish the metrics on the platform MBean server, as be.yildizgames.module.database:type=DatabaseMetrics,name=[name].
+     *
+     * @param name Name identifying the connection provider.
+     * @throws IllegalStateException If the metrics cannot be registered, or a provider with the same name is already registered.
+     */
+    public void register(String name) {
+        try {
+            var on = new ObjectName("be.yildizgames.module.database:type=DatabaseMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+            this.objectName = on;
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Remove the metrics from the platform MBean server, if they were registered.
+     */
+    public void unregister() {
+        var on = this.objectName;
+        if (on != null) {
+            this.objectName = null;
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(on);
+            } catch (JMException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    void recordAcquire(long nanos) {
+        this.acquire.record(nanos);
+    }
+
+    /**
+     * Record a successful query execution.
+     *
+     * @param sql Query executed.
+     * @param nanos Duration of the execution, including the row mapping.
+     * @param rowCount Number of rows returned or updated.
+     */
+    void recordQuery(String sql, long nanos, long rowCount) {
+        this.queryCount.increment();
+        this.rows.add(rowCount);
+        QueryStats stats = this.queries.get(sql);
+        if (stats == null) {
+            stats = this.queries.size() < MAX_FINGERPRINTS
+                    ? this.queries.computeIfAbsent(sql, k -> new QueryStats())
+                    : this.queries.computeIfAbsent(OTHER, k -> new QueryStats());
+        }
+        stats.latency.record(nanos);
+        stats.rows.add(rowCount);
+    }
+
+    void recordQueryError() {
+        this.queryErrors.increment();
+    }
+
+    void recordBatch(int items) {
+        this.batches.increment();
+        this.batchedItems.add(items);
+    }
+
+    void recordCommit() {
+        this.commits.increment();
+    }
+
+    void recordRollback() {
+        this.rollbacks.increment();
+    }
+
+    @Override
+    public long getConnectionAcquireCount() {
+        return this.acquire.getCount();
+    }
+
+    @Override
+    public double getConnectionAcquireMeanMillis() {
+        return this.acquire.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getConnectionAcquireP99Millis() {
+        return this.acquire.getPercentile(0.99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getConnectionAcquireMaxMillis() {
+        return this.acquire.getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return this.activeConnections.getAsInt();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return this.idleConnections.getAsInt();
+    }
+
+    @Override
+    public long getQueryCount() {
+        return this.queryCount.sum();
+    }
+
+    @Override
+    public long getQueryErrorCount() {
+        return this.queryErrors.sum();
+    }
+
+    @Override
+    public long getRowsReturned() {
+        return this.rows.sum();
+    }
+
+    @Override
+    public long getBatchCount() {
+        return this.batches.sum();
+    }
+
+    @Override
+    public double getAverageBatchSize() {
+        long b = this.batches.sum();
+        return b == 0 ? 0 : (double) this.batchedItems.sum() / b;
+    }
+
+    @Override
+    public long getCommitCount() {
+        return this.commits.sum();
+    }
+
+    @Override
+    public long getRollbackCount() {
+        return this.rollbacks.sum();
+    }
+
+    @Override
+    public long getStatementCacheHits() {
+        return this.statementCacheStatistics.getHits();
+    }
+
+    @Override
+    public long getStatementCacheMisses() {
+        return this.statementCacheStatistics.getMisses();
+    }
+
+    @Override
+    public List<QueryMetrics> getQueryMetrics() {
+        var result = new ArrayList<QueryMetrics>(this.queries.size());
+        this.queries.forEach((sql, stats) -> result.add(new QueryMetrics(sql, stats.latency, stats.rows.sum())));
+        result.sort(Comparator.comparingDouble(QueryMetrics::getTotalMillis).reversed());
+        return result;
+    }
+
+    /**
+     * Provide the metrics of a query.
+     *
+     * @param sql Query SQL.
+     * @return The query metrics, null if the query was never recorded.
+     */
+    public QueryMetrics getQueryMetrics(String sql) {
+        QueryStats stats = this.queries.get(sql);
+        return stats == null ? null : new QueryMetrics(sql, stats.latency, stats.rows.sum());
+    }
+
+    @Override
+    public void reset() {
+        this.acquire.reset();
+        this.queries.clear();
+        this.queryCount.reset();
+        this.queryErrors.reset();
+        this.rows.reset();
+        this.batches.reset();
+        this.batchedItems.reset();
+        this.commits.reset();
+        this.rollbacks.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "queries: " + this.getQueryCount() + ", errors: " + this.getQueryErrorCount() + ", rows: " + this.getRowsReturned()
+                + ", commits: " + this.getCommitCount() + ", rollbacks: " + this.getRollbackCount();
+    }
+
+    /**
+     * Counters of a query fingerprint.
+     */
+    private static final class QueryStats {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final LongAdder rows = new LongAdder();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.util.List;
+
+/**
+ * Management interface of the database metrics, durations are in milliseconds.
+ *
+ * @author Grégory Van den Borre
+ */
+public interface DatabaseMetricsMXBean {
+
+    long getConnectionAcquireCount();
+
+    double getConnectionAcquireMeanMillis();
+
+    double getConnectionAcquireP99Millis();
+
+    double getConnectionAcquireMaxMillis();
+
+    /**
+     * @return The number of connections currently lent, -1 if the provider does not track them.
+     */
+    int getActiveConnections();
+
+    /**
+     * @return The number of opened connections not currently lent, -1 if the provider does not keep idle connections.
+     */
+    int getIdleConnections();
+
+    long getQueryCount();
+
+    long getQueryErrorCount();
+
+    long getRowsReturned();
+
+    long getBatchCount();
+
+    double getAverageBatchSize();
+
+    long getCommitCount();
+
+    long getRollbackCount();
+
+    long getStatementCacheHits();
+
+    long getStatementCacheMisses();
+
+    /**
+     * @return The metrics of every query fingerprint, the slowest in total first.
+     */
+    List<QueryMetrics> getQueryMetrics();
+
+    /**
+     * Set all the counters back to 0.
+     */
+    void reset();
+}
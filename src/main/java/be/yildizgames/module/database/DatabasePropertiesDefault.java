@@ -42,6 +42,9 @@ public class DatabasePropertiesDefault extends Properties {
         this.setProperty("database.host", "localhost");
         this.setProperty("database.port", "9000");
         this.setProperty("database.system", "derby-file");
+        this.setProperty("database.pool.size", String.valueOf(DbProperties.DEFAULT_POOL_MAX_SIZE));
+        this.setProperty("database.pool.timeout", String.valueOf(DbProperties.DEFAULT_POOL_ACQUIRE_TIMEOUT));
+        this.setProperty("database.statement.cache.size", String.valueOf(DbProperties.DEFAULT_STATEMENT_CACHE_SIZE));
     }
 
 }
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a query executed by the QueryExecutor, from the connection acquisition to the last mapped row.
+ * The event is emitted for failed queries too, with success set to false.
+ * When the event is disabled, begin and complete do nothing and the instance is not allocated once the code is compiled.
+ *
+ * @author Grégory Van den Borre
+ */
+@Name("be.yildizgames.module.database.DatabaseQuery")
+@Label("Database Query")
+@Category({"Yildiz", "Database"})
+@Description("Query executed, including the connection acquisition and the row mapping")
+final class DatabaseQueryEvent extends jdk.jfr.Event {
+
+    @Label("SQL")
+    @Description("Query SQL, with a ? for every parameter")
+    String sql;
+
+    @Label("Rows")
+    @Description("Number of rows returned or updated")
+    long rows;
+
+    @Label("Success")
+    @Description("False if the query failed, the rows are then 0")
+    boolean success;
+
+    /**
+     * Set the event values and commit it, if it is enabled and over its threshold.
+     *
+     * @param sql Query SQL.
+     * @param rows Number of rows returned or updated.
+     * @param success False if the query failed.
+     */
+    void complete(String sql, long rows, boolean success) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.sql = sql;
+            this.rows = rows;
+            this.success = success;
+            this.commit();
+        }
+    }
+}
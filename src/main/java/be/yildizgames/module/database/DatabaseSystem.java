@@ -55,4 +55,13 @@ public interface DatabaseSystem {
      * @return True if a pool can be used, false otherwise.
      */
     boolean requirePool();
+
+    /**
+     * Flag to know if this system accepts several rows in a single INSERT ... VALUES statement.
+     * Batches of simple inserts are then sent as multi-row statements instead of one statement per row.
+     * @return True if multi-row inserts are supported, false otherwise.
+     */
+    default boolean supportMultiRowInsert() {
+        return false;
+    }
 }
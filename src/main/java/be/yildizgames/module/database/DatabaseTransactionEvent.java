@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a transaction, including all its attempts.
+ *
+ * @author Grégory Van den Borre
+ */
+@Name("be.yildizgames.module.database.DatabaseTransaction")
+@Label("Database Transaction")
+@Category({"Yildiz", "Database"})
+@Description("Transaction executed, including its retries")
+final class DatabaseTransactionEvent extends jdk.jfr.Event {
+
+    @Label("Committed")
+    boolean committed;
+
+    @Label("Attempts")
+    @Description("Number of times the behavior was executed")
+    int attempts;
+
+    @Label("Nested")
+    @Description("Transaction executed inside a savepoint of an outer transaction")
+    boolean nested;
+
+    void complete(boolean committed, int attempts, boolean nested) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.committed = committed;
+            this.attempts = attempts;
+            this.nested = nested;
+            this.commit();
+        }
+    }
+}
@@ -31,6 +31,20 @@ package be.yildizgames.module.database;
  */
 public interface DbProperties {
 
+    /**
+     * Number of connections opened by a pool when nothing else is configured.
+     */
+    int DEFAULT_POOL_MAX_SIZE = 10;
+
+    /**
+     * Time in milliseconds to wait for a pooled connection when nothing else is configured.
+     */
+    long DEFAULT_POOL_ACQUIRE_TIMEOUT = 30_000;
+
+    /**
+     * Number of prepared statements cached for each pooled connection when nothing else is configured.
+     */
+    int DEFAULT_STATEMENT_CACHE_SIZE = 64;
 
     /**
      * @return The user login to connect to the database.
@@ -68,6 +82,30 @@ public interface DbProperties {
 
     String getDbRootPassword();
 
+    /**
+     * @return The maximum number of connections opened by the connection pool.
+     */
+    //@Ensures("return value > 0")
+    default int getPoolMaxSize() {
+        return DEFAULT_POOL_MAX_SIZE;
+    }
+
+    /**
+     * @return The maximum time in milliseconds to wait for a pooled connection to be available.
+     */
+    //@Ensures("return value >= 0")
+    default long getPoolAcquireTimeout() {
+        return DEFAULT_POOL_ACQUIRE_TIMEOUT;
+    }
+
+    /**
+     * @return The maximum number of prepared statements cached for each pooled connection, 0 to disable the cache.
+     */
+    //@Ensures("return value >= 0")
+    default int getStatementCacheSize() {
+        return DEFAULT_STATEMENT_CACHE_SIZE;
+    }
+
     /**
      * DbPropertiesInvariant to ensure the state is correct.
      */
@@ -91,6 +129,18 @@ public interface DbProperties {
             checkSystem(system);
         }
 
+        public static void checkPool(int maxSize, long acquireTimeout, int statementCacheSize) {
+            if(maxSize < 1) {
+                throw new IllegalArgumentException("Pool size must be at least 1, value is " + maxSize);
+            }
+            if(acquireTimeout < 0) {
+                throw new IllegalArgumentException("Pool acquire timeout cannot be negative, value is " + acquireTimeout);
+            }
+            if(statementCacheSize < 0) {
+                throw new IllegalArgumentException("Statement cache size cannot be negative, value is " + statementCacheSize);
+            }
+        }
+
         private static void checkUser(String user) {
             if(user == null) {
                 throw new NullPointerException("User is null.");
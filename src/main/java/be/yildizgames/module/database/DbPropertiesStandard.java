@@ -65,6 +65,21 @@ public class DbPropertiesStandard implements DbProperties {
 
     private final String rootPassword;
 
+    /**
+     * Maximum number of pooled connections.
+     */
+    private final int poolMaxSize;
+
+    /**
+     * Maximum time in milliseconds to wait for a pooled connection.
+     */
+    private final long poolAcquireTimeout;
+
+    /**
+     * Maximum number of prepared statements cached for each pooled connection.
+     */
+    private final int statementCacheSize;
+
     /**
      * Build a DbProperties from a property object.
      * Expected content is:
@@ -78,9 +93,15 @@ public class DbPropertiesStandard implements DbProperties {
      *     <li>database.port</li>
      *     <li>database.system</li>
      * </ul>
+     * Optional content is:
+     * <ul>
+     *     <li>database.pool.size</li>
+     *     <li>database.pool.timeout</li>
+     *     <li>database.statement.cache.size</li>
+     * </ul>
      * @param properties Properties object.
      * @throws NullPointerException If any parameter is null.
-     * @throws IllegalArgumentException If the port is not between 0 and 65635
+     * @throws IllegalArgumentException If the port is not between 0 and 65635, or the pool values are invalid.
      */
     public DbPropertiesStandard(final Properties properties) {
         super();
@@ -93,7 +114,11 @@ public class DbPropertiesStandard implements DbProperties {
         this.host = properties.getProperty("database.host");
         this.port = Integer.parseInt(properties.getProperty("database.port"));
         this.system = properties.getProperty("database.system");
+        this.poolMaxSize = Integer.parseInt(properties.getProperty("database.pool.size", String.valueOf(DEFAULT_POOL_MAX_SIZE)));
+        this.poolAcquireTimeout = Long.parseLong(properties.getProperty("database.pool.timeout", String.valueOf(DEFAULT_POOL_ACQUIRE_TIMEOUT)));
+        this.statementCacheSize = Integer.parseInt(properties.getProperty("database.statement.cache.size", String.valueOf(DEFAULT_STATEMENT_CACHE_SIZE)));
         DbPropertiesInvariant.check(this.user, this.password, this.rootUser, this.rootPassword, this.database, this.host, this.port, this.system);
+        DbPropertiesInvariant.checkPool(this.poolMaxSize, this.poolAcquireTimeout, this.statementCacheSize);
     }
 
     public static DbProperties fromProperties(final Properties properties) {
@@ -139,4 +164,19 @@ public class DbPropertiesStandard implements DbProperties {
     public String getDbRootPassword() {
         return this.rootPassword;
     }
+
+    @Override
+    public int getPoolMaxSize() {
+        return this.poolMaxSize;
+    }
+
+    @Override
+    public long getPoolAcquireTimeout() {
+        return this.poolAcquireTimeout;
+    }
+
+    @Override
+    public int getStatementCacheSize() {
+        return this.statementCacheSize;
+    }
 }
@@ -0,0 +1,407 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Read through cache of the rows of a table, by id.
+ * Missing rows are loaded with a single WHERE id IN (...) query per batch of ids, and concurrent callers asking for
+ * an id being loaded wait for that load instead of querying again.
+ * Entries expire after a fixed time, and when the cache is full the least recently read ones are evicted.
+ * Reading a cached entry takes no lock.
+ * Writes made through the provider with QueryExecutor, AsyncQueryExecutor or Transaction invalidate the cache like they
+ * invalidate the provider result cache, until the cache is closed.
+ *
+ * @param <K> Type of the id.
+ * @param <V> Type of the entities.
+ * @author Grégory Van den Borre
+ */
+public final class EntityCache<K, V> implements AutoCloseable {
+
+    /**
+     * Maximum number of ids in a single query, queries use power of 2 numbers of ids up to it so only a few statements are prepared.
+     */
+    static final int MAX_BATCH = 512;
+
+    /**
+     * Part of the maximum size evicted at once when the cache is full, to not sort the entries for every insertion.
+     */
+    private static final int EVICTION_DIVISOR = 10;
+
+    private final DataBaseConnectionProvider provider;
+
+    private final RowMapper<V> mapper;
+
+    private final Function<V, K> idOf;
+
+    private final String tableName;
+
+    private final String queryPrefix;
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Loads in progress, by id.
+     */
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * Number of invalidations, a loaded entity is only cached if no invalidation happened while it was loaded.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder queries = new LongAdder();
+
+    /**
+     * Create a new cache, invalidated by the writes to its table made through the provider until it is closed.
+     *
+     * @param provider Provider for the connections.
+     * @param table Table holding the entities, it must have an id.
+     * @param mapper Mapper to build an entity from a row.
+     * @param idOf Function providing the id of an entity.
+     * @param maxSize Maximum number of entities to keep.
+     * @param ttl Time to keep an entity.
+     * @throws IllegalArgumentException If the table has no id, the maximum size or the time to keep an entity is not positive.
+     */
+    public EntityCache(DataBaseConnectionProvider provider, TableSchema table, RowMapper<V> mapper, Function<V, K> idOf, int maxSize, Duration ttl) {
+        super();
+        if (table.getId() == null) {
+            throw new IllegalArgumentException("Table " + table + " has no id.");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be at least 1, value is " + maxSize);
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive, value is " + ttl);
+        }
+        this.provider = provider;
+        this.mapper = mapper;
+        this.idOf = idOf;
+        this.tableName = table.getTableName();
+        this.queryPrefix = "SELECT * FROM " + this.tableName + " WHERE " + table.getId().getTitle() + " IN (";
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        provider.register(this);
+    }
+
+    /**
+     * Find an entity from its id, loading it from the database if it is not cached.
+     *
+     * @param id Entity id.
+     * @return The entity, empty if no row has this id.
+     */
+    public Optional<V> findById(K id) {
+        var entry = this.fresh(id);
+        if (entry != null) {
+            return Optional.of(entry.value);
+        }
+        return Optional.ofNullable(this.load(List.of(id)).get(id));
+    }
+
+    /**
+     * Find several entities, the ones not cached are loaded together.
+     *
+     * @param ids Entity ids.
+     * @return The entities found, by id.
+     */
+    public Map<K, V> findAllById(Collection<K> ids) {
+        Map<K, V> result = new LinkedHashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (var id : ids) {
+            var entry = this.fresh(id);
+            if (entry == null) {
+                missing.add(id);
+            } else {
+                result.put(id, entry.value);
+            }
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(this.load(missing));
+        }
+        return result;
+    }
+
+    /**
+     * Remove an entity, it will be loaded again at the next access.
+     *
+     * @param id Entity id.
+     */
+    public void invalidate(K id) {
+        this.generation.incrementAndGet();
+        this.entries.remove(id);
+    }
+
+    /**
+     * Remove all the entities.
+     */
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.entries.clear();
+    }
+
+    /**
+     * Stop being invalidated by the writes made through the provider, the cached entities are kept.
+     */
+    @Override
+    public void close() {
+        this.provider.unregister(this);
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return The number of queries made to load the missing entities.
+     */
+    public long getQueries() {
+        return this.queries.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "hits: " + this.getHits() + ", misses: " + this.getMisses() + ", queries: " + this.getQueries();
+    }
+
+    /**
+     * Remove all the entities if a table is the one holding them.
+     *
+     * @param table Name of a written table.
+     */
+    void invalidateTable(String table) {
+        if (this.tableName.equalsIgnoreCase(table)) {
+            this.invalidateAll();
+        }
+    }
+
+    /**
+     * Build the query for a number of ids.
+     *
+     * @param ids Number of ids, a power of 2 or the maximum batch size.
+     * @return The query.
+     */
+    String query(int ids) {
+        var builder = new StringBuilder(this.queryPrefix.length() + ids * 2);
+        builder.append(this.queryPrefix).append('?');
+        for (int i = 1; i < ids; i++) {
+            builder.append(",?");
+        }
+        return builder.append(')').toString();
+    }
+
+    /**
+     * Provide a cached entry, if not expired, and record its access.
+     *
+     * @param id Entity id.
+     * @return The entry, or null if not cached or expired.
+     */
+    private Entry<V> fresh(K id) {
+        var entry = this.entries.get(id);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.loadedAt > this.ttlNanos) {
+            this.entries.remove(id, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        entry.lastAccess = now;
+        this.hits.increment();
+        return entry;
+    }
+
+    /**
+     * Load entities, ids already being loaded by another caller are waited for, and ids cached by a load completed
+     * since the caller missed them are not queried again.
+     *
+     * @param ids Ids of the entities to load.
+     * @return The entities found, by id.
+     */
+    private Map<K, V> load(List<K> ids) {
+        Map<K, CompletableFuture<V>> awaited = new HashMap<>();
+        Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+        Map<K, V> result = new HashMap<>();
+        for (var id : ids) {
+            var future = new CompletableFuture<V>();
+            var existing = this.loading.putIfAbsent(id, future);
+            if (existing != null) {
+                awaited.put(id, existing);
+                continue;
+            }
+            // Another load may have cached the id and ended between the miss and the registration of this load.
+            var entry = this.entries.get(id);
+            if (entry != null && System.nanoTime() - entry.loadedAt <= this.ttlNanos) {
+                this.loading.remove(id, future);
+                future.complete(entry.value);
+                result.put(id, entry.value);
+            } else {
+                owned.put(id, future);
+            }
+        }
+        if (!owned.isEmpty()) {
+            result.putAll(this.query(owned));
+        }
+        for (var wait : awaited.entrySet()) {
+            try {
+                var value = wait.getValue().join();
+                if (value != null) {
+                    result.put(wait.getKey(), value);
+                }
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Query the entities, cache them and complete their loads.
+     *
+     * @param owned Loads to complete, by id.
+     * @return The entities found, by id.
+     */
+    private Map<K, V> query(Map<K, CompletableFuture<V>> owned) {
+        long startGeneration = this.generation.get();
+        Map<K, V> found = new HashMap<>();
+        try {
+            var ids = new ArrayList<>(owned.keySet());
+            for (int start = 0; start < ids.size(); start += MAX_BATCH) {
+                this.queryBatch(ids.subList(start, Math.min(ids.size(), start + MAX_BATCH)), found);
+            }
+        } catch (RuntimeException e) {
+            owned.forEach((id, future) -> {
+                this.loading.remove(id, future);
+                future.completeExceptionally(e);
+            });
+            throw e;
+        }
+        long now = System.nanoTime();
+        boolean store = this.generation.get() == startGeneration;
+        owned.forEach((id, future) -> {
+            var value = found.get(id);
+            if (value != null && store) {
+                this.entries.put(id, new Entry<>(value, now));
+            }
+            this.loading.remove(id, future);
+            future.complete(value);
+        });
+        if (this.entries.size() > this.maxSize) {
+            this.evict();
+        }
+        return found;
+    }
+
+    private void queryBatch(List<K> ids, Map<K, V> found) {
+        int size = ids.size() == 1 ? 1 : Math.min(Integer.highestOneBit(ids.size() - 1) << 1, MAX_BATCH);
+        this.queries.increment();
+        try (var c = this.provider.getConnection(); var pstmt = WrappedPreparedStatement.create(c.prepareStatement(this.query(size)))) {
+            for (int i = 0; i < size; i++) {
+                // Unused parameters repeat the last id, it does not change the result.
+                pstmt.setObject(i + 1, ids.get(Math.min(i, ids.size() - 1)));
+            }
+            try (var resultSet = WrappedResultSet.wrap(pstmt.executeQuery())) {
+                while (resultSet.next()) {
+                    var value = this.mapper.map(resultSet);
+                    found.put(this.idOf.apply(value), value);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Remove the least recently read entries, to go back under the maximum size minus a margin.
+     */
+    private void evict() {
+        if (!this.evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = this.maxSize - this.maxSize / EVICTION_DIVISOR;
+            int excess = this.entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            // Access times are copied before sorting, as readers keep updating them.
+            this.entries.entrySet().stream()
+                    .map(e -> new Candidate<>(e.getKey(), e.getValue(), e.getValue().lastAccess))
+                    .sorted(Comparator.comparingLong(Candidate::lastAccess))
+                    .limit(excess)
+                    .forEach(c -> this.entries.remove(c.id(), c.entry()));
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    private record Candidate<K, V>(K id, Entry<V> entry, long lastAccess) {}
+
+    /**
+     * Cached entity.
+     */
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long loadedAt;
+
+        /**
+         * Time of the last read, only used to choose the entries to evict, so races between readers do not matter.
+         */
+        private volatile long lastAccess;
+
+        private Entry(V value, long loadedAt) {
+            super();
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
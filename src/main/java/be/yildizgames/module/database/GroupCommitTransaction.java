@@ -0,0 +1,326 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Execute many small transactions with a single commit.
+ * Submitted behaviors are queued and executed back to back on one connection, each one inside its own savepoint,
+ * so a failing behavior is rolled back without affecting the others of its group.
+ * A group is committed once it reaches its maximum size, or once its first behavior waited for the maximum wait time,
+ * the future of every behavior completes after the commit, when its changes are durable.
+ * While a group is committed, the next one is collected, so the commit cost is shared by all the behaviors of a group.
+ * Transactions executed by a behavior are nested in the group transaction.
+ * If the committer thread stops on an unexpected failure, the transaction is closed and all its pending behaviors fail.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class GroupCommitTransaction implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(GroupCommitTransaction.class.getName());
+
+    /**
+     * Marker stopping the committer thread.
+     */
+    private static final Request STOP = new Request(c -> {});
+
+    private final DataBaseConnectionProvider provider;
+
+    private final int maxGroupSize;
+
+    private final long maxWaitNanos;
+
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * Guard the closed flag, so no request can be queued after the stop marker.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Thread committer;
+
+    private boolean closed;
+
+    private final LongAdder groups = new LongAdder();
+
+    private final LongAdder committed = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Create a new group commit transaction and start its committer thread.
+     *
+     * @param provider Provider for the connections.
+     * @param maxGroupSize Maximum number of behaviors committed together.
+     * @param maxWait Maximum time to wait for other behaviors before committing a group.
+     * @throws IllegalArgumentException If the group size is not positive or the wait time is negative.
+     */
+    public GroupCommitTransaction(DataBaseConnectionProvider provider, int maxGroupSize, Duration maxWait) {
+        super();
+        if (maxGroupSize < 1) {
+            throw new IllegalArgumentException("Maximum group size must be at least 1, value is " + maxGroupSize);
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("Maximum wait cannot be negative, value is " + maxWait);
+        }
+        this.provider = provider;
+        this.maxGroupSize = maxGroupSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.committer = Thread.ofVirtual().name("group-commit").start(this::commitLoop);
+    }
+
+    /**
+     * Queue a behavior to be executed in the next group.
+     *
+     * @param behavior Behavior to execute.
+     * @return A future completed once the group containing the behavior is committed, or completed exceptionally
+     * with the failure of the behavior, or of the commit.
+     * @throws IllegalStateException If this transaction is closed.
+     */
+    public CompletableFuture<Void> submit(TransactionBehavior behavior) {
+        var request = new Request(behavior);
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                throw new IllegalStateException("Group commit transaction is closed.");
+            }
+            this.queue.add(request);
+        } finally {
+            this.lock.unlock();
+        }
+        return request.future;
+    }
+
+    /**
+     * Stop accepting behaviors, and wait until the queued ones are committed.
+     */
+    @Override
+    public void close() {
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.queue.add(STOP);
+        } finally {
+            this.lock.unlock();
+        }
+        try {
+            this.committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return The number of groups committed or rolled back.
+     */
+    public long getGroups() {
+        return this.groups.sum();
+    }
+
+    /**
+     * @return The number of behaviors committed.
+     */
+    public long getCommitted() {
+        return this.committed.sum();
+    }
+
+    /**
+     * @return The number of behaviors rolled back, because they failed or their group could not be committed.
+     */
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    /**
+     * @return The average number of behaviors in a group.
+     */
+    public double getAverageGroupSize() {
+        long g = this.groups.sum();
+        return g == 0 ? 0 : (double) (this.committed.sum() + this.failures.sum()) / g;
+    }
+
+    /**
+     * Collect and commit the groups until stopped, then close this transaction and fail the behaviors not committed.
+     */
+    private void commitLoop() {
+        var group = new ArrayList<Request>(this.maxGroupSize);
+        Throwable failure = null;
+        try {
+            this.collect(group);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            LOGGER.log(System.Logger.Level.ERROR, "Group commit thread failed, pending transactions are rejected.", e);
+        } finally {
+            this.lock.lock();
+            try {
+                this.closed = true;
+            } finally {
+                this.lock.unlock();
+            }
+            var rejection = new IllegalStateException("Group commit transaction is closed.", failure);
+            group.forEach(r -> r.future.completeExceptionally(rejection));
+            Request remaining;
+            while ((remaining = this.queue.poll()) != null) {
+                if (remaining != STOP) {
+                    remaining.future.completeExceptionally(rejection);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collect the queued behaviors in groups and commit them, until the stop marker is received.
+     *
+     * @param group Buffer for the behaviors of the group being collected.
+     */
+    private void collect(List<Request> group) {
+        boolean running = true;
+        while (running) {
+            try {
+                Request first = this.queue.take();
+                if (first == STOP) {
+                    return;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + this.maxWaitNanos;
+                while (group.size() < this.maxGroupSize) {
+                    Request next = this.queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == STOP) {
+                        running = false;
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!group.isEmpty()) {
+                this.commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Execute the behaviors of a group in a single transaction, each one in its own savepoint, and commit.
+     *
+     * @param group Behaviors to execute.
+     */
+    private void commit(List<Request> group) {
+        this.groups.increment();
+        SQLException groupFailure = null;
+        try (Connection c = this.provider.getConnection()) {
+            boolean autoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            this.provider.setTransactionScope(new TransactionScope(c));
+            try {
+                for (Request r : group) {
+                    this.execute(c, r);
+                }
+                c.commit();
+                this.provider.getMetrics().recordCommit();
+            } catch (SQLException e) {
+                groupFailure = e;
+                try {
+                    c.rollback();
+                } catch (SQLException re) {
+                    e.addSuppressed(re);
+                }
+                this.provider.getMetrics().recordRollback();
+            } finally {
+                this.provider.setTransactionScope(null);
+                c.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            groupFailure = e;
+        } finally {
+            this.provider.invalidateAllResults();
+        }
+        if (groupFailure != null) {
+            LOGGER.log(System.Logger.Level.ERROR, "Error while committing a group of " + group.size() + " transactions", groupFailure);
+        }
+        for (Request r : group) {
+            if (r.failure == null && groupFailure == null) {
+                this.committed.increment();
+                r.future.complete(null);
+            } else {
+                this.failures.increment();
+                r.future.completeExceptionally(r.failure == null ? groupFailure : r.failure);
+            }
+        }
+    }
+
+    /**
+     * Execute a behavior inside a savepoint, rolled back to the savepoint if the behavior fails, even with an error,
+     * so a single behavior cannot stop the committer thread.
+     *
+     * @param c Connection of the group.
+     * @param request Behavior to execute.
+     * @throws SQLException If the savepoint cannot be created or rolled back, the whole group must then be rolled back.
+     */
+    private void execute(Connection c, Request request) throws SQLException {
+        Savepoint savepoint = c.setSavepoint();
+        try {
+            request.behavior.execute(c);
+        } catch (Throwable e) {
+            request.failure = e;
+            c.rollback(savepoint);
+            return;
+        }
+        c.releaseSavepoint(savepoint);
+    }
+
+    @Override
+    public String toString() {
+        return "Group commit, groups: " + this.getGroups() + ", committed: " + this.getCommitted() + ", failures: " + this.getFailures();
+    }
+
+    /**
+     * Behavior waiting to be committed.
+     */
+    private static final class Request {
+
+        private final TransactionBehavior behavior;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        /**
+         * Failure of the behavior, only accessed by the committer thread.
+         */
+        private Throwable failure;
+
+        private Request(TransactionBehavior behavior) {
+            this.behavior = behavior;
+        }
+    }
+}
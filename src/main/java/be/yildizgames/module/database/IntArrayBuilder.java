@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of int values, without boxing.
+ *
+ * @author Grégory Van den Borre
+ */
+final class IntArrayBuilder {
+
+    private int[] values;
+
+    private int size;
+
+    IntArrayBuilder(int capacity) {
+        super();
+        this.values = new int[Math.max(capacity, 8)];
+    }
+
+    void add(int value) {
+        this.ensureCapacity(this.size + 1);
+        this.values[this.size++] = value;
+    }
+
+    void addAll(int[] values) {
+        this.ensureCapacity(this.size + values.length);
+        System.arraycopy(values, 0, this.values, this.size, values.length);
+        this.size += values.length;
+    }
+
+    /**
+     * Add the same value several times.
+     *
+     * @param value Value to add.
+     * @param count Number of times to add it.
+     */
+    void fill(int value, int count) {
+        this.ensureCapacity(this.size + count);
+        Arrays.fill(this.values, this.size, this.size + count, value);
+        this.size += count;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * @return A copy of the values, with the exact size.
+     */
+    int[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.values.length) {
+            this.values = Arrays.copyOf(this.values, Math.max(capacity, this.values.length + (this.values.length >> 1)));
+        }
+    }
+}
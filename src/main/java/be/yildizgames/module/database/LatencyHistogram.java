@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds, with logarithmic buckets.
+ * Every power of two is split in 4 buckets, so a recorded value is known with a precision of 25%, from 1ns to the largest long value.
+ * Buckets are striped counters created on first use, so recording does not allocate once the used buckets exist,
+ * and concurrent recordings do not contend.
+ *
+ * @author Grégory Van den Borre
+ */
+final class LatencyHistogram {
+
+    /**
+     * Number of buckets for every power of two, as a number of bits.
+     */
+    private static final int SUB_BUCKET_BITS = 2;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder total = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a duration.
+     *
+     * @param nanos Duration in nanoseconds, negative values are recorded as 0.
+     */
+    void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        int index = index(value);
+        LongAdder bucket = this.buckets.get(index);
+        if (bucket == null) {
+            this.buckets.compareAndSet(index, null, new LongAdder());
+            bucket = this.buckets.get(index);
+        }
+        bucket.increment();
+        this.count.increment();
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    long getCount() {
+        return this.count.sum();
+    }
+
+    long getTotal() {
+        return this.total.sum();
+    }
+
+    long getMax() {
+        return this.max.get();
+    }
+
+    double getMean() {
+        long c = this.count.sum();
+        return c == 0 ? 0 : (double) this.total.sum() / c;
+    }
+
+    /**
+     * Provide an upper bound of the value below which a given fraction of the recorded values fall.
+     *
+     * @param fraction Fraction of the values, between 0 and 1.
+     * @return The highest value of the bucket containing the percentile, not greater than the maximum recorded value.
+     */
+    long getPercentile(double fraction) {
+        long c = this.count.sum();
+        if (c == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * c));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = this.buckets.get(i);
+            if (bucket != null) {
+                seen += bucket.sum();
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), this.max.get());
+                }
+            }
+        }
+        return this.max.get();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = this.buckets.get(i);
+            if (bucket != null) {
+                bucket.reset();
+            }
+        }
+        this.count.reset();
+        this.total.reset();
+        this.max.reset();
+    }
+
+    /**
+     * Compute the bucket of a value, values below 4 have their own bucket,
+     * other values are indexed by their highest bit, and the 2 bits following it.
+     *
+     * @param value Positive value.
+     * @return The bucket index.
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Compute the highest value stored in a bucket.
+     *
+     * @param index Bucket index.
+     * @return The highest value of the bucket.
+     */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long next = (long) (SUB_BUCKETS + index % SUB_BUCKETS + 1) << shift;
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
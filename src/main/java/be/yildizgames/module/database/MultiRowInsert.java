@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrite of a single row INSERT ... VALUES (?, ?) statement to insert several rows at once.
+ * Only simple statements are rewritten: a single group of values, without nested parenthesis or literals.
+ *
+ * @author Grégory Van den Borre
+ */
+final class MultiRowInsert {
+
+    /**
+     * Maximum number of parameters in a single statement, some drivers refuse more than a few thousands.
+     */
+    private static final int MAX_PARAMETERS = 2000;
+
+    private static final Pattern INSERT = Pattern.compile("^\\s*(INSERT\\s+INTO\\s+.+?\\s+VALUES)\\s*(\\([^()'\"]*\\))\\s*;?\\s*$", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /**
+     * Statement up to the VALUES keyword.
+     */
+    private final String prefix;
+
+    /**
+     * Group of values for a single row.
+     */
+    private final String row;
+
+    /**
+     * Number of parameters for a single row.
+     */
+    private final int parameters;
+
+    /**
+     * Maximum number of rows in a single statement.
+     */
+    private final int maxRows;
+
+    private MultiRowInsert(String prefix, String row, int parameters, int batchSize) {
+        super();
+        this.prefix = prefix;
+        this.row = row;
+        this.parameters = parameters;
+        this.maxRows = Math.max(1, Math.min(batchSize, MAX_PARAMETERS / parameters));
+    }
+
+    /**
+     * Check if a statement can be rewritten.
+     *
+     * @param query Statement to rewrite.
+     * @param batchSize Maximum number of rows to insert in a single statement.
+     * @return The rewrite, or null if the statement is not a simple insert.
+     */
+    static MultiRowInsert parse(String query, int batchSize) {
+        var matcher = INSERT.matcher(query);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String row = matcher.group(2);
+        int parameters = (int) row.chars().filter(c -> c == '?').count();
+        if (parameters == 0) {
+            return null;
+        }
+        return new MultiRowInsert(matcher.group(1), row, parameters, batchSize);
+    }
+
+    /**
+     * Insert all the items, by chunks of rows in a single statement.
+     *
+     * @param c Connection to use.
+     * @param items Items to insert.
+     * @param binder Binder setting the parameters of a single row.
+     * @param <T> Type of the items.
+     * @return One update count per item, 1 if the statement inserted all its rows, Statement.SUCCESS_NO_INFO otherwise.
+     * @throws SQLException If a statement cannot be prepared.
+     */
+    <T> int[] execute(Connection c, Iterable<T> items, ItemBinder<T> binder) throws SQLException {
+        var counts = new IntArrayBuilder(this.maxRows);
+        List<T> chunk = new ArrayList<>(this.maxRows);
+        for (T item : items) {
+            chunk.add(item);
+            if (chunk.size() == this.maxRows) {
+                this.insert(c, chunk, binder, counts);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            this.insert(c, chunk, binder, counts);
+        }
+        return counts.toArray();
+    }
+
+    private <T> void insert(Connection c, List<T> rows, ItemBinder<T> binder, IntArrayBuilder counts) throws SQLException {
+        try (var pstmt = WrappedPreparedStatement.create(c.prepareStatement(this.query(rows.size())))) {
+            for (int i = 0; i < rows.size(); i++) {
+                pstmt.setParameterOffset(i * this.parameters);
+                binder.bind(pstmt, rows.get(i));
+            }
+            pstmt.setParameterOffset(0);
+            int updated = pstmt.executeUpdate();
+            counts.fill(updated == rows.size() ? 1 : Statement.SUCCESS_NO_INFO, rows.size());
+        }
+    }
+
+    String query(int rows) {
+        var builder = new StringBuilder(this.prefix.length() + 1 + rows * (this.row.length() + 1));
+        builder.append(this.prefix).append(' ').append(this.row);
+        for (int i = 1; i < rows; i++) {
+            builder.append(',').append(this.row);
+        }
+        return builder.toString();
+    }
+}
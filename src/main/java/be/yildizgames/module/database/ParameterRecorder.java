@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.module.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Record the parameters set by a binder without any connection, to build a cache key before a connection is borrowed.
+ * The recorded calls are replayed on the real statement if the query must be executed, so the binder is called only once.
+ * Only the parameter setters can be called while recording.
+ *
+ * @author Grégory Van den Borre
+ */
+final class ParameterRecorder implements InvocationHandler {
+
+    /**
+     * Parameter setters called, in call order.
+     */
+    private final List<Call> calls = new ArrayList<>();
+
+    private final List<Object> parameters;
+
+    private ParameterRecorder(ParameterBinder binder) {
+        super();
+        var statement = WrappedPreparedStatement.create((PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this));
+        statement.captureParameters(true);
+        binder.bind(statement);
+        this.parameters = statement.getCapturedParameters();
+    }
+
+    /**
+     * Record the parameters set by a binder.
+     *
+     * @param binder Binder to record.
+     * @return The recorded parameters.
+     */
+    static ParameterRecorder record(ParameterBinder binder) {
+        return new ParameterRecorder(binder);
+    }
+
+    /**
+     * @return The recorded parameters, by index from 0, stream and large object parameters are NOT_CAPTURED.
+     */
+    List<Object> getParameters() {
+        return this.parameters;
+    }
+
+    /**
+     * Set the recorded parameters on a statement, as the binder did.
+     *
+     * @param statement Statement to bind.
+     */
+    void replay(WrappedPreparedStatement statement) {
+        for (var call : this.calls) {
+            try {
+                call.method().invoke(statement, call.arguments());
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        var name = method.getName();
+        if (name.equals("clearParameters")) {
+            this.calls.clear();
+            return null;
+        }
+        if (name.startsWith("set") && args != null && method.getParameterTypes()[0] == int.class && method.getReturnType() == void.class) {
+            this.calls.add(new Call(method, args));
+            return null;
+        }
+        return switch (name) {
+            case "toString" -> "Parameter recorder";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new UnsupportedOperationException(name + " cannot be called while parameters are recorded, only parameter setters can.");
+        };
+    }
+
+    /**
+     * Parameter setter call.
+     *
+     * @param method Setter called.
+     * @param arguments Arguments of the call, the parameter index first.
+     */
+    private record Call(Method method, Object[] arguments) {
+    }
+}
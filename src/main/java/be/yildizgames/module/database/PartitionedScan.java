@@ -0,0 +1,318 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Scan of a whole table, split in ranges of its numeric primary key.
+ * Every range is read with its own cursor, on its own connection and its own virtual thread.
+ * The number of ranges is limited to the maximum number of connections minus one, so a caller already holding a connection
+ * does not wait for another one to be released.
+ * Rows mapped to null are provided as null, as with the other selects.
+ *
+ * @author Grégory Van den Borre
+ */
+final class PartitionedScan<T> {
+
+    /**
+     * Time to wait before checking again if a closed stream still needs rows.
+     */
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    /**
+     * Marker put in the stream queue when a range is fully read.
+     */
+    private static final Object END = new Object();
+
+    /**
+     * Marker put in the stream queue for a row mapped to null, as the queue cannot hold null.
+     */
+    private static final Object NULL_ROW = new Object();
+
+    private final DataBaseConnectionProvider provider;
+
+    private final RowMapper<T> mapper;
+
+    private final String rangeQuery;
+
+    private final List<long[]> ranges;
+
+    PartitionedScan(DataBaseConnectionProvider provider, TableSchema table, RowMapper<T> mapper, int partitions) {
+        super();
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partitions must be at least 1, value is " + partitions);
+        }
+        var id = table.getId();
+        if (id == null || !id.isNumeric()) {
+            throw new IllegalArgumentException("Table " + table + " must have a numeric id to be scanned by ranges.");
+        }
+        this.provider = provider;
+        this.mapper = mapper;
+        this.rangeQuery = "SELECT * FROM " + table.getTableName() + " WHERE " + id.getTitle() + " BETWEEN ? AND ?";
+        this.ranges = this.loadRanges(table, id, Math.min(partitions, Math.max(1, provider.getMaxConnections() - 1)));
+    }
+
+    /**
+     * Split an interval in contiguous ranges of the same size, the last ones can be one value smaller.
+     *
+     * @param min First value, inclusive.
+     * @param max Last value, inclusive.
+     * @param partitions Maximum number of ranges.
+     * @return The ranges, as arrays of their inclusive bounds.
+     */
+    static List<long[]> split(long min, long max, int partitions) {
+        var first = BigInteger.valueOf(min);
+        var span = BigInteger.valueOf(max).subtract(first).add(BigInteger.ONE);
+        int count = span.min(BigInteger.valueOf(partitions)).intValue();
+        var bounds = span.divideAndRemainder(BigInteger.valueOf(count));
+        List<long[]> result = new ArrayList<>(count);
+        var start = first;
+        for (int i = 0; i < count; i++) {
+            var size = i < bounds[1].intValue() ? bounds[0].add(BigInteger.ONE) : bounds[0];
+            var end = start.add(size);
+            result.add(new long[]{start.longValue(), end.subtract(BigInteger.ONE).longValue()});
+            start = end;
+        }
+        return result;
+    }
+
+    /**
+     * Read all ranges concurrently, every range accumulates in its own container and containers are combined once all are read.
+     *
+     * @param collector Collector for the rows.
+     * @param <A> Type of the accumulation container.
+     * @param <R> Type of the result.
+     * @return The collected rows.
+     */
+    @SuppressWarnings("unchecked")
+    <A, R> R collect(Collector<? super T, A, R> collector) {
+        List<Future<A>> futures = new ArrayList<>(this.ranges.size());
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var range : this.ranges) {
+                futures.add(executor.submit(() -> {
+                    A container = collector.supplier().get();
+                    BiConsumer<A, ? super T> accumulator = collector.accumulator();
+                    this.scan(range, row -> accumulator.accept(container, row), () -> false);
+                    return container;
+                }));
+            }
+        }
+        A result = null;
+        for (var future : futures) {
+            A container = join(future);
+            result = result == null ? container : collector.combiner().apply(result, container);
+        }
+        if (result == null) {
+            result = collector.supplier().get();
+        }
+        if (collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return (R) result;
+        }
+        return collector.finisher().apply(result);
+    }
+
+    /**
+     * Read all ranges concurrently, rows are handed over to the stream as soon as they are mapped, in no particular order.
+     * Every range can be ahead of the stream consumer by a single fetch, closing the stream stops all the range readers
+     * and releases their connections.
+     *
+     * @return An unordered stream of the rows, it must be closed.
+     */
+    Stream<T> stream() {
+        var queue = new LinkedBlockingQueue<>(Math.max(1, this.ranges.size()) * QueryExecutor.DEFAULT_FETCH_SIZE);
+        var consumer = new QueueSpliterator(queue, this.ranges.size());
+        List<Thread> readers = new ArrayList<>(this.ranges.size());
+        for (var range : this.ranges) {
+            readers.add(Thread.ofVirtual().name("partitioned-scan").start(() -> {
+                try {
+                    this.scan(range, row -> consumer.offer(row == null ? NULL_ROW : row), consumer::isClosed);
+                    consumer.offer(END);
+                } catch (RuntimeException e) {
+                    consumer.offer(new Failure(e));
+                }
+            }));
+        }
+        return StreamSupport.stream(consumer, false).onClose(() -> consumer.close(readers));
+    }
+
+    private List<long[]> loadRanges(TableSchema table, TableSchemaColumn id, int partitions) {
+        var query = "SELECT MIN(" + id.getTitle() + "), MAX(" + id.getTitle() + ") FROM " + table.getTableName();
+        try (var c = this.provider.getConnection(); var stmt = c.createStatement(); var rs = stmt.executeQuery(query)) {
+            rs.next();
+            long min = rs.getLong(1);
+            if (rs.wasNull()) {
+                return List.of();
+            }
+            return split(min, rs.getLong(2), partitions);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void scan(long[] range, Consumer<T> action, BooleanSupplier stopped) {
+        Connection c = null;
+        QueryCursor<T> cursor;
+        try {
+            c = this.provider.getConnection();
+            cursor = QueryCursor.open(c, this.rangeQuery, s -> {
+                s.setLong(1, range[0]);
+                s.setLong(2, range[1]);
+            }, this.mapper, QueryExecutor.DEFAULT_FETCH_SIZE);
+        } catch (SQLException e) {
+            closeOnError(c, e);
+            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            closeOnError(c, e);
+            throw e;
+        }
+        try (cursor) {
+            boolean remaining = true;
+            while (remaining && !stopped.getAsBoolean()) {
+                remaining = cursor.tryAdvance(action);
+            }
+        }
+    }
+
+    private static void closeOnError(Connection c, Exception e) {
+        if (c != null) {
+            try {
+                c.close();
+            } catch (SQLException ce) {
+                e.addSuppressed(ce);
+            }
+        }
+    }
+
+    private static <A> A join(Future<A> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Error raised while reading a range, rethrown to the stream consumer.
+     */
+    private record Failure(RuntimeException exception) {}
+
+    /**
+     * Stream source taking the rows from the queue filled by the range readers.
+     */
+    private final class QueueSpliterator extends Spliterators.AbstractSpliterator<T> {
+
+        private final BlockingQueue<Object> queue;
+
+        /**
+         * Number of ranges still being read.
+         */
+        private int running;
+
+        private volatile boolean closed;
+
+        private QueueSpliterator(BlockingQueue<Object> queue, int running) {
+            super(Long.MAX_VALUE, 0);
+            this.queue = queue;
+            this.running = running;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (this.running > 0) {
+                Object item;
+                try {
+                    item = this.queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+                if (item == END) {
+                    this.running--;
+                } else if (item instanceof Failure failure) {
+                    this.running = 0;
+                    throw failure.exception();
+                } else if (item == NULL_ROW) {
+                    action.accept(null);
+                    return true;
+                } else {
+                    action.accept((T) item);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isClosed() {
+            return this.closed;
+        }
+
+        /**
+         * Hand over an item to the consumer, waiting while the queue is full, unless the stream is closed.
+         *
+         * @param item Item to hand over.
+         */
+        private void offer(Object item) {
+            try {
+                while (!this.closed && !this.queue.offer(item, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    // Wait for the consumer.
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Stop all the readers and wait for them to release their connections.
+         *
+         * @param readers Threads reading the ranges.
+         */
+        private void close(List<Thread> readers) {
+            this.closed = true;
+            this.queue.clear();
+            try {
+                for (var reader : readers) {
+                    reader.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
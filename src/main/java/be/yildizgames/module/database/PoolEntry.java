@@ -0,0 +1,330 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Physical connection held by a connection pool, with the state kept between two borrows.
+ *
+ * @author Grégory Van den Borre
+ */
+final class PoolEntry {
+
+    private static final System.Logger LOGGER = System.getLogger(PoolEntry.class.getName());
+
+    /**
+     * Physical connection to the database.
+     */
+    private final Connection connection;
+
+    /**
+     * Prepared statements of the connection.
+     */
+    private final StatementCache statementCache;
+
+    /**
+     * Last time, in nanoseconds, this entry was returned to the pool.
+     */
+    private long lastUsed;
+
+    /**
+     * <code>true</code> when the connection must not be reused.
+     */
+    private boolean broken;
+
+    /**
+     * Last auto-commit mode known for the connection, null until read from the driver.
+     */
+    private Boolean autoCommit;
+
+    /**
+     * Last read-only mode known for the connection, null until read from the driver.
+     */
+    private Boolean readOnly;
+
+    /**
+     * Read-only mode of the connection when opened, restored when the connection is returned to the pool.
+     */
+    private Boolean defaultReadOnly;
+
+    /**
+     * Last isolation level known for the connection, -1 until read from the driver.
+     */
+    private int isolation = -1;
+
+    /**
+     * Isolation level of the connection when opened, restored when the connection is returned to the pool.
+     */
+    private int defaultIsolation = -1;
+
+    /**
+     * <code>true</code> once the catalog was changed by a borrower.
+     */
+    private boolean catalogChanged;
+
+    /**
+     * Catalog of the connection before the first change, restored when the connection is returned to the pool.
+     */
+    private String defaultCatalog;
+
+    /**
+     * <code>true</code> once the schema was changed by a borrower.
+     */
+    private boolean schemaChanged;
+
+    /**
+     * Schema of the connection before the first change, restored when the connection is returned to the pool.
+     */
+    private String defaultSchema;
+
+    /**
+     * <code>true</code> once the holdability was changed by a borrower.
+     */
+    private boolean holdabilityChanged;
+
+    /**
+     * Holdability of the connection before the first change, restored when the connection is returned to the pool.
+     */
+    private int defaultHoldability;
+
+    /**
+     * <code>true</code> once the type map was changed by a borrower.
+     */
+    private boolean typeMapChanged;
+
+    /**
+     * Type map of the connection before the first change, restored when the connection is returned to the pool.
+     */
+    private Map<String, Class<?>> defaultTypeMap;
+
+    /**
+     * <code>true</code> once the network timeout was changed by a borrower.
+     */
+    private boolean networkTimeoutChanged;
+
+    /**
+     * Network timeout of the connection before the first change, restored when the connection is returned to the pool.
+     */
+    private int defaultNetworkTimeout;
+
+    PoolEntry(final Connection connection, final StatementCache statementCache) {
+        super();
+        this.connection = Objects.requireNonNull(connection);
+        this.statementCache = Objects.requireNonNull(statementCache);
+        this.lastUsed = System.nanoTime();
+    }
+
+    Connection getConnection() {
+        return this.connection;
+    }
+
+    StatementCache getStatementCache() {
+        return this.statementCache;
+    }
+
+    /**
+     * Check if the connection can be borrowed.
+     * Connections used recently are considered valid without any round trip to the database.
+     *
+     * @param bypass Time in nanoseconds during which a returned connection is not validated again.
+     * @param timeout Time in seconds to wait for the database to validate the connection.
+     * @return true if the connection can be used.
+     */
+    boolean isValid(final long bypass, final int timeout) {
+        if (this.broken) {
+            return false;
+        }
+        if (System.nanoTime() - this.lastUsed < bypass) {
+            return true;
+        }
+        try {
+            return this.connection.isValid(timeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void markBroken() {
+        this.broken = true;
+    }
+
+    /**
+     * The connection state is cached, so only changes are sent to the driver.
+     * A state changed with a SQL statement instead of the JDBC methods is not seen by the cache.
+     */
+    boolean getAutoCommit() throws SQLException {
+        if (this.autoCommit == null) {
+            this.autoCommit = this.connection.getAutoCommit();
+        }
+        return this.autoCommit;
+    }
+
+    void setAutoCommit(final boolean autoCommit) throws SQLException {
+        if (this.autoCommit == null || this.autoCommit != autoCommit) {
+            this.connection.setAutoCommit(autoCommit);
+            this.autoCommit = autoCommit;
+        }
+    }
+
+    boolean isReadOnly() throws SQLException {
+        if (this.readOnly == null) {
+            this.readOnly = this.connection.isReadOnly();
+            this.defaultReadOnly = this.readOnly;
+        }
+        return this.readOnly;
+    }
+
+    void setReadOnly(final boolean readOnly) throws SQLException {
+        if (this.isReadOnly() != readOnly) {
+            this.connection.setReadOnly(readOnly);
+            this.readOnly = readOnly;
+        }
+    }
+
+    int getTransactionIsolation() throws SQLException {
+        if (this.isolation == -1) {
+            this.isolation = this.connection.getTransactionIsolation();
+            this.defaultIsolation = this.isolation;
+        }
+        return this.isolation;
+    }
+
+    void setTransactionIsolation(final int level) throws SQLException {
+        if (this.getTransactionIsolation() != level) {
+            this.connection.setTransactionIsolation(level);
+            this.isolation = level;
+        }
+    }
+
+    /**
+     * The other connection properties are not cached, their value before the first change is kept to be restored on release.
+     */
+    void setCatalog(final String catalog) throws SQLException {
+        if (!this.catalogChanged) {
+            this.defaultCatalog = this.connection.getCatalog();
+            this.catalogChanged = true;
+        }
+        this.connection.setCatalog(catalog);
+    }
+
+    void setSchema(final String schema) throws SQLException {
+        if (!this.schemaChanged) {
+            this.defaultSchema = this.connection.getSchema();
+            this.schemaChanged = true;
+        }
+        this.connection.setSchema(schema);
+    }
+
+    void setHoldability(final int holdability) throws SQLException {
+        if (!this.holdabilityChanged) {
+            this.defaultHoldability = this.connection.getHoldability();
+            this.holdabilityChanged = true;
+        }
+        this.connection.setHoldability(holdability);
+    }
+
+    void setTypeMap(final Map<String, Class<?>> map) throws SQLException {
+        if (!this.typeMapChanged) {
+            this.defaultTypeMap = this.connection.getTypeMap();
+            this.typeMapChanged = true;
+        }
+        this.connection.setTypeMap(map);
+    }
+
+    void setNetworkTimeout(final Executor executor, final int milliseconds) throws SQLException {
+        if (!this.networkTimeoutChanged) {
+            this.defaultNetworkTimeout = this.connection.getNetworkTimeout();
+            this.networkTimeoutChanged = true;
+        }
+        this.connection.setNetworkTimeout(executor, milliseconds);
+    }
+
+    /**
+     * Restore the catalog, schema, holdability, type map and network timeout changed by the last borrower.
+     *
+     * @throws SQLException If a property cannot be restored.
+     */
+    private void restoreProperties() throws SQLException {
+        if (this.catalogChanged) {
+            this.connection.setCatalog(this.defaultCatalog);
+            this.catalogChanged = false;
+        }
+        if (this.schemaChanged) {
+            this.connection.setSchema(this.defaultSchema);
+            this.schemaChanged = false;
+        }
+        if (this.holdabilityChanged) {
+            this.connection.setHoldability(this.defaultHoldability);
+            this.holdabilityChanged = false;
+        }
+        if (this.typeMapChanged) {
+            this.connection.setTypeMap(this.defaultTypeMap);
+            this.typeMapChanged = false;
+        }
+        if (this.networkTimeoutChanged) {
+            this.connection.setNetworkTimeout(Runnable::run, this.defaultNetworkTimeout);
+            this.networkTimeoutChanged = false;
+        }
+    }
+
+    /**
+     * Restore the connection default state before returning it to the pool, any pending transaction is rolled back.
+     *
+     * @return true if the connection can be reused, false if it must be discarded.
+     */
+    boolean reset() {
+        if (this.broken) {
+            return false;
+        }
+        try {
+            if (this.connection.isClosed()) {
+                return false;
+            }
+            if (!this.getAutoCommit()) {
+                this.connection.rollback();
+                this.setAutoCommit(true);
+            }
+            if (this.readOnly != null && this.readOnly != this.defaultReadOnly) {
+                this.setReadOnly(this.defaultReadOnly);
+            }
+            if (this.isolation != this.defaultIsolation) {
+                this.setTransactionIsolation(this.defaultIsolation);
+            }
+            this.restoreProperties();
+            this.connection.clearWarnings();
+            this.lastUsed = System.nanoTime();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Cannot reset pooled connection, it will be discarded.", e);
+            return false;
+        }
+    }
+
+    /**
+     * Close the cached statements and the physical connection.
+     */
+    void close() {
+        this.statementCache.close();
+        try {
+            this.connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Error while closing pooled connection.", e);
+        }
+    }
+}
@@ -0,0 +1,504 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection borrowed from a connection pool, closing it returns the physical connection to the pool.
+ * A new instance is created for every borrow, so a closed instance can never be used to access a connection lent to someone else.
+ * The auto-commit, read-only and isolation state is cached by the pool entry, setting an unchanged value does not reach the driver.
+ *
+ * @author Grégory Van den Borre
+ */
+final class PooledConnection implements Connection {
+
+    /**
+     * Pool owning the physical connection.
+     */
+    private final PooledConnectionProvider pool;
+
+    /**
+     * Borrowed pool entry.
+     */
+    private final PoolEntry entry;
+
+    /**
+     * <code>true</code> once the connection has been returned to the pool.
+     */
+    private boolean closed;
+
+    /**
+     * Statements created outside of the statement cache, closed when the connection is returned to the pool.
+     */
+    private final List<Statement> statements = new ArrayList<>();
+
+    /**
+     * Time in nanoseconds when the running transaction times out, only used if transactionTimeout is true.
+     */
+    private long transactionDeadline;
+
+    /**
+     * <code>true</code> while a transaction with a timeout runs on this connection.
+     */
+    private boolean transactionTimeout;
+
+    PooledConnection(final PooledConnectionProvider pool, final PoolEntry entry) {
+        super();
+        this.pool = pool;
+        this.entry = entry;
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.transactionTimeout = false;
+            this.closeStatements();
+            this.pool.release(this.entry);
+        }
+    }
+
+    /**
+     * Apply the remaining time of a transaction as query timeout to every statement created until the deadline is cleared.
+     *
+     * @param deadline Time in nanoseconds when the transaction times out.
+     */
+    void setTransactionDeadline(long deadline) {
+        this.transactionDeadline = deadline;
+        this.transactionTimeout = true;
+    }
+
+    void clearTransactionDeadline() {
+        this.transactionTimeout = false;
+    }
+
+    /**
+     * Provide the query timeout of a statement created now.
+     *
+     * @return The remaining time of the transaction in seconds rounded up, 0 if no transaction timeout applies.
+     * @throws SQLTimeoutException If the transaction deadline is already passed.
+     */
+    private int queryTimeout() throws SQLTimeoutException {
+        if (!this.transactionTimeout) {
+            return 0;
+        }
+        long remaining = this.transactionDeadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new SQLTimeoutException("Transaction timeout elapsed, no statement can be created.", "HYT01");
+        }
+        return (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toSeconds(remaining + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * Keep track of a statement not managed by the statement cache, already closed statements are forgotten to keep the list small.
+     *
+     * @param statement Statement to track.
+     * @param queryTimeout Query timeout to apply, 0 to keep the driver default.
+     * @param <S> Statement type.
+     * @return The statement.
+     * @throws SQLException If a tracked statement state cannot be read.
+     */
+    private <S extends Statement> S track(final S statement, final int queryTimeout) throws SQLException {
+        if (this.statements.size() >= 16) {
+            for (var i = this.statements.iterator(); i.hasNext();) {
+                if (i.next().isClosed()) {
+                    i.remove();
+                }
+            }
+        }
+        this.statements.add(statement);
+        if (queryTimeout > 0) {
+            statement.setQueryTimeout(queryTimeout);
+        }
+        return statement;
+    }
+
+    /**
+     * Close the statements still open when the connection is returned, so they cannot be used by the next borrower.
+     */
+    private void closeStatements() {
+        for (Statement statement : this.statements) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                this.entry.markBroken();
+            }
+        }
+        this.statements.clear();
+    }
+
+    /**
+     * Check if this connection was given back to the pool.
+     *
+     * @return true if the connection was closed.
+     */
+    boolean isReturned() {
+        return this.closed;
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return this.closed || this.entry.getConnection().isClosed();
+    }
+
+    @Override
+    public void abort(Executor executor) throws SQLException {
+        if (!this.closed) {
+            this.entry.markBroken();
+            this.entry.getConnection().abort(executor);
+            this.close();
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return this.delegate().unwrap(iface);
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().createStatement(), timeout);
+    }
+
+    /**
+     * Provide a prepared statement from the connection statement cache, closing it will return it to the cache.
+     *
+     * @param sql Query to prepare.
+     * @return The prepared statement, as a WrappedPreparedStatement.
+     * @throws SQLException If the connection is closed or the statement cannot be prepared.
+     */
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        this.checkOpen();
+        int timeout = this.queryTimeout();
+        WrappedPreparedStatement statement = this.entry.getStatementCache().prepare(sql, this);
+        if (statement instanceof CachedPreparedStatement cached) {
+            if (timeout > 0) {
+                cached.applyTransactionTimeout(timeout);
+            }
+            return cached;
+        }
+        return this.track(statement, timeout);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().prepareCall(sql), timeout);
+    }
+
+    @Override
+    public String nativeSQL(String sql) throws SQLException {
+        return this.delegate().nativeSQL(sql);
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        this.checkOpen();
+        this.entry.setAutoCommit(autoCommit);
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        this.checkOpen();
+        return this.entry.getAutoCommit();
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        this.delegate().commit();
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        this.delegate().rollback();
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        return this.delegate().getMetaData();
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        this.checkOpen();
+        this.entry.setReadOnly(readOnly);
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        this.checkOpen();
+        return this.entry.isReadOnly();
+    }
+
+    @Override
+    public void setCatalog(String catalog) throws SQLException {
+        this.checkOpen();
+        this.entry.setCatalog(catalog);
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+        return this.delegate().getCatalog();
+    }
+
+    @Override
+    public void setTransactionIsolation(int level) throws SQLException {
+        this.checkOpen();
+        this.entry.setTransactionIsolation(level);
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        this.checkOpen();
+        return this.entry.getTransactionIsolation();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return this.delegate().getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        this.delegate().clearWarnings();
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().createStatement(resultSetType, resultSetConcurrency), timeout);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().prepareStatement(sql, resultSetType, resultSetConcurrency), timeout);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().prepareCall(sql, resultSetType, resultSetConcurrency), timeout);
+    }
+
+    @Override
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
+        return this.delegate().getTypeMap();
+    }
+
+    @Override
+    public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+        this.checkOpen();
+        this.entry.setTypeMap(map);
+    }
+
+    @Override
+    public void setHoldability(int holdability) throws SQLException {
+        this.checkOpen();
+        this.entry.setHoldability(holdability);
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return this.delegate().getHoldability();
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        return this.delegate().setSavepoint();
+    }
+
+    @Override
+    public Savepoint setSavepoint(String name) throws SQLException {
+        return this.delegate().setSavepoint(name);
+    }
+
+    @Override
+    public void rollback(Savepoint savepoint) throws SQLException {
+        this.delegate().rollback(savepoint);
+    }
+
+    @Override
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        this.delegate().releaseSavepoint(savepoint);
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability), timeout);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability), timeout);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability), timeout);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().prepareStatement(sql, autoGeneratedKeys), timeout);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().prepareStatement(sql, columnIndexes), timeout);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        int timeout = this.queryTimeout();
+        return this.track(this.delegate().prepareStatement(sql, columnNames), timeout);
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+        return this.delegate().createClob();
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        return this.delegate().createBlob();
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        return this.delegate().createNClob();
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        return this.delegate().createSQLXML();
+    }
+
+    @Override
+    public boolean isValid(int timeout) throws SQLException {
+        return this.delegate().isValid(timeout);
+    }
+
+    @Override
+    public void setClientInfo(String name, String value) throws SQLClientInfoException {
+        if (this.closed) {
+            throw new SQLClientInfoException("Connection is closed.", Map.of());
+        }
+        this.entry.getConnection().setClientInfo(name, value);
+    }
+
+    @Override
+    public void setClientInfo(Properties properties) throws SQLClientInfoException {
+        if (this.closed) {
+            throw new SQLClientInfoException("Connection is closed.", Map.of());
+        }
+        this.entry.getConnection().setClientInfo(properties);
+    }
+
+    @Override
+    public String getClientInfo(String name) throws SQLException {
+        return this.delegate().getClientInfo(name);
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        return this.delegate().getClientInfo();
+    }
+
+    @Override
+    public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        return this.delegate().createArrayOf(typeName, elements);
+    }
+
+    @Override
+    public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+        return this.delegate().createStruct(typeName, attributes);
+    }
+
+    @Override
+    public void setSchema(String schema) throws SQLException {
+        this.checkOpen();
+        this.entry.setSchema(schema);
+    }
+
+    @Override
+    public String getSchema() throws SQLException {
+        return this.delegate().getSchema();
+    }
+
+    @Override
+    public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+        this.checkOpen();
+        this.entry.setNetworkTimeout(executor, milliseconds);
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+        return this.delegate().getNetworkTimeout();
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || this.delegate().isWrapperFor(iface);
+    }
+
+    /**
+     * Provide the physical connection if this connection was not yet returned to the pool.
+     *
+     * @return The physical connection.
+     * @throws SQLException If the connection was closed.
+     */
+    private Connection delegate() throws SQLException {
+        this.checkOpen();
+        return this.entry.getConnection();
+    }
+
+    private void checkOpen() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("Connection is closed.", "08003");
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection provider keeping a bounded set of physical connections to be shared by concurrent callers.
+ * Idle connections are kept in a lock-free stack, the most recently used connection is lent first to stay warm.
+ * A fair semaphore bounds the number of connections in use and orders the waiting callers.
+ *
+ * @author Grégory Van den Borre
+ */
+class PooledConnectionProvider extends DataBaseConnectionProvider {
+
+    private static final System.Logger LOGGER = System.getLogger(PooledConnectionProvider.class.getName());
+
+    /**
+     * Time during which a connection returned to the pool is lent again without validation.
+     */
+    private static final long VALIDATION_BYPASS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /**
+     * Time in seconds to wait for the database to validate a connection.
+     */
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    /**
+     * Properties used to open the physical connections.
+     */
+    private final Properties properties;
+
+    /**
+     * Maximum number of physical connections.
+     */
+    private final int maxSize;
+
+    /**
+     * Maximum time in milliseconds to wait for a connection.
+     */
+    private final long acquireTimeout;
+
+    /**
+     * Maximum number of prepared statements cached for each connection.
+     */
+    private final int statementCacheSize;
+
+    /**
+     * One permit per connection that can be lent.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Connections opened and not currently lent.
+     */
+    private final Deque<PoolEntry> idle = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Number of physical connections currently opened.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    PooledConnectionProvider(DatabaseSystem system, DbProperties properties, boolean root) {
+        super(system, properties, root);
+        this.maxSize = properties.getPoolMaxSize();
+        this.acquireTimeout = properties.getPoolAcquireTimeout();
+        this.statementCacheSize = properties.getStatementCacheSize();
+        DbProperties.DbPropertiesInvariant.checkPool(this.maxSize, this.acquireTimeout, this.statementCacheSize);
+        this.permits = new Semaphore(this.maxSize, true);
+        this.properties = new Properties();
+        this.properties.put("user", this.getLogin());
+        this.properties.put("password", this.getPassword());
+        LOGGER.log(System.Logger.Level.DEBUG, "Using database connection pool, maximum size: {0}.", this.maxSize);
+    }
+
+    @Override
+    protected Connection getConnectionImpl() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("Connection pool is closed.", "08003");
+        }
+        try {
+            if (!this.permits.tryAcquire(this.acquireTimeout, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No connection available after " + this.acquireTimeout + "ms, pool maximum size is " + this.maxSize + ".");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection.", e);
+        }
+        try {
+            return new PooledConnection(this, this.borrow());
+        } catch (SQLException | RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Provide the maximum number of physical connections.
+     *
+     * @return The pool maximum size.
+     */
+    final int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Provide the number of physical connections currently opened.
+     *
+     * @return The number of opened connections.
+     */
+    final int getSize() {
+        return this.size.get();
+    }
+
+    /**
+     * Provide the number of opened connections not currently lent.
+     *
+     * @return The number of idle connections.
+     */
+    final int getIdleSize() {
+        return this.idle.size();
+    }
+
+    @Override
+    final int getActiveConnectionCount() {
+        return this.maxSize - this.permits.availablePermits();
+    }
+
+    @Override
+    final int getIdleConnectionCount() {
+        return this.idle.size();
+    }
+
+    /**
+     * Give back a borrowed connection to the pool.
+     *
+     * @param entry Entry to give back.
+     */
+    final void release(PoolEntry entry) {
+        if (!this.closed && entry.reset()) {
+            this.idle.offerFirst(entry);
+            if (this.closed) {
+                this.drain();
+            }
+        } else {
+            this.discard(entry);
+        }
+        this.permits.release();
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.drain();
+        LOGGER.log(System.Logger.Level.DEBUG, "Database connection pool closed.");
+    }
+
+    /**
+     * Take an idle connection, or open a new one if none is available.
+     * The caller must hold a permit, which guarantees that the pool size cannot exceed its maximum.
+     *
+     * @return The borrowed entry.
+     * @throws SQLException If a new connection cannot be opened.
+     */
+    private PoolEntry borrow() throws SQLException {
+        PoolEntry entry;
+        while ((entry = this.idle.pollFirst()) != null) {
+            if (entry.isValid(VALIDATION_BYPASS, VALIDATION_TIMEOUT)) {
+                return entry;
+            }
+            LOGGER.log(System.Logger.Level.DEBUG, "Discarding invalid pooled connection.");
+            this.discard(entry);
+        }
+        return this.open();
+    }
+
+    private PoolEntry open() throws SQLException {
+        Connection connection = this.getSystem().driverProvider().getDriver().connect(this.getUri(), this.properties);
+        if (connection == null) {
+            throw new SQLException("Driver " + this.getDriver() + " does not accept the url " + this.getUri());
+        }
+        this.size.incrementAndGet();
+        return new PoolEntry(connection, new StatementCache(connection, this.statementCacheSize, this.getStatementCacheStatistics()));
+    }
+
+    private void discard(PoolEntry entry) {
+        this.size.decrementAndGet();
+        entry.close();
+    }
+
+    private void drain() {
+        PoolEntry entry;
+        while ((entry = this.idle.pollFirst()) != null) {
+            this.discard(entry);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Open query result, mapping its rows one at a time.
+ * The cursor owns the connection, the statement and the result set, and releases them all when closed,
+ * or as soon as the last row was read.
+ *
+ * @author Grégory Van den Borre
+ */
+final class QueryCursor<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(QueryCursor.class.getName());
+
+    private final Connection connection;
+
+    private final WrappedPreparedStatement statement;
+
+    private final WrappedResultSet resultSet;
+
+    private final RowMapper<T> mapper;
+
+    /**
+     * <code>true</code> if the auto commit was disabled to open the cursor, and must be restored.
+     */
+    private final boolean restoreAutoCommit;
+
+    private boolean closed;
+
+    private int fetchSize;
+
+    QueryCursor(Connection connection, WrappedPreparedStatement statement, WrappedResultSet resultSet, RowMapper<T> mapper, boolean restoreAutoCommit) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+        this.restoreAutoCommit = restoreAutoCommit;
+        this.fetchSize = statement.getFetchSize();
+    }
+
+    /**
+     * Execute a query with a forward only and read only cursor.
+     * Auto commit is disabled while the cursor is open, as some drivers only fetch rows progressively inside a transaction.
+     *
+     * @param c Connection to use, it will be closed with the cursor.
+     * @param query Query to execute.
+     * @param binder Binder setting the query parameters.
+     * @param mapper Mapper to build an object from a row.
+     * @param fetchSize Number of rows to fetch from the database in a single round trip.
+     * @param <T> Type of the mapped objects.
+     * @return The open cursor.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    static <T> QueryCursor<T> open(Connection c, String query, ParameterBinder binder, RowMapper<T> mapper, int fetchSize) throws SQLException {
+        boolean autoCommit = c.getAutoCommit();
+        if (autoCommit) {
+            c.setAutoCommit(false);
+        }
+        WrappedPreparedStatement pstmt = null;
+        try {
+            pstmt = WrappedPreparedStatement.create(c.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY));
+            pstmt.setFetchSize(fetchSize);
+            binder.bind(pstmt);
+            return new QueryCursor<>(c, pstmt, WrappedResultSet.wrap(pstmt.executeQuery()), mapper, autoCommit);
+        } catch (SQLException | RuntimeException e) {
+            abortOpen(c, pstmt, autoCommit, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Release the statement and restore the auto commit after a failure to open the cursor, the connection is left to the caller.
+     *
+     * @param c Connection used to open the cursor.
+     * @param pstmt Statement to close, null if it was not prepared.
+     * @param restoreAutoCommit <code>true</code> if the auto commit was disabled to open the cursor.
+     * @param cause Failure, any other error is added to it.
+     */
+    private static void abortOpen(Connection c, WrappedPreparedStatement pstmt, boolean restoreAutoCommit, Exception cause) {
+        if (pstmt != null) {
+            try {
+                pstmt.close();
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+            }
+        }
+        if (restoreAutoCommit) {
+            try {
+                c.rollback();
+                c.setAutoCommit(true);
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (this.closed) {
+            return false;
+        }
+        T row;
+        try {
+            if (!this.resultSet.next()) {
+                this.close();
+                return false;
+            }
+            row = this.mapper.map(this.resultSet);
+        } catch (RuntimeException e) {
+            this.closeOnError(e);
+            throw e;
+        }
+        action.accept(row);
+        return true;
+    }
+
+    /**
+     * Change the number of rows fetched in the next round trips to the database.
+     *
+     * @param fetchSize Number of rows to fetch.
+     */
+    void setFetchSize(int fetchSize) {
+        if (!this.closed && fetchSize != this.fetchSize) {
+            this.resultSet.setFetchSize(fetchSize);
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.resultSet.close();
+            this.statement.close();
+        } catch (RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Error while closing query cursor.", e);
+        }
+        try (Connection c = this.connection) {
+            if (this.restoreAutoCommit) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Close the cursor after a failure while reading a row, without hiding that failure.
+     *
+     * @param cause Failure, any error while closing is added to it.
+     */
+    private void closeOnError(RuntimeException cause) {
+        try {
+            this.close();
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+}
@@ -29,13 +29,33 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Grégory Van den Borre
  */
 public class QueryExecutor {
 
+    /**
+     * Number of rows fetched from the database in a single round trip by the streaming queries, if nothing else is specified.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Initial capacity of the arrays holding the values of the primitive selects.
+     */
+    private static final int PRIMITIVE_INITIAL_CAPACITY = 64;
+
+    /**
+     * Number of rows of a result provided without executing its statement, such executions are not recorded.
+     */
+    static final long NOT_EXECUTED = -1;
+
     private final DataBaseConnectionProvider provider;
 
     public QueryExecutor(DataBaseConnectionProvider provider) {
@@ -93,6 +113,7 @@ public class QueryExecutor {
                 dropStmt.execute("DROP TABLE " + table + " IF EXISTS;");
             }
             c.commit();
+            this.provider.invalidateTables(tables);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -104,20 +125,577 @@ public class QueryExecutor {
                 dropStmt.execute("DROP TABLE " + table.getTableName() + " IF EXISTS;");
             }
             c.commit();
+            this.provider.invalidateTables(Arrays.stream(tables).map(TableSchema::getTableName).toArray(String[]::new));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Execute a query and lazily map its rows, using the default fetch size.
+     *
+     * @param query Query to execute.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return A stream of the mapped rows, it must be closed to release the connection.
+     * @see #stream(String, RowMapper, int)
+     */
+    public <T> Stream<T> stream(String query, RowMapper<T> mapper) {
+        return this.stream(query, mapper, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Execute a query and lazily map its rows, only the rows fetched by the driver are kept in memory.
+     * The returned stream holds the connection until it is closed or fully consumed,
+     * so it must be used in a try-with-resources block.
+     *
+     * @param query Query to execute.
+     * @param mapper Mapper to build an object from a row.
+     * @param fetchSize Number of rows to fetch from the database in a single round trip.
+     * @param <T> Type of the mapped objects.
+     * @return A stream of the mapped rows, it must be closed to release the connection.
+     */
+    public <T> Stream<T> stream(String query, RowMapper<T> mapper, int fetchSize) {
+        return this.stream(query, ParameterBinder.NONE, mapper, fetchSize);
+    }
+
+    /**
+     * Execute a parameterized query and lazily map its rows, only the rows fetched by the driver are kept in memory.
+     * The returned stream holds the connection until it is closed or fully consumed,
+     * so it must be used in a try-with-resources block.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @param mapper Mapper to build an object from a row.
+     * @param fetchSize Number of rows to fetch from the database in a single round trip.
+     * @param <T> Type of the mapped objects.
+     * @return A stream of the mapped rows, it must be closed to release the connection.
+     */
+    public <T> Stream<T> stream(String query, ParameterBinder binder, RowMapper<T> mapper, int fetchSize) {
+        Connection c = null;
+        try {
+            c = this.provider.getConnection();
+            var cursor = QueryCursor.open(c, query, binder, mapper, fetchSize);
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
         } catch (SQLException e) {
+            closeOnError(c, e);
             throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            closeOnError(c, e);
+            throw e;
         }
     }
 
+    /**
+     * Publish the rows of a query, rows are read from the database only when subscribers request them.
+     *
+     * @param query Query to execute.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return A publisher executing the query for every subscriber.
+     * @see #publish(String, ParameterBinder, RowMapper)
+     */
+    public <T> Flow.Publisher<T> publish(String query, RowMapper<T> mapper) {
+        return this.publish(query, ParameterBinder.NONE, mapper);
+    }
+
+    /**
+     * Publish the rows of a parameterized query, rows are read from the database only when subscribers request them,
+     * so a slow subscriber never forces the whole result to be kept in memory.
+     * The query is executed on its own connection for every subscriber, from its first request.
+     * Rows are fetched by round trips of the requested size, up to the default fetch size,
+     * and the connection is released as soon as the subscription completes, fails or is cancelled.
+     * A subscriber cannot receive null, so a row mapped to null fails the subscription with a NullPointerException.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return A publisher executing the query for every subscriber.
+     */
+    public <T> Flow.Publisher<T> publish(String query, ParameterBinder binder, RowMapper<T> mapper) {
+        return new QueryPublisher<>(this.provider, query, binder, mapper, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Read a whole table by ranges of its numeric id, every range is read concurrently with its own connection.
+     * The rows are provided in no particular order, and the stream must be closed to stop the readers and release their connections.
+     *
+     * @param table Table to read, its id must be numeric.
+     * @param mapper Mapper to build an object from a row.
+     * @param partitions Number of ranges, limited to the maximum number of connections of the provider minus one,
+     *                   so a caller already holding a connection does not wait for one to be released.
+     * @param <T> Type of the mapped objects.
+     * @return An unordered stream of the mapped rows.
+     * @throws IllegalArgumentException If the table has no numeric id, or the number of partitions is not positive.
+     */
+    public <T> Stream<T> parallelScan(TableSchema table, RowMapper<T> mapper, int partitions) {
+        return new PartitionedScan<>(this.provider, table, mapper, partitions).stream();
+    }
+
+    /**
+     * Read a whole table by ranges of its numeric id, every range is read concurrently with its own connection,
+     * and accumulated in its own container before all containers are combined.
+     *
+     * @param table Table to read, its id must be numeric.
+     * @param mapper Mapper to build an object from a row.
+     * @param partitions Number of ranges, limited to the maximum number of connections of the provider minus one,
+     *                   so a caller already holding a connection does not wait for one to be released.
+     * @param collector Collector for the mapped rows, its accumulator is called concurrently on distinct containers.
+     * @param <T> Type of the mapped objects.
+     * @param <A> Type of the accumulation container.
+     * @param <R> Type of the result.
+     * @return The collected rows.
+     * @throws IllegalArgumentException If the table has no numeric id, or the number of partitions is not positive.
+     */
+    public <T, A, R> R parallelScan(TableSchema table, RowMapper<T> mapper, int partitions, Collector<? super T, A, R> collector) {
+        return new PartitionedScan<>(this.provider, table, mapper, partitions).collect(collector);
+    }
+
     public <T> List<T> select(String query, RowMapper<T> mapper) {
-        List<T> result = new ArrayList<>();
-        try (var c = this.provider.getConnection(); var pstmt = WrappedPreparedStatement.create(c.prepareStatement(query)); var resultSet = WrappedResultSet.wrap(pstmt.executeQuery())) {
-            while (resultSet.next()) {
-                result.add(mapper.map(resultSet));
+        return this.select(query, ParameterBinder.NONE, mapper);
+    }
+
+    /**
+     * Execute a query, the result is served from the result cache of the provider if possible.
+     *
+     * @param query Query to execute.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return The mapped rows, unmodifiable if the provider caches results.
+     * @see #selectCached(String, ParameterBinder, RowMapper)
+     */
+    public <T> List<T> selectCached(String query, RowMapper<T> mapper) {
+        return this.selectCached(query, ParameterBinder.NONE, mapper);
+    }
+
+    /**
+     * Execute a parameterized query, the result is served from the result cache of the provider if it holds the result of
+     * the same query, with the same parameters and the same mapper instance.
+     * The parameters set by the binder are recorded without any connection to build the cache key,
+     * a connection is only borrowed if the result is not cached, and the recorded parameters are then set on the statement.
+     * The binder can only set parameters, and is called once.
+     * Mappers are compared by identity, they should be kept in constants instead of being created for every call.
+     * Without a result cache on the provider, this is the same as select.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return The mapped rows, unmodifiable if the provider caches results.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> selectCached(String query, ParameterBinder binder, RowMapper<T> mapper) {
+        var cache = this.provider.getResultCache();
+        if (cache == null) {
+            return this.select(query, binder, mapper);
+        }
+        ParameterRecorder recorder;
+        try {
+            recorder = ParameterRecorder.record(binder);
+        } catch (RuntimeException e) {
+            this.provider.getMetrics().recordQueryError();
+            throw e;
+        }
+        var key = QueryResultCache.key(query, recorder.getParameters(), mapper);
+        if (key != null) {
+            var cached = cache.get(key);
+            if (cached != null) {
+                return (List<T>) cached;
+            }
+        }
+        long generation = cache.generation();
+        return this.execute(query, recorder::replay, pstmt -> {
+            var result = map(pstmt, mapper);
+            return key == null ? result : cache.put(key, result, generation);
+        }, List::size);
+    }
+
+    /**
+     * Execute a query with a single int parameter.
+     *
+     * @param query Query to execute.
+     * @param parameter Value of the query parameter.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return The mapped rows.
+     */
+    public <T> List<T> select(String query, int parameter, RowMapper<T> mapper) {
+        return this.select(query, s -> s.setInt(1, parameter), mapper);
+    }
+
+    /**
+     * Execute a query with a single long parameter.
+     *
+     * @param query Query to execute.
+     * @param parameter Value of the query parameter.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return The mapped rows.
+     */
+    public <T> List<T> select(String query, long parameter, RowMapper<T> mapper) {
+        return this.select(query, s -> s.setLong(1, parameter), mapper);
+    }
+
+    /**
+     * Execute a query with a single String parameter.
+     *
+     * @param query Query to execute.
+     * @param parameter Value of the query parameter.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return The mapped rows.
+     */
+    public <T> List<T> select(String query, String parameter, RowMapper<T> mapper) {
+        return this.select(query, s -> s.setString(1, parameter), mapper);
+    }
+
+    /**
+     * Execute a parameterized query, values are bound to the statement instead of being concatenated in the SQL,
+     * so the same statement and execution plan can be reused for all the values.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return The mapped rows.
+     */
+    public <T> List<T> select(String query, ParameterBinder binder, RowMapper<T> mapper) {
+        return this.execute(query, binder, pstmt -> map(pstmt, mapper), List::size);
+    }
+
+    /**
+     * Execute a query returning a single int value per row.
+     *
+     * @param query Query to execute.
+     * @param mapper Mapper to read the value from a row.
+     * @return The values, in the order of the rows.
+     */
+    public int[] selectInts(String query, IntRowMapper mapper) {
+        return this.selectInts(query, ParameterBinder.NONE, mapper);
+    }
+
+    /**
+     * Execute a parameterized query returning a single int value per row, values are stored without boxing.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @param mapper Mapper to read the value from a row.
+     * @return The values, in the order of the rows.
+     */
+    public int[] selectInts(String query, ParameterBinder binder, IntRowMapper mapper) {
+        return this.execute(query, binder, pstmt -> {
+            var result = new IntArrayBuilder(PRIMITIVE_INITIAL_CAPACITY);
+            try (var resultSet = WrappedResultSet.wrap(pstmt.executeQuery())) {
+                while (resultSet.next()) {
+                    result.add(mapper.map(resultSet));
+                }
             }
+            return result.toArray();
+        }, r -> r.length);
+    }
+
+    /**
+     * Execute a query returning a single long value per row.
+     *
+     * @param query Query to execute.
+     * @param mapper Mapper to read the value from a row.
+     * @return The values, in the order of the rows.
+     */
+    public long[] selectLongs(String query, LongRowMapper mapper) {
+        return this.selectLongs(query, ParameterBinder.NONE, mapper);
+    }
+
+    /**
+     * Execute a parameterized query returning a single long value per row, values are stored without boxing.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @param mapper Mapper to read the value from a row.
+     * @return The values, in the order of the rows.
+     */
+    public long[] selectLongs(String query, ParameterBinder binder, LongRowMapper mapper) {
+        return this.execute(query, binder, pstmt -> {
+            var result = new LongArrayBuilder(PRIMITIVE_INITIAL_CAPACITY);
+            try (var resultSet = WrappedResultSet.wrap(pstmt.executeQuery())) {
+                while (resultSet.next()) {
+                    result.add(mapper.map(resultSet));
+                }
+            }
+            return result.toArray();
+        }, r -> r.length);
+    }
+
+    /**
+     * Execute a query returning a single double value per row.
+     *
+     * @param query Query to execute.
+     * @param mapper Mapper to read the value from a row.
+     * @return The values, in the order of the rows.
+     */
+    public double[] selectDoubles(String query, DoubleRowMapper mapper) {
+        return this.selectDoubles(query, ParameterBinder.NONE, mapper);
+    }
+
+    /**
+     * Execute a parameterized query returning a single double value per row, values are stored without boxing.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @param mapper Mapper to read the value from a row.
+     * @return The values, in the order of the rows.
+     */
+    public double[] selectDoubles(String query, ParameterBinder binder, DoubleRowMapper mapper) {
+        return this.execute(query, binder, pstmt -> {
+            var result = new DoubleArrayBuilder(PRIMITIVE_INITIAL_CAPACITY);
+            try (var resultSet = WrappedResultSet.wrap(pstmt.executeQuery())) {
+                while (resultSet.next()) {
+                    result.add(mapper.map(resultSet));
+                }
+            }
+            return result.toArray();
+        }, r -> r.length);
+    }
+
+    /**
+     * Execute a parameterized query, keeping in memory only the rows fitting in a budget, the other rows are written to a temporary file.
+     * Rows stored in the file are mapped again every time they are accessed, the list must be closed to delete the file.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @param mapper Mapper to build an object from a row.
+     * @param heapBudget Maximum size in bytes of the rows to keep in memory, estimated from their stored size.
+     * @param <T> Type of the mapped objects.
+     * @return The mapped rows.
+     * @throws IllegalArgumentException If the budget is negative.
+     */
+    public <T> SpilledList<T> selectSpilling(String query, ParameterBinder binder, RowMapper<T> mapper, long heapBudget) {
+        if (heapBudget < 0) {
+            throw new IllegalArgumentException("Heap budget cannot be negative, value is " + heapBudget);
+        }
+        return this.execute(query, binder, pstmt -> {
+            try (var resultSet = WrappedResultSet.wrap(pstmt.executeQuery())) {
+                return SpilledList.read(resultSet, mapper, heapBudget);
+            }
+        }, SpilledList::size);
+    }
+
+    /**
+     * Execute a query and store its result by column.
+     *
+     * @param query Query to execute.
+     * @return The result, by column.
+     */
+    public ColumnarResult selectColumnar(String query) {
+        return this.selectColumnar(query, ParameterBinder.NONE);
+    }
+
+    /**
+     * Execute a parameterized query and store its result by column, numeric values are kept in primitive arrays
+     * and text values are dictionary encoded, instead of building an object per row.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @return The result, by column.
+     */
+    public ColumnarResult selectColumnar(String query, ParameterBinder binder) {
+        return this.execute(query, binder, pstmt -> {
+            try (var resultSet = WrappedResultSet.wrap(pstmt.executeQuery())) {
+                return ColumnarResult.read(resultSet);
+            }
+        }, ColumnarResult::getRowCount);
+    }
+
+    /**
+     * Execute a parameterized insert, update or delete statement.
+     *
+     * @param query Statement to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @return The number of updated rows.
+     */
+    public int update(String query, ParameterBinder binder) {
+        return this.execute(query, binder, pstmt -> {
+            int updated = pstmt.executeUpdate();
+            this.provider.invalidateResults(query);
+            return updated;
+        }, Integer::longValue);
+    }
+
+    /**
+     * Execute a statement for every item of a collection, in a single transaction.
+     * Items are sent to the database by chunks, to limit the number of round trips.
+     * If the database system supports it, simple INSERT ... VALUES statements are rewritten to insert a whole chunk
+     * in a single multi-row statement, the binder is then called with parameter indexes shifted for every row.
+     * If any chunk fails, the transaction is rolled back and nothing is persisted.
+     *
+     * @param query Statement to execute, with a ? for every parameter of a single item.
+     * @param items Items to persist.
+     * @param binder Binder setting the parameters of a single item.
+     * @param batchSize Maximum number of items sent in a single round trip.
+     * @param <T> Type of the items.
+     * @return The update count of every item, or Statement.SUCCESS_NO_INFO if the driver cannot provide it.
+     * @throws IllegalArgumentException If the batch size is not positive.
+     */
+    public <T> int[] executeBatch(String query, Iterable<T> items, ItemBinder<T> binder, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, value is " + batchSize);
+        }
+        MultiRowInsert multiRowInsert = this.provider.getSystem().supportMultiRowInsert() ? MultiRowInsert.parse(query, batchSize) : null;
+        var event = new BatchExecuteEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int[] committed = null;
+        try (var c = this.provider.getConnection()) {
+            boolean autoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try {
+                int[] counts = multiRowInsert == null ? executeBatch(c, query, items, binder, batchSize) : multiRowInsert.execute(c, items, binder);
+                c.commit();
+                this.provider.invalidateResults(query);
+                long nanos = System.nanoTime() - start;
+                this.provider.getMetrics().recordQuery(query, nanos, counts.length);
+                this.provider.getSlowQueryLog().record(query, nanos, counts.length, null);
+                this.provider.getMetrics().recordBatch(counts.length);
+                committed = counts;
+                return counts;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    c.rollback();
+                } catch (SQLException re) {
+                    e.addSuppressed(re);
+                }
+                throw e;
+            } finally {
+                c.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            this.provider.getMetrics().recordQueryError();
+            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            this.provider.getMetrics().recordQueryError();
+            throw e;
+        } finally {
+            event.complete(query, committed == null ? 0 : committed.length, multiRowInsert != null, committed != null);
+        }
+    }
+
+    private static <T> int[] executeBatch(Connection c, String query, Iterable<T> items, ItemBinder<T> binder, int batchSize) throws SQLException {
+        var counts = new IntArrayBuilder(batchSize);
+        try (var pstmt = WrappedPreparedStatement.create(c.prepareStatement(query))) {
+            int pending = 0;
+            for (T item : items) {
+                binder.bind(pstmt, item);
+                pstmt.addBatch();
+                if (++pending == batchSize) {
+                    counts.addAll(pstmt.executeBatch());
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                counts.addAll(pstmt.executeBatch());
+            }
+        }
+        return counts.toArray();
+    }
+
+    /**
+     * Prepare a statement on a connection of the provider, bind its parameters and execute it.
+     * Successful executions are recorded in the provider metrics and slow query log, failures are counted as query errors.
+     * Every execution, successful or not, is recorded as a flight recorder event.
+     *
+     * @param query Query to execute, with a ? for every parameter.
+     * @param binder Binder setting the parameters.
+     * @param execution Execution of the bound statement, building the result.
+     * @param rows Number of rows returned or updated from the result, NOT_EXECUTED if the statement was not executed.
+     * @param <R> Type of the result.
+     * @return The result.
+     */
+    <R> R execute(String query, ParameterBinder binder, Execution<R> execution, ToLongFunction<R> rows) {
+        var event = new DatabaseQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long count = 0;
+        boolean success = false;
+        try (var c = this.provider.getConnection(); var pstmt = this.sampled(WrappedPreparedStatement.create(c.prepareStatement(query)))) {
+            binder.bind(pstmt);
+            R result = execution.execute(pstmt);
+            count = rows.applyAsLong(result);
+            if (count != NOT_EXECUTED) {
+                long nanos = System.nanoTime() - start;
+                this.provider.getMetrics().recordQuery(query, nanos, count);
+                this.provider.getSlowQueryLog().record(query, nanos, count, pstmt);
+            }
+            success = true;
             return result;
         } catch (SQLException e) {
+            this.provider.getMetrics().recordQueryError();
             throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            this.provider.getMetrics().recordQueryError();
+            throw e;
+        } finally {
+            if (count != NOT_EXECUTED) {
+                event.complete(query, success ? count : 0, success);
+            }
         }
     }
+
+    /**
+     * Map all the rows returned by a statement.
+     *
+     * @param pstmt Bound statement to execute.
+     * @param mapper Mapper to build an object from a row.
+     * @param <T> Type of the mapped objects.
+     * @return The mapped rows.
+     * @throws SQLException If the execution or the mapping fails.
+     */
+    static <T> List<T> map(WrappedPreparedStatement pstmt, RowMapper<T> mapper) throws SQLException {
+        List<T> result = new ArrayList<>();
+        try (var resultSet = WrappedResultSet.wrap(pstmt.executeQuery())) {
+            while (resultSet.next()) {
+                result.add(mapper.map(resultSet));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Capture the parameters bound to a statement if the slow query log samples this execution.
+     *
+     * @param pstmt Statement to execute.
+     * @return The statement.
+     */
+    private WrappedPreparedStatement sampled(WrappedPreparedStatement pstmt) {
+        if (this.provider.getSlowQueryLog().sample()) {
+            pstmt.captureParameters(true);
+        }
+        return pstmt;
+    }
+
+    /**
+     * Close a connection after a failure, without hiding the original error.
+     *
+     * @param c Connection to close, can be null if the failure happened while retrieving it.
+     * @param e Original error.
+     */
+    private static void closeOnError(Connection c, Exception e) {
+        if (c != null) {
+            try {
+                c.close();
+            } catch (SQLException ce) {
+                e.addSuppressed(ce);
+            }
+        }
+    }
+
+    /**
+     * Execution of a bound statement.
+     *
+     * @param <R> Type of the result.
+     */
+    @FunctionalInterface
+    interface Execution<R> {
+
+        R execute(WrappedPreparedStatement pstmt) throws SQLException;
+    }
 }
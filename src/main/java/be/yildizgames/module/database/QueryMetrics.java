@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+/**
+ * Snapshot of the metrics of a query fingerprint, durations are in milliseconds.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class QueryMetrics {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final String fingerprint;
+
+    private final long count;
+
+    private final long rows;
+
+    private final double totalMillis;
+
+    private final double meanMillis;
+
+    private final double p50Millis;
+
+    private final double p99Millis;
+
+    private final double maxMillis;
+
+    QueryMetrics(String fingerprint, LatencyHistogram latency, long rows) {
+        super();
+        this.fingerprint = fingerprint;
+        this.count = latency.getCount();
+        this.rows = rows;
+        this.totalMillis = latency.getTotal() / NANOS_PER_MILLI;
+        this.meanMillis = latency.getMean() / NANOS_PER_MILLI;
+        this.p50Millis = latency.getPercentile(0.5) / NANOS_PER_MILLI;
+        this.p99Millis = latency.getPercentile(0.99) / NANOS_PER_MILLI;
+        this.maxMillis = latency.getMax() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * @return The SQL of the query, with a ? for every parameter.
+     */
+    public String getFingerprint() {
+        return this.fingerprint;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return The number of rows returned or updated by all the executions.
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    public double getTotalMillis() {
+        return this.totalMillis;
+    }
+
+    public double getMeanMillis() {
+        return this.meanMillis;
+    }
+
+    public double getP50Millis() {
+        return this.p50Millis;
+    }
+
+    public double getP99Millis() {
+        return this.p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return this.maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return this.fingerprint + ", count: " + this.count + ", rows: " + this.rows + ", mean: " + this.meanMillis + "ms, p99: " + this.p99Millis + "ms";
+    }
+}
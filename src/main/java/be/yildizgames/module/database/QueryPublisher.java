@@ -0,0 +1,235 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publish the rows of a query to subscribers, rows are read from the database only when subscribers request them.
+ * Every subscriber executes the query on its own connection, taken at its first request and released when all rows were
+ * published, when an error occurs, or when the subscription is cancelled.
+ * Rows are read and published from virtual threads, never from the thread calling request.
+ * As a subscriber cannot receive null, a row mapped to null fails the subscription with a NullPointerException.
+ *
+ * @author Grégory Van den Borre
+ */
+final class QueryPublisher<T> implements Flow.Publisher<T> {
+
+    private static final System.Logger LOGGER = System.getLogger(QueryPublisher.class.getName());
+
+    private final DataBaseConnectionProvider provider;
+
+    private final String query;
+
+    private final ParameterBinder binder;
+
+    private final RowMapper<T> mapper;
+
+    /**
+     * Maximum number of rows to fetch in a single round trip.
+     */
+    private final int maxFetchSize;
+
+    QueryPublisher(DataBaseConnectionProvider provider, String query, ParameterBinder binder, RowMapper<T> mapper, int maxFetchSize) {
+        super();
+        this.provider = provider;
+        this.query = query;
+        this.binder = binder;
+        this.mapper = mapper;
+        this.maxFetchSize = maxFetchSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        subscriber.onSubscribe(new QuerySubscription(subscriber));
+    }
+
+    /**
+     * Subscription reading rows for a single subscriber.
+     * Only one thread at a time drains the cursor, requests and cancellation received while draining are picked up by the running thread.
+     */
+    private final class QuerySubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+
+        /**
+         * Number of requested rows not yet published.
+         */
+        private final AtomicLong demand = new AtomicLong();
+
+        /**
+         * Number of signals to handle, the thread increasing it from 0 starts draining.
+         */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        private volatile IllegalArgumentException invalidRequest;
+
+        /**
+         * Cursor on the query rows, only used by the draining thread.
+         */
+        private QueryCursor<T> cursor;
+
+        /**
+         * <code>true</code> once the subscriber received its final signal, only used by the draining thread.
+         */
+        private boolean terminated;
+
+        private QuerySubscription(Flow.Subscriber<? super T> subscriber) {
+            super();
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.invalidRequest = new IllegalArgumentException("Requested rows must be positive, value is " + n);
+            } else {
+                this.demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            this.signal();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.signal();
+        }
+
+        private void signal() {
+            if (this.pending.getAndIncrement() == 0) {
+                Thread.ofVirtual().name("query-publisher").start(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!this.terminated) {
+                    this.emit();
+                }
+                missed = this.pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            try {
+                long requested = this.demand.get();
+                long emitted = 0;
+                while (true) {
+                    if (this.stopped()) {
+                        return;
+                    }
+                    if (emitted == requested) {
+                        requested = this.demand.addAndGet(-emitted);
+                        emitted = 0;
+                        if (requested == 0) {
+                            return;
+                        }
+                    }
+                    this.prepareCursor(requested - emitted);
+                    if (!this.cursor.tryAdvance(this::next)) {
+                        this.terminated = true;
+                        this.subscriber.onComplete();
+                        return;
+                    }
+                    emitted++;
+                }
+            } catch (RuntimeException e) {
+                this.fail(e);
+            }
+        }
+
+        /**
+         * Check if publishing must stop, and release the cursor if so.
+         *
+         * @return <code>true</code> if the subscription was cancelled or received an invalid request.
+         */
+        private boolean stopped() {
+            if (this.cancelled) {
+                this.terminated = true;
+                this.closeCursor();
+                return true;
+            }
+            var e = this.invalidRequest;
+            if (e != null) {
+                this.cancelled = true;
+                this.fail(e);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Open the cursor if needed, and fetch only the rows still requested, up to the maximum fetch size.
+         *
+         * @param outstanding Number of requested rows not yet published.
+         */
+        private void prepareCursor(long outstanding) {
+            int fetchSize = (int) Math.min(outstanding, QueryPublisher.this.maxFetchSize);
+            if (this.cursor == null) {
+                Connection c = null;
+                try {
+                    c = QueryPublisher.this.provider.getConnection();
+                    this.cursor = QueryCursor.open(c, QueryPublisher.this.query, QueryPublisher.this.binder, QueryPublisher.this.mapper, fetchSize);
+                } catch (SQLException e) {
+                    closeOnError(c, e);
+                    throw new IllegalStateException(e);
+                } catch (RuntimeException e) {
+                    closeOnError(c, e);
+                    throw e;
+                }
+            } else {
+                this.cursor.setFetchSize(fetchSize);
+            }
+        }
+
+        private void next(T row) {
+            this.subscriber.onNext(Objects.requireNonNull(row, "A published row cannot be null, the mapper returned null."));
+        }
+
+        private void fail(RuntimeException e) {
+            this.terminated = true;
+            this.closeCursor();
+            this.subscriber.onError(e);
+        }
+
+        private void closeCursor() {
+            if (this.cursor != null) {
+                try {
+                    this.cursor.close();
+                } catch (IllegalStateException e) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Error while closing query cursor.", e);
+                }
+            }
+        }
+    }
+
+    private static void closeOnError(Connection c, Exception e) {
+        if (c != null) {
+            try {
+                c.close();
+            } catch (SQLException ce) {
+                e.addSuppressed(ce);
+            }
+        }
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of query results, keyed by the query, its bound parameters and its row mapper instance.
+ * Entries expire after a fixed time, and the least recently used entries are evicted when the cache is full,
+ * a sixteenth of the entries at once so the cost of finding them is shared by several loads.
+ * Lookups do not lock, only loads and invalidations are serialized.
+ * Writing to a table invalidates every entry whose query mentions the table name,
+ * writes whose table cannot be found from their SQL invalidate the whole cache.
+ * A result loaded while an invalidation happens is not cached, so a result older than a write is never served after it.
+ * Cached results are unmodifiable and shared by all the callers.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class QueryResultCache {
+
+    /**
+     * Table written by an insert, update, delete, merge, truncate, drop or alter statement.
+     */
+    private static final Pattern WRITTEN_TABLE = Pattern.compile(
+            "^\\s*(?:INSERT\\s+INTO|UPDATE|DELETE\\s+FROM|MERGE\\s+INTO|TRUNCATE\\s+TABLE|DROP\\s+TABLE(?:\\s+IF\\s+EXISTS)?|ALTER\\s+TABLE)\\s+([\\w.\"]+)",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Statement only reading data.
+     */
+    private static final Pattern READ = Pattern.compile("^\\s*(?:SELECT|WITH|VALUES)\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern IDENTIFIER_SEPARATOR = Pattern.compile("[^\\w]+");
+
+    private final int maxEntries;
+
+    private final long ttlNanos;
+
+    /**
+     * Lock held to add, evict or invalidate entries, so a result older than an invalidation is never added.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Keys of the entries by upper case identifier found in their query, only used with the lock held.
+     */
+    private final Map<String, Set<Key>> keysByIdentifier = new HashMap<>();
+
+    /**
+     * Number of invalidations, a result is only cached if no invalidation happened while it was loaded.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Create a new cache.
+     *
+     * @param maxEntries Maximum number of results to keep.
+     * @param ttl Time to keep a result.
+     * @throws IllegalArgumentException If the maximum number of entries or the time to keep a result is not positive.
+     */
+    public QueryResultCache(int maxEntries, Duration ttl) {
+        super();
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Maximum entries must be at least 1, value is " + maxEntries);
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive, value is " + ttl);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Invalidate all the results of queries mentioning a table.
+     *
+     * @param table Table name.
+     */
+    public void invalidate(String table) {
+        this.generation.incrementAndGet();
+        this.lock.lock();
+        try {
+            var keys = this.keysByIdentifier.get(table.toUpperCase(Locale.ROOT));
+            if (keys != null) {
+                for (var key : List.copyOf(keys)) {
+                    this.remove(key);
+                    this.invalidations.increment();
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Invalidate all the results.
+     */
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.lock.lock();
+        try {
+            this.invalidations.add(this.entries.size());
+            this.entries.clear();
+            this.keysByIdentifier.clear();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return The number of results removed because the cache was full or they expired.
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * @return The number of results removed by a write.
+     */
+    public long getInvalidations() {
+        return this.invalidations.sum();
+    }
+
+    /**
+     * @return The ratio of queries served from the cache, 0 if no query was made.
+     */
+    public double getHitRate() {
+        long h = this.getHits();
+        long total = h + this.getMisses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "hits: " + this.getHits() + ", misses: " + this.getMisses() + ", evictions: " + this.getEvictions() + ", invalidations: " + this.getInvalidations();
+    }
+
+    /**
+     * Build the key of a query from the parameters captured while it was bound.
+     *
+     * @param query Query to execute.
+     * @param parameters Parameters captured from the statement.
+     * @param mapper Mapper building the rows, compared by identity unless it implements equals.
+     * @return The key, or null if the parameters cannot be compared, as streams or readers.
+     */
+    static Key key(String query, List<Object> parameters, RowMapper<?> mapper) {
+        var values = new Object[parameters.size()];
+        for (int i = 0; i < values.length; i++) {
+            var parameter = parameters.get(i);
+            if (parameter == WrappedPreparedStatement.NOT_CAPTURED || parameter instanceof InputStream || parameter instanceof Reader
+                    || parameter instanceof Blob || parameter instanceof Clob) {
+                return null;
+            }
+            values[i] = parameter instanceof byte[] bytes ? ByteBuffer.wrap(bytes.clone()) : parameter;
+        }
+        return new Key(query, Collections.unmodifiableList(Arrays.asList(values)), mapper);
+    }
+
+    /**
+     * @return The current generation, to provide when the loaded result is put in the cache.
+     */
+    long generation() {
+        return this.generation.get();
+    }
+
+    /**
+     * Find a cached result.
+     *
+     * @param key Query key.
+     * @return The result, or null if not found or expired.
+     */
+    List<?> get(Key key) {
+        var entry = this.entries.get(key);
+        if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+            this.lock.lock();
+            try {
+                if (this.entries.remove(key, entry)) {
+                    this.unindex(key);
+                    this.evictions.increment();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+            entry = null;
+        }
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        entry.lastAccess = System.nanoTime();
+        this.hits.increment();
+        return entry.result;
+    }
+
+    /**
+     * Cache a result, unless an invalidation happened since it started to be loaded.
+     *
+     * @param key Query key.
+     * @param result Result to cache.
+     * @param generation Generation when the result started to be loaded.
+     * @param <T> Type of the rows.
+     * @return The unmodifiable result.
+     */
+    <T> List<T> put(Key key, List<T> result, long generation) {
+        var cached = Collections.unmodifiableList(result);
+        this.lock.lock();
+        try {
+            if (this.generation.get() != generation) {
+                return cached;
+            }
+            if (this.entries.put(key, new Entry(cached, System.nanoTime() + this.ttlNanos)) == null) {
+                for (var identifier : key.identifiers()) {
+                    this.keysByIdentifier.computeIfAbsent(identifier, k -> new HashSet<>()).add(key);
+                }
+            }
+            if (this.entries.size() > this.maxEntries) {
+                this.evict();
+            }
+            return cached;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Evict the least recently used entries, to leave room for a sixteenth of the maximum number of entries.
+     * Must be called with the lock held.
+     */
+    private void evict() {
+        var byAccess = new ArrayList<>(this.entries.entrySet());
+        byAccess.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        int target = this.maxEntries - this.maxEntries / 16;
+        for (int i = 0; i < byAccess.size() && this.entries.size() > target; i++) {
+            var evicted = byAccess.get(i).getKey();
+            if (this.entries.remove(evicted) != null) {
+                this.unindex(evicted);
+                this.evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Invalidate the results of the queries mentioning the table written by a statement.
+     * Read statements do not invalidate anything, and statements whose table is not found invalidate all the results.
+     *
+     * @param statement Executed write statement.
+     */
+    void invalidateWrite(String statement) {
+        var table = writtenTable(statement);
+        if (table == null) {
+            this.invalidateAll();
+        } else if (!table.isEmpty()) {
+            this.invalidate(table);
+        }
+    }
+
+    /**
+     * Find the table written by a statement.
+     *
+     * @param statement Executed statement.
+     * @return The table name, without schema nor quotes, an empty string for a read statement, null if the written table is not found.
+     */
+    static String writtenTable(String statement) {
+        var matcher = WRITTEN_TABLE.matcher(statement);
+        if (matcher.find()) {
+            var table = matcher.group(1).replace("\"", "");
+            return table.substring(table.lastIndexOf('.') + 1);
+        }
+        return READ.matcher(statement).find() ? "" : null;
+    }
+
+    private void remove(Key key) {
+        if (this.entries.remove(key) != null) {
+            this.unindex(key);
+        }
+    }
+
+    private void unindex(Key key) {
+        for (var identifier : key.identifiers()) {
+            var keys = this.keysByIdentifier.get(identifier);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                this.keysByIdentifier.remove(identifier);
+            }
+        }
+    }
+
+    /**
+     * Cache key.
+     *
+     * @param query Query.
+     * @param parameters Bound parameters, by index from 0.
+     * @param mapper Row mapper.
+     */
+    record Key(String query, List<Object> parameters, RowMapper<?> mapper) {
+
+        private Set<String> identifiers() {
+            var result = new HashSet<String>();
+            for (var token : IDENTIFIER_SEPARATOR.split(this.query.toUpperCase(Locale.ROOT))) {
+                if (!token.isEmpty()) {
+                    result.add(token);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Cached result.
+     */
+    private static final class Entry {
+
+        private final List<?> result;
+
+        private final long expiresAt;
+
+        /**
+         * Time in nanoseconds of the last lookup, used to find the least recently used entries.
+         */
+        private volatile long lastAccess;
+
+        private Entry(List<?> result, long expiresAt) {
+            super();
+            this.result = result;
+            this.expiresAt = expiresAt;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map rows to a record, by calling its canonical constructor with the columns having the name of its components.
+ * A component named firstName is read from a column labelled firstName or first_name, case is ignored.
+ * Components and columns are matched once per result shape, and combined in a single method handle
+ * calling the typed getters of the result set and the constructor, so mapping a row uses no reflection.
+ *
+ * @author Grégory Van den Borre
+ */
+final class RecordMapper<R extends Record> implements RowMapper<R> {
+
+    /**
+     * Mappers for records reachable from this module, built once per record class.
+     */
+    private static final ClassValue<RecordMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected RecordMapper<?> computeValue(Class<?> type) {
+            return new RecordMapper(type.asSubclass(Record.class), MethodHandles.publicLookup());
+        }
+    };
+
+    private static final MethodType ROW_TYPE = MethodType.methodType(Object.class, WrappedResultSet.class);
+
+    private final Class<R> type;
+
+    private final RecordComponent[] components;
+
+    /**
+     * Canonical constructor.
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * Mapping handles by result shape.
+     */
+    private final Map<List<String>, MethodHandle> shapes = new ConcurrentHashMap<>();
+
+    /**
+     * Last used shape, to skip the shape lookup for the rows of a same result.
+     */
+    private volatile Shape last;
+
+    private RecordMapper(Class<R> type, MethodHandles.Lookup lookup) {
+        super();
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException(type + " is not a record.");
+        }
+        this.type = type;
+        this.components = type.getRecordComponents();
+        var parameters = Arrays.stream(this.components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+        try {
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameters));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Canonical constructor of " + type + " is not accessible.", e);
+        }
+    }
+
+    /**
+     * Provide the mapper of a public record, built once per class.
+     *
+     * @param type Record class.
+     * @param <R> Record type.
+     * @return The mapper.
+     */
+    @SuppressWarnings("unchecked")
+    static <R extends Record> RecordMapper<R> of(Class<R> type) {
+        return (RecordMapper<R>) MAPPERS.get(type);
+    }
+
+    /**
+     * Build a mapper for a record whose constructor is only accessible with a given lookup.
+     *
+     * @param type Record class.
+     * @param lookup Lookup with access to the canonical constructor.
+     * @param <R> Record type.
+     * @return The mapper.
+     */
+    static <R extends Record> RecordMapper<R> of(Class<R> type, MethodHandles.Lookup lookup) {
+        return new RecordMapper<>(type, lookup);
+    }
+
+    @Override
+    public R map(WrappedResultSet resultSet) {
+        var labels = resultSet.getColumnLabels();
+        var shape = this.last;
+        if (shape == null || shape.labels != labels) {
+            shape = new Shape(labels, this.shapes.computeIfAbsent(labels.getColumns(), k -> this.bind(labels)));
+            this.last = shape;
+        }
+        try {
+            return this.type.cast((Object) shape.handle.invokeExact(resultSet));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Build the handle mapping a row of a given shape.
+     *
+     * @param labels Columns of the result.
+     * @return A handle taking the result set and returning the record.
+     */
+    private MethodHandle bind(ColumnLabels labels) {
+        var getters = new MethodHandle[this.components.length];
+        for (int i = 0; i < this.components.length; i++) {
+            var component = this.components[i];
+            int column = labels.find(component.getName());
+            if (column < 0) {
+                column = labels.find(toSnakeCase(component.getName()));
+            }
+            if (column < 0) {
+                throw new IllegalStateException("No column for component " + component.getName() + " of " + this.type.getName() + " in " + labels.getColumns());
+            }
+            getters[i] = MethodHandles.insertArguments(getter(component.getType()), 1, column);
+        }
+        var handle = MethodHandles.filterArguments(this.constructor, 0, getters);
+        handle = MethodHandles.permuteArguments(handle, MethodType.methodType(this.type, WrappedResultSet.class), new int[this.components.length]);
+        return handle.asType(ROW_TYPE);
+    }
+
+    /**
+     * Find the result set getter for a type.
+     *
+     * @param type Type to read.
+     * @return A handle taking the result set and the column index.
+     */
+    private static MethodHandle getter(Class<?> type) {
+        var lookup = MethodHandles.publicLookup();
+        try {
+            if (type == int.class) {
+                return lookup.findVirtual(WrappedResultSet.class, "getInt", MethodType.methodType(int.class, int.class));
+            } else if (type == long.class) {
+                return lookup.findVirtual(WrappedResultSet.class, "getLong", MethodType.methodType(long.class, int.class));
+            } else if (type == double.class) {
+                return lookup.findVirtual(WrappedResultSet.class, "getDouble", MethodType.methodType(double.class, int.class));
+            } else if (type == float.class) {
+                return lookup.findVirtual(WrappedResultSet.class, "getFloat", MethodType.methodType(float.class, int.class));
+            } else if (type == short.class) {
+                return lookup.findVirtual(WrappedResultSet.class, "getShort", MethodType.methodType(short.class, int.class));
+            } else if (type == byte.class) {
+                return lookup.findVirtual(WrappedResultSet.class, "getByte", MethodType.methodType(byte.class, int.class));
+            } else if (type == boolean.class) {
+                return lookup.findVirtual(WrappedResultSet.class, "getBoolean", MethodType.methodType(boolean.class, int.class));
+            } else if (type == String.class) {
+                return lookup.findVirtual(WrappedResultSet.class, "getString", MethodType.methodType(String.class, int.class));
+            } else if (type == BigDecimal.class) {
+                return lookup.findVirtual(WrappedResultSet.class, "getBigDecimal", MethodType.methodType(BigDecimal.class, int.class));
+            } else if (type == byte[].class) {
+                return lookup.findVirtual(WrappedResultSet.class, "getBytes", MethodType.methodType(byte[].class, int.class));
+            } else if (type.isEnum()) {
+                var valueOf = MethodHandles.insertArguments(lookup.findStatic(Enum.class, "valueOf", MethodType.methodType(Enum.class, Class.class, String.class)), 0, type);
+                var nullSafe = MethodHandles.guardWithTest(
+                        lookup.findStatic(Objects.class, "isNull", MethodType.methodType(boolean.class, Object.class)).asType(MethodType.methodType(boolean.class, String.class)),
+                        MethodHandles.dropArguments(MethodHandles.constant(Enum.class, null), 0, String.class),
+                        valueOf);
+                return MethodHandles.filterReturnValue(getter(String.class), nullSafe.asType(MethodType.methodType(type, String.class)));
+            }
+            var getObject = lookup.findVirtual(WrappedResultSet.class, "getObject", MethodType.methodType(Object.class, int.class, Class.class));
+            return MethodHandles.insertArguments(getObject, 2, type).asType(MethodType.methodType(type, WrappedResultSet.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toSnakeCase(String name) {
+        var builder = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                builder.append('_').append(Character.toLowerCase(c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Mapping handle for the columns of a result.
+     */
+    private record Shape(ColumnLabels labels, MethodHandle handle) {}
+}
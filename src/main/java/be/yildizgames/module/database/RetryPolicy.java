@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Policy to execute again a transaction failing because of a concurrent transaction, as a deadlock,
+ * a serialization failure or a lock timeout.
+ * The delay before a new attempt grows exponentially with the number of attempts, and is randomized
+ * so transactions failing together do not retry together.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class RetryPolicy {
+
+    /**
+     * Policy never retrying.
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ofMillis(1), Duration.ofMillis(1));
+
+    /**
+     * MySQL error code for a lock wait timeout.
+     */
+    private static final int MYSQL_LOCK_WAIT_TIMEOUT = 1205;
+
+    /**
+     * MySQL error code for a deadlock.
+     */
+    private static final int MYSQL_DEADLOCK = 1213;
+
+    /**
+     * Oracle error code for a deadlock.
+     */
+    private static final int ORACLE_DEADLOCK = 60;
+
+    private final int maxAttempts;
+
+    private final long initialBackoffNanos;
+
+    private final long maxBackoffNanos;
+
+    /**
+     * Create a new policy.
+     *
+     * @param maxAttempts Maximum number of executions, including the first one.
+     * @param initialBackoff Maximum delay before the second attempt, doubled for every following attempt.
+     * @param maxBackoff Maximum delay before any attempt.
+     * @throws IllegalArgumentException If the number of attempts or a delay is not positive, or the initial delay is greater than the maximum.
+     */
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        super();
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Maximum attempts must be at least 1, value is " + maxAttempts);
+        }
+        if (initialBackoff.isNegative() || initialBackoff.isZero() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Backoff must be positive and not greater than the maximum, values are " + initialBackoff + " and " + maxBackoff);
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * Check if a failure is caused by a concurrent transaction, so executing again the transaction can succeed.
+     * Retryable failures are the SQL states of the transaction rollback class (40), lock timeouts (HYT00, 55P03),
+     * and MySQL and Oracle deadlock and lock wait error codes.
+     *
+     * @param failure Failure to check, with its causes.
+     * @return <code>true</code> if the transaction can be executed again.
+     */
+    public boolean isRetryable(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SQLException e) {
+                for (SQLException next = e; next != null; next = next.getNextException()) {
+                    if (isRetryable(next)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compute the delay before an attempt, a random value between 0 and the exponential backoff for this attempt.
+     *
+     * @param attempt Number of the next attempt, from 2.
+     * @return The delay to wait.
+     */
+    Duration backoff(int attempt) {
+        int shift = Math.min(attempt - 2, 62);
+        long ceiling = this.initialBackoffNanos > (this.maxBackoffNanos >> shift) ? this.maxBackoffNanos : this.initialBackoffNanos << shift;
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private static boolean isRetryable(SQLException e) {
+        if (e instanceof SQLTransactionRollbackException) {
+            return true;
+        }
+        var state = e.getSQLState();
+        if (state != null && (state.startsWith("40") || state.equals("HYT00") || state.equals("55P03"))) {
+            return true;
+        }
+        int code = e.getErrorCode();
+        return code == MYSQL_LOCK_WAIT_TIMEOUT || code == MYSQL_DEADLOCK || (code == ORACLE_DEADLOCK && "61000".equals(state));
+    }
+
+    @Override
+    public String toString() {
+        return "max attempts: " + this.maxAttempts + ", initial backoff: " + Duration.ofNanos(this.initialBackoffNanos) + ", max backoff: " + Duration.ofNanos(this.maxBackoffNanos);
+    }
+}
@@ -24,10 +24,40 @@
 
 package be.yildizgames.module.database;
 
+import java.lang.invoke.MethodHandles;
+
 /**
  * @author Grégory Van den Borre
  */
 public interface RowMapper <T> {
 
+    /**
+     * Provide a mapper calling the canonical constructor of a public record, with the columns named as its components.
+     * A component is read from the column with the same label, or with the label in snake case, case is ignored.
+     * Columns are matched to the components once per result shape, not for every row, and no reflection is used to map a row.
+     *
+     * @param type Record class.
+     * @param <R> Record type.
+     * @return The mapper for the record, the same instance for all calls with the same class.
+     * @throws IllegalArgumentException If the record canonical constructor is not public.
+     */
+    static <R extends Record> RowMapper<R> forRecord(Class<R> type) {
+        return RecordMapper.of(type);
+    }
+
+    /**
+     * Provide a mapper calling the canonical constructor of a record, accessed with a given lookup.
+     * This allows records which are not public, the lookup must come from a class having access to their constructor.
+     *
+     * @param type Record class.
+     * @param lookup Lookup with access to the record canonical constructor.
+     * @param <R> Record type.
+     * @return A new mapper for the record.
+     * @throws IllegalArgumentException If the record canonical constructor is not accessible with the lookup.
+     */
+    static <R extends Record> RowMapper<R> forRecord(Class<R> type, MethodHandles.Lookup lookup) {
+        return RecordMapper.of(type, lookup);
+    }
+
     T map(WrappedResultSet resultSet);
 }
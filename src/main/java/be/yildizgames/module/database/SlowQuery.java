@@ -0,0 +1,35 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.util.List;
+
+/**
+ * Query recorded by the slow query log.
+ *
+ * @param sql Query SQL, with a ? for every parameter.
+ * @param parameters Parameters bound to the query, by index from 0, empty if the parameters were not sampled for this execution.
+ * @param rows Number of rows returned or updated.
+ * @param nanos Duration of the execution, in nanoseconds.
+ * @param thread Name of the thread executing the query.
+ * @author Grégory Van den Borre
+ */
+public record SlowQuery(String sql, List<Object> parameters, long rows, long nanos, String thread) {
+
+    @Override
+    public String toString() {
+        return "Slow query (" + this.nanos / 1_000_000 + "ms, " + this.rows + " rows, thread " + this.thread + "): " + this.sql
+                + (this.parameters.isEmpty() ? "" : ", parameters: " + this.parameters);
+    }
+}
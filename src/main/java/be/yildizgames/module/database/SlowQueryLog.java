@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Log the queries taking longer than a threshold.
+ * The select, update and batch methods of the QueryExecutor and the AsyncQueryExecutor queries are logged.
+ * Streamed queries (stream, publish and parallelScan), whose duration depends on how fast their consumer reads the rows,
+ * and statements executed directly on the connection of a Transaction are not logged.
+ * Slow queries are put in a bounded lock-free ring buffer, and written to the logger by a virtual thread,
+ * so logging never blocks the query.
+ * When the buffer is full, new slow queries are dropped and counted.
+ * Bound parameters are only captured for a sample of the executions, as capturing them boxes every primitive value.
+ * The log is disabled until a threshold is set.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class SlowQueryLog {
+
+    private static final System.Logger LOGGER = System.getLogger(SlowQueryLog.class.getName());
+
+    /**
+     * Number of slots in the ring buffer, a power of two.
+     */
+    static final int CAPACITY = 1024;
+
+    private static final int MASK = CAPACITY - 1;
+
+    /**
+     * Threshold value disabling the log.
+     */
+    private static final long DISABLED = Long.MAX_VALUE;
+
+    private final AtomicReferenceArray<SlowQuery> slots = new AtomicReferenceArray<>(CAPACITY);
+
+    /**
+     * Sequence of the next slot to write, claimed by the producers.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Sequence of the next slot to read, only written by the drain thread.
+     */
+    private volatile long head;
+
+    /**
+     * <code>true</code> while a drain thread is running.
+     */
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final LongAdder recorded = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long thresholdNanos = DISABLED;
+
+    /**
+     * Parameters are captured for 1 execution out of this value.
+     */
+    private volatile int parameterSampling = 100;
+
+    /**
+     * Destination of the slow queries, the logger unless replaced for tests.
+     */
+    private volatile Consumer<SlowQuery> sink = q -> LOGGER.log(System.Logger.Level.WARNING, q);
+
+    SlowQueryLog() {
+        super();
+    }
+
+    /**
+     * Set the duration over which a query is logged.
+     *
+     * @param threshold Minimum duration of a logged query, zero to log all the queries, null to disable the log.
+     * @throws IllegalArgumentException If the threshold is negative.
+     */
+    public void setThreshold(Duration threshold) {
+        if (threshold == null) {
+            this.thresholdNanos = DISABLED;
+        } else if (threshold.isNegative()) {
+            throw new IllegalArgumentException("Threshold cannot be negative: " + threshold);
+        } else {
+            this.thresholdNanos = threshold.toNanos();
+        }
+    }
+
+    /**
+     * Set how often the bound parameters are captured.
+     *
+     * @param oneIn Parameters are captured for 1 execution out of this value, 1 to capture them for every execution.
+     * @throws IllegalArgumentException If the value is not positive.
+     */
+    public void setParameterSampling(int oneIn) {
+        if (oneIn < 1) {
+            throw new IllegalArgumentException("Parameter sampling must be at least 1, value is " + oneIn);
+        }
+        this.parameterSampling = oneIn;
+    }
+
+    public boolean isEnabled() {
+        return this.thresholdNanos != DISABLED;
+    }
+
+    /**
+     * @return The number of slow queries recorded, including the dropped ones.
+     */
+    public long getRecorded() {
+        return this.recorded.sum();
+    }
+
+    /**
+     * @return The number of slow queries not logged because the buffer was full.
+     */
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    void setSink(Consumer<SlowQuery> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Decide if the parameters of the next execution are captured.
+     *
+     * @return <code>true</code> if the log is enabled and the execution is sampled.
+     */
+    boolean sample() {
+        if (this.thresholdNanos == DISABLED) {
+            return false;
+        }
+        int sampling = this.parameterSampling;
+        return sampling == 1 || ThreadLocalRandom.current().nextInt(sampling) == 0;
+    }
+
+    /**
+     * Record an execution if it is over the threshold.
+     *
+     * @param sql Query SQL.
+     * @param nanos Duration of the execution.
+     * @param rows Number of rows returned or updated.
+     * @param statement Statement executed, providing the captured parameters, can be null.
+     */
+    void record(String sql, long nanos, long rows, WrappedPreparedStatement statement) {
+        if (nanos < this.thresholdNanos) {
+            return;
+        }
+        this.recorded.increment();
+        List<Object> parameters = statement == null ? List.of() : statement.getCapturedParameters();
+        Thread t = Thread.currentThread();
+        String thread = t.getName().isEmpty() ? "#" + t.threadId() : t.getName();
+        this.offer(new SlowQuery(sql, parameters, rows, nanos, thread));
+    }
+
+    private void offer(SlowQuery query) {
+        long sequence;
+        do {
+            sequence = this.tail.get();
+            if (sequence - this.head >= CAPACITY) {
+                this.dropped.increment();
+                return;
+            }
+        } while (!this.tail.compareAndSet(sequence, sequence + 1));
+        this.slots.set((int) (sequence & MASK), query);
+        if (this.draining.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("slow-query-log").start(this::drain);
+        }
+    }
+
+    /**
+     * Write the buffered queries to the sink, and stop once the buffer is empty.
+     * A slot claimed but not yet written stops the drain until it is written, the producer is then about to publish it.
+     */
+    private void drain() {
+        while (true) {
+            long h = this.head;
+            while (h != this.tail.get()) {
+                int index = (int) (h & MASK);
+                SlowQuery query = this.slots.get(index);
+                if (query == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                this.slots.set(index, null);
+                this.head = ++h;
+                try {
+                    this.sink.accept(query);
+                } catch (RuntimeException e) {
+                    LOGGER.log(System.Logger.Level.ERROR, "Error while logging a slow query", e);
+                }
+            }
+            this.draining.set(false);
+            if (h == this.tail.get() || !this.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Query result kept in memory up to a budget, the rows past the budget are written to a temporary file and mapped back when accessed.
+ * The rows written to the file are stored as their raw column values in a compact binary format,
+ * and mapped to objects every time they are accessed, through a read only result set view of the stored row.
+ * Only the JDBC scalar types can be spilled, a result holding any other type fails once the budget is reached.
+ * The temporary file is deleted when the list is closed, rows stored in it cannot be accessed anymore after that.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class SpilledList<T> extends AbstractList<T> implements RandomAccess, AutoCloseable {
+
+    /**
+     * Maximum size of a file region mapped in memory.
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    /**
+     * Size of the buffer used to write to the file.
+     */
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Bytes counted for a variable length value whose declared length is unknown or larger.
+     */
+    private static final int VARIABLE_LENGTH_ESTIMATE = 64;
+
+    private static final byte NULL = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte FLOAT = 4;
+    private static final byte STRING = 5;
+    private static final byte BYTES = 6;
+    private static final byte BOOLEAN = 7;
+    private static final byte DECIMAL = 8;
+    private static final byte DATE = 9;
+    private static final byte TIME = 10;
+    private static final byte TIMESTAMP = 11;
+    private static final byte UUID_VALUE = 12;
+    private static final byte SHORT = 13;
+    private static final byte BYTE = 14;
+
+    /**
+     * Rows mapped while the budget was not reached.
+     */
+    private final List<T> heap;
+
+    private final RowMapper<T> mapper;
+
+    private final ColumnLabels labels;
+
+    private final FileChannel channel;
+
+    /**
+     * Position of every spilled row in the file.
+     */
+    private final long[] offsets;
+
+    /**
+     * Index of the first spilled row of every mapped segment.
+     */
+    private final int[] segmentRows;
+
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Position in the file of every mapped segment.
+     */
+    private final long[] segmentOffsets;
+
+    private volatile boolean closed;
+
+    private SpilledList(List<T> heap, RowMapper<T> mapper, ColumnLabels labels, FileChannel channel, long[] offsets, int[] segmentRows, MappedByteBuffer[] segments, long[] segmentOffsets) {
+        super();
+        this.heap = heap;
+        this.mapper = mapper;
+        this.labels = labels;
+        this.channel = channel;
+        this.offsets = offsets;
+        this.segmentRows = segmentRows;
+        this.segments = segments;
+        this.segmentOffsets = segmentOffsets;
+    }
+
+    /**
+     * Read all the rows of a result set, rows are mapped as long as the budget is not reached, and spilled to a file after.
+     * The budget is compared with a row size estimated once from the column types, so the rows kept in memory are only read by the mapper.
+     *
+     * @param resultSet Result set to read.
+     * @param mapper Mapper to build an object from a row.
+     * @param heapBudget Maximum number of bytes of rows to keep in memory.
+     * @param <T> Type of the mapped objects.
+     * @return The rows.
+     */
+    static <T> SpilledList<T> read(WrappedResultSet resultSet, RowMapper<T> mapper, long heapBudget) {
+        var labels = resultSet.getColumnLabels();
+        long rowSize = estimateRowSize(resultSet.getMetaData());
+        List<T> heap = new ArrayList<>();
+        long remaining = heapBudget;
+        while (resultSet.next()) {
+            if (rowSize > remaining) {
+                return spill(resultSet, mapper, labels, heap, encode(resultSet, labels.getColumnCount(), ByteBuffer.allocate(256)));
+            }
+            remaining -= rowSize;
+            heap.add(mapper.map(resultSet));
+        }
+        return new SpilledList<>(heap, mapper, labels, null, new long[0], new int[0], new MappedByteBuffer[0], new long[0]);
+    }
+
+    private static <T> SpilledList<T> spill(WrappedResultSet resultSet, RowMapper<T> mapper, ColumnLabels labels, List<T> heap, ByteBuffer firstRow) {
+        FileChannel channel = null;
+        try {
+            var file = Files.createTempFile("yildiz-spill", ".rows");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            var offsets = new LongArrayBuilder(1024);
+            var segmentRows = new IntArrayBuilder(1);
+            var segmentOffsets = new LongArrayBuilder(1);
+            var output = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            long position = 0;
+            long segmentStart = 0;
+            segmentRows.add(0);
+            segmentOffsets.add(0);
+            var row = firstRow;
+            int columns = labels.getColumnCount();
+            while (true) {
+                int size = row.remaining();
+                if (position + size - segmentStart > SEGMENT_SIZE) {
+                    segmentRows.add(offsets.size());
+                    segmentOffsets.add(position);
+                    segmentStart = position;
+                }
+                offsets.add(position);
+                position += size;
+                if (size > output.remaining()) {
+                    writeFully(channel, output.flip());
+                    output.clear();
+                }
+                if (size > output.capacity()) {
+                    writeFully(channel, row);
+                } else {
+                    output.put(row);
+                }
+                if (!resultSet.next()) {
+                    break;
+                }
+                row = encode(resultSet, columns, row);
+            }
+            writeFully(channel, output.flip());
+            var starts = segmentOffsets.toArray();
+            var segments = new MappedByteBuffer[starts.length];
+            for (int i = 0; i < starts.length; i++) {
+                long end = i + 1 < starts.length ? starts[i + 1] : position;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, starts[i], end - starts[i]);
+            }
+            return new SpilledList<>(heap, mapper, labels, channel, offsets.toArray(), segmentRows.toArray(), segments, starts);
+        } catch (IOException e) {
+            closeOnError(channel, e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeOnError(channel, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < this.heap.size()) {
+            return this.heap.get(index);
+        }
+        int row = index - this.heap.size();
+        if (row >= this.offsets.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + this.size() + " rows.");
+        }
+        if (this.closed) {
+            throw new IllegalStateException("Result is closed, spilled rows are not available anymore.");
+        }
+        int segment = Arrays.binarySearch(this.segmentRows, row);
+        if (segment < 0) {
+            segment = -segment - 2;
+        }
+        var buffer = this.segments[segment].duplicate();
+        buffer.position((int) (this.offsets[row] - this.segmentOffsets[segment]));
+        var values = decode(buffer, this.labels.getColumnCount());
+        return this.mapper.map(WrappedResultSet.wrap(new StoredRow(values, this.labels), this.labels));
+    }
+
+    @Override
+    public int size() {
+        return this.heap.size() + this.offsets.length;
+    }
+
+    /**
+     * @return The number of rows stored in the temporary file.
+     */
+    public int getSpilledRowCount() {
+        return this.offsets.length;
+    }
+
+    /**
+     * Delete the temporary file, if any.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        if (this.channel != null) {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void closeOnError(FileChannel channel, Exception e) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ce) {
+                e.addSuppressed(ce);
+            }
+        }
+    }
+
+    /**
+     * Estimate the size of a row in the binary format from the column types.
+     * Variable length values are counted with their declared length, up to VARIABLE_LENGTH_ESTIMATE bytes.
+     *
+     * @param metaData Metadata of the result set.
+     * @return The estimated size of a row, in bytes.
+     */
+    private static long estimateRowSize(ResultSetMetaData metaData) {
+        try {
+            long size = 0;
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                size += switch (metaData.getColumnType(i)) {
+                    case Types.BOOLEAN, Types.BIT, Types.TINYINT -> 2;
+                    case Types.SMALLINT -> 3;
+                    case Types.INTEGER, Types.REAL -> 5;
+                    case Types.BIGINT, Types.DOUBLE, Types.FLOAT, Types.DATE, Types.TIME -> 9;
+                    case Types.TIMESTAMP -> 13;
+                    case Types.DECIMAL, Types.NUMERIC -> 9 + Math.min(Math.max(metaData.getPrecision(i), 1), 38) / 2;
+                    default -> {
+                        int length = metaData.getPrecision(i);
+                        yield 5 + (length > 0 && length < VARIABLE_LENGTH_ESTIMATE ? length : VARIABLE_LENGTH_ESTIMATE);
+                    }
+                };
+            }
+            return size;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Encode the current row.
+     *
+     * @param resultSet Result set positioned on the row.
+     * @param columns Number of columns.
+     * @param buffer Buffer to reuse.
+     * @return The buffer holding the row, ready to be read, a bigger one if the given one was too small.
+     */
+    private static ByteBuffer encode(WrappedResultSet resultSet, int columns, ByteBuffer buffer) {
+        buffer.clear();
+        for (int i = 1; i <= columns; i++) {
+            buffer = encode(resultSet.getObject(i), buffer);
+        }
+        return buffer.flip();
+    }
+
+    private static ByteBuffer encode(Object value, ByteBuffer buffer) {
+        return switch (value) {
+            case null -> ensure(buffer, 1).put(NULL);
+            case Integer v -> ensure(buffer, 5).put(INT).putInt(v);
+            case Long v -> ensure(buffer, 9).put(LONG).putLong(v);
+            case Double v -> ensure(buffer, 9).put(DOUBLE).putDouble(v);
+            case Float v -> ensure(buffer, 5).put(FLOAT).putFloat(v);
+            case Short v -> ensure(buffer, 3).put(SHORT).putShort(v);
+            case Byte v -> ensure(buffer, 2).put(BYTE).put(v);
+            case Boolean v -> ensure(buffer, 2).put(BOOLEAN).put((byte) (v ? 1 : 0));
+            case String v -> putBytes(buffer, STRING, v.getBytes(StandardCharsets.UTF_8));
+            case byte[] v -> putBytes(buffer, BYTES, v);
+            case BigDecimal v -> putDecimal(buffer, v);
+            case Date v -> ensure(buffer, 9).put(DATE).putLong(v.getTime());
+            case Time v -> ensure(buffer, 9).put(TIME).putLong(v.getTime());
+            case Timestamp v -> ensure(buffer, 13).put(TIMESTAMP).putLong(v.getTime()).putInt(v.getNanos());
+            case UUID v -> ensure(buffer, 17).put(UUID_VALUE).putLong(v.getMostSignificantBits()).putLong(v.getLeastSignificantBits());
+            default -> throw new IllegalStateException("Cannot spill a value of type " + value.getClass().getName() + ", only the JDBC scalar types are supported.");
+        };
+    }
+
+    private static Object[] decode(ByteBuffer buffer, int columns) {
+        var values = new Object[columns];
+        for (int i = 0; i < columns; i++) {
+            byte tag = buffer.get();
+            values[i] = switch (tag) {
+                case NULL -> null;
+                case INT -> buffer.getInt();
+                case LONG -> buffer.getLong();
+                case DOUBLE -> buffer.getDouble();
+                case FLOAT -> buffer.getFloat();
+                case SHORT -> buffer.getShort();
+                case BYTE -> buffer.get();
+                case BOOLEAN -> buffer.get() != 0;
+                case STRING -> new String(getBytes(buffer), StandardCharsets.UTF_8);
+                case BYTES -> getBytes(buffer);
+                case DECIMAL -> {
+                    int scale = buffer.getInt();
+                    yield new BigDecimal(new BigInteger(getBytes(buffer)), scale);
+                }
+                case DATE -> new Date(buffer.getLong());
+                case TIME -> new Time(buffer.getLong());
+                case TIMESTAMP -> {
+                    var timestamp = new Timestamp(buffer.getLong());
+                    timestamp.setNanos(buffer.getInt());
+                    yield timestamp;
+                }
+                case UUID_VALUE -> new UUID(buffer.getLong(), buffer.getLong());
+                default -> throw new IllegalStateException("Unknown value tag " + tag);
+            };
+        }
+        return values;
+    }
+
+    private static ByteBuffer putBytes(ByteBuffer buffer, byte tag, byte[] bytes) {
+        return ensure(buffer, 5 + bytes.length).put(tag).putInt(bytes.length).put(bytes);
+    }
+
+    private static ByteBuffer putDecimal(ByteBuffer buffer, BigDecimal value) {
+        var unscaled = value.unscaledValue().toByteArray();
+        return ensure(buffer, 9 + unscaled.length).put(DECIMAL).putInt(value.scale()).putInt(unscaled.length).put(unscaled);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int size) {
+        if (buffer.remaining() >= size) {
+            return buffer;
+        }
+        var bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + size));
+        return bigger.put(buffer.flip());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the prepared statements of a physical connection, keyed by their SQL text.
+ * A statement is removed from the cache while it is in use, so the same statement is never lent twice.
+ * A connection being used by a single thread at a time, this class is not thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+final class StatementCache {
+
+    /**
+     * Physical connection used to prepare the statements.
+     */
+    private final Connection connection;
+
+    /**
+     * Maximum number of idle statements kept.
+     */
+    private final int maxSize;
+
+    /**
+     * Counters shared with the other caches of the same provider.
+     */
+    private final StatementCacheStatistics statistics;
+
+    /**
+     * Idle statements, in access order.
+     */
+    private final Map<String, CachedPreparedStatement> statements;
+
+    private boolean closed;
+
+    StatementCache(final Connection connection, final int maxSize, final StatementCacheStatistics statistics) {
+        super();
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.statistics = statistics;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPreparedStatement> eldest) {
+                if (this.size() > StatementCache.this.maxSize) {
+                    eldest.getValue().closeStatement();
+                    StatementCache.this.statistics.eviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Provide a prepared statement for a query, from the cache if possible.
+     *
+     * @param sql Query to prepare.
+     * @param owner Connection the statement is lent through.
+     * @return The prepared statement, closing it will return it to the cache.
+     * @throws SQLException If the driver cannot prepare the statement.
+     */
+    WrappedPreparedStatement prepare(final String sql, final PooledConnection owner) throws SQLException {
+        if (this.maxSize == 0) {
+            return WrappedPreparedStatement.create(this.connection.prepareStatement(sql));
+        }
+        CachedPreparedStatement statement = this.statements.remove(sql);
+        if (statement != null) {
+            this.statistics.hit();
+            statement.lend(owner);
+            return statement;
+        }
+        this.statistics.miss();
+        return new CachedPreparedStatement(this.connection.prepareStatement(sql), sql, this, owner);
+    }
+
+    /**
+     * Give back a statement once its user closed it.
+     *
+     * @param statement Statement to give back.
+     */
+    void release(final CachedPreparedStatement statement) {
+        if (this.closed || !statement.reset()) {
+            statement.closeStatement();
+        } else if (this.statements.putIfAbsent(statement.getSql(), statement) != null) {
+            statement.closeStatement();
+        }
+    }
+
+    /**
+     * Close all the idle statements, statements still in use will be closed when released.
+     */
+    void close() {
+        this.closed = true;
+        this.statements.values().forEach(CachedPreparedStatement::closeStatement);
+        this.statements.clear();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the prepared statement caches of all the connections of a provider.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class StatementCacheStatistics {
+
+    /**
+     * Number of statements found in the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of statements not found in the cache, and prepared by the driver.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Number of statements closed to make room for more recently used ones.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    StatementCacheStatistics() {
+        super();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    void hit() {
+        this.hits.increment();
+    }
+
+    void miss() {
+        this.misses.increment();
+    }
+
+    void eviction() {
+        this.evictions.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "hits: " + this.getHits() + ", misses: " + this.getMisses() + ", evictions: " + this.getEvictions();
+    }
+}
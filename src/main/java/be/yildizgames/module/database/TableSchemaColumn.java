@@ -111,10 +111,22 @@ public class TableSchemaColumn {
         return this.unique;
     }
 
+    /**
+     * @return <code>true</code> if the column holds integer values.
+     */
+    final boolean isNumeric() {
+        return this.type.numeric;
+    }
+
 
     private enum ColumnType {
 
-        INT, SMALLINT, TINYINT, BIGINT, VARCHAR, CHAR, BOOLEAN, UUID, BINARY;
+        INT(true), SMALLINT(true), TINYINT(true), BIGINT(true), VARCHAR(false), CHAR(false), BOOLEAN(false), UUID(false), BINARY(false);
+
+        private final boolean numeric;
 
+        ColumnType(boolean numeric) {
+            this.numeric = numeric;
+        }
     }
 }
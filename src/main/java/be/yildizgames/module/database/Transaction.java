@@ -26,14 +26,30 @@ package be.yildizgames.module.database;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A transactional database operation.
+ * A transaction executed while another one of the same provider is running on the thread is nested:
+ * it reuses the outer connection, sees its uncommitted changes, and only rolls back to a savepoint on failure.
  *
  * @author Grégory Van den Borre
  */
 public final class Transaction {
 
+    /**
+     * Executor used by the drivers to abort a connection whose network timeout elapsed.
+     */
+    private static final Executor NETWORK_TIMEOUT_EXECUTOR = command -> Thread.ofVirtual().start(command);
+
     /**
      * Logger.
      */
@@ -44,25 +60,327 @@ public final class Transaction {
      */
     private final DataBaseConnectionProvider connectionProvider;
 
+    /**
+     * Policy to execute again a transaction failing because of a concurrent one.
+     */
+    private final RetryPolicy retryPolicy;
+
+    private final LongAdder attempts = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private final LongAdder commits = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
     public Transaction(DataBaseConnectionProvider provider) {
+        this(provider, RetryPolicy.NONE);
+    }
+
+    /**
+     * Create a transaction executing again the behaviors failing because of a concurrent transaction.
+     *
+     * @param provider Connection provider.
+     * @param retryPolicy Policy to retry the failed behaviors.
+     */
+    public Transaction(DataBaseConnectionProvider provider, RetryPolicy retryPolicy) {
         this.connectionProvider = provider;
+        this.retryPolicy = retryPolicy;
     }
 
+    /**
+     * Execute a behavior in a transaction, all the cached query results are invalidated once it completes.
+     * If the behavior fails, the transaction is rolled back, and executed again if the retry policy allows it.
+     * A failure is logged, use tryExecute to know if the transaction was committed.
+     *
+     * @param behavior Behavior to execute.
+     */
     public void execute(TransactionBehavior behavior) {
-        try(Connection c = connectionProvider.getConnection()) {
+        this.tryExecute(behavior);
+    }
+
+    /**
+     * Execute a behavior in a transaction with an isolation level, a read-only mode or a timeout.
+     * The connection state is restored once the transaction completes.
+     * A read-only transaction does not invalidate the cached query results, any other invalidates all of them.
+     * A failure is logged, use tryExecute to know if the transaction was committed.
+     *
+     * @param options Options to apply to the connection during the transaction.
+     * @param behavior Behavior to execute.
+     */
+    public void execute(TransactionOptions options, TransactionBehavior behavior) {
+        this.tryExecute(options, behavior);
+    }
+
+    /**
+     * Execute a behavior in a transaction, only the cached results of queries mentioning the written tables are invalidated once it completes.
+     * If the behavior fails, the transaction is rolled back, and executed again if the retry policy allows it.
+     * A failure is logged, use tryExecute to know if the transaction was committed.
+     *
+     * @param behavior Behavior to execute.
+     * @param writtenTables Tables written by the behavior.
+     */
+    public void execute(TransactionBehavior behavior, TableSchema... writtenTables) {
+        this.tryExecute(behavior, writtenTables);
+    }
+
+    /**
+     * Execute a behavior in a transaction like execute, and tell if it was committed.
+     *
+     * @param behavior Behavior to execute.
+     * @return <code>true</code> if the transaction was committed, false if it was rolled back.
+     */
+    public boolean tryExecute(TransactionBehavior behavior) {
+        return this.run(TransactionOptions.DEFAULT, behavior, this.connectionProvider::invalidateAllResults);
+    }
+
+    /**
+     * Execute a behavior in a transaction with options like execute, and tell if it was committed.
+     *
+     * @param options Options to apply to the connection during the transaction.
+     * @param behavior Behavior to execute.
+     * @return <code>true</code> if the transaction was committed, false if it was rolled back.
+     */
+    public boolean tryExecute(TransactionOptions options, TransactionBehavior behavior) {
+        return this.run(options, behavior, options.isReadOnly() ? () -> {} : this.connectionProvider::invalidateAllResults);
+    }
+
+    /**
+     * Execute a behavior in a transaction writing some tables like execute, and tell if it was committed.
+     *
+     * @param behavior Behavior to execute.
+     * @param writtenTables Tables written by the behavior.
+     * @return <code>true</code> if the transaction was committed, false if it was rolled back.
+     */
+    public boolean tryExecute(TransactionBehavior behavior, TableSchema... writtenTables) {
+        return this.run(TransactionOptions.DEFAULT, behavior, () -> this.connectionProvider.invalidateTables(Arrays.stream(writtenTables).map(TableSchema::getTableName).toArray(String[]::new)));
+    }
+
+    /**
+     * @return The number of times a behavior was executed, including the retries.
+     */
+    public long getAttempts() {
+        return this.attempts.sum();
+    }
+
+    /**
+     * @return The number of times a behavior was executed again after a retryable failure.
+     */
+    public long getRetries() {
+        return this.retries.sum();
+    }
+
+    public long getCommits() {
+        return this.commits.sum();
+    }
+
+    /**
+     * @return The number of transactions rolled back and not retried.
+     */
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    private boolean run(TransactionOptions options, TransactionBehavior behavior, Runnable invalidation) {
+        var event = new DatabaseTransactionEvent();
+        event.begin();
+        var outer = this.connectionProvider.getTransactionScope();
+        if (outer != null) {
+            boolean committed = this.runNested(outer, behavior, invalidation);
+            event.complete(committed, 1, true);
+            return committed;
+        }
+        var deferred = new ArrayList<Runnable>();
+        int attempt = 0;
+        boolean committed = false;
+        try {
+            while (true) {
+                attempt++;
+                this.attempts.increment();
+                try {
+                    this.attempt(options, behavior, deferred);
+                    this.commits.increment();
+                    committed = true;
+                    return true;
+                } catch (Exception e) {
+                    if (attempt >= this.retryPolicy.getMaxAttempts() || !this.retryPolicy.isRetryable(e)) {
+                        this.failures.increment();
+                        logger.log(System.Logger.Level.ERROR, "Error in transaction", e);
+                        return false;
+                    }
+                    var backoff = this.retryPolicy.backoff(attempt + 1);
+                    logger.log(System.Logger.Level.WARNING, "Transaction attempt {0} failed, retrying in {1}ms: {2}", attempt, backoff.toMillis(), e.getMessage());
+                    this.retries.increment();
+                    Thread.sleep(backoff);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.failures.increment();
+            logger.log(System.Logger.Level.ERROR, "Transaction retry interrupted", e);
+            return false;
+        } finally {
+            invalidation.run();
+            deferred.forEach(Runnable::run);
+            event.complete(committed, attempt, false);
+        }
+    }
+
+    /**
+     * Execute a behavior inside a transaction already running on this thread, on its connection and inside a savepoint.
+     * If the behavior fails, only the changes made since the savepoint are rolled back, and the outer transaction continues.
+     * A failure invalidating the whole transaction, as a deadlock or serialization failure, a lost connection,
+     * or a savepoint that cannot be rolled back, is rethrown instead, so the outer transaction rolls back and is retried if allowed.
+     * The options and retry policy only apply to the outer transaction, the invalidation is run once it completes.
+     *
+     * @param outer Transaction running on this thread.
+     * @param behavior Behavior to execute.
+     * @param invalidation Cache invalidation to run once the outer transaction completes.
+     * @return <code>true</code> if the behavior succeeded, false if it was rolled back to the savepoint.
+     * @throws IllegalStateException If the failure invalidates the outer transaction, with the failure as cause.
+     */
+    private boolean runNested(TransactionScope outer, TransactionBehavior behavior, Runnable invalidation) {
+        this.attempts.increment();
+        outer.deferInvalidation(invalidation);
+        Connection c = outer.getConnection();
+        boolean savepointRolledBack = true;
+        try {
+            logger.log(System.Logger.Level.DEBUG, "Starting nested transaction");
+            Savepoint savepoint = c.setSavepoint();
+            try {
+                behavior.execute(c);
+            } catch (Exception e) {
+                try {
+                    c.rollback(savepoint);
+                } catch (SQLException re) {
+                    savepointRolledBack = false;
+                    e.addSuppressed(re);
+                }
+                throw e;
+            }
+            c.releaseSavepoint(savepoint);
+            this.commits.increment();
+            logger.log(System.Logger.Level.DEBUG, "Complete nested transaction");
+            return true;
+        } catch (Exception e) {
+            this.failures.increment();
+            if (!savepointRolledBack || this.retryPolicy.isRetryable(e) || isConnectionLost(e)) {
+                throw new IllegalStateException("Nested transaction failure aborts the outer transaction.", e);
+            }
+            logger.log(System.Logger.Level.ERROR, "Error in nested transaction", e);
+            return false;
+        }
+    }
+
+    /**
+     * Check if a failure comes from a lost connection, identified by the SQL state class 08.
+     *
+     * @param failure Failure to check, with its causes.
+     * @return true if the connection was lost.
+     */
+    private static boolean isConnectionLost(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SQLException e && e.getSQLState() != null && e.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Execute a behavior and commit, or roll back if it fails or its timeout is elapsed.
+     * The options are applied before the transaction starts, the connection state is then restored.
+     *
+     * @param options Options to apply to the connection.
+     * @param behavior Behavior to execute.
+     * @param deferred Invalidations of the nested transactions.
+     * @throws Exception The failure of the behavior or of the commit.
+     */
+    private void attempt(TransactionOptions options, TransactionBehavior behavior, List<Runnable> deferred) throws Exception {
+        try (Connection c = connectionProvider.getConnection()) {
             logger.log(System.Logger.Level.DEBUG, "Starting transaction");
+            long start = System.nanoTime();
+            boolean readOnly = options.isReadOnly() && !c.isReadOnly();
+            if (readOnly) {
+                c.setReadOnly(true);
+            }
+            int isolation = -1;
+            if (options.getIsolation() != TransactionOptions.Isolation.DEFAULT) {
+                isolation = c.getTransactionIsolation();
+                c.setTransactionIsolation(options.getIsolation().getLevel());
+            }
+            boolean autoCommit = c.getAutoCommit();
             c.setAutoCommit(false);
+            int networkTimeout = applyTimeout(c, options.getTimeout(), start);
+            this.connectionProvider.setTransactionScope(new TransactionScope(c, deferred));
             try {
                 behavior.execute(c);
+                checkTimeout(options.getTimeout(), start);
+                c.commit();
+                this.connectionProvider.getMetrics().recordCommit();
             } catch (Exception e) {
-                c.rollback();
-                logger.log(System.Logger.Level.ERROR, "Error in transaction", e);
+                try {
+                    c.rollback();
+                } catch (SQLException re) {
+                    e.addSuppressed(re);
+                }
+                this.connectionProvider.getMetrics().recordRollback();
+                throw e;
+            } finally {
+                this.connectionProvider.setTransactionScope(null);
+                restoreTimeout(c, networkTimeout);
+                c.setAutoCommit(autoCommit);
+                if (isolation != -1) {
+                    c.setTransactionIsolation(isolation);
+                }
+                if (readOnly) {
+                    c.setReadOnly(false);
+                }
             }
-            c.commit();
-            c.setAutoCommit(true);
             logger.log(System.Logger.Level.DEBUG, "Complete transaction");
-        } catch (SQLException e) {
-            logger.log(System.Logger.Level.ERROR, "Error in transaction", e);
+        }
+    }
+
+    /**
+     * Bound the time spent by the statements of the transaction to its remaining time.
+     * On a pooled connection, the remaining time is applied as query timeout to every statement created during the transaction,
+     * on any other connection, the timeout is applied as network timeout, if the driver supports it.
+     *
+     * @param c Connection used by the transaction.
+     * @param timeout Transaction timeout, zero for no timeout.
+     * @param start Time in nanoseconds when the transaction started.
+     * @return The network timeout to restore, -1 if it was not changed.
+     * @throws SQLException If the timeout cannot be applied.
+     */
+    private int applyTimeout(Connection c, Duration timeout, long start) throws SQLException {
+        if (timeout.isZero()) {
+            return -1;
+        }
+        if (c instanceof PooledConnection pooled) {
+            pooled.setTransactionDeadline(start + timeout.toNanos());
+            return -1;
+        }
+        try {
+            int networkTimeout = c.getNetworkTimeout();
+            c.setNetworkTimeout(NETWORK_TIMEOUT_EXECUTOR, (int) Math.min(Integer.MAX_VALUE, Math.max(1, timeout.toMillis())));
+            return networkTimeout;
+        } catch (SQLFeatureNotSupportedException e) {
+            logger.log(System.Logger.Level.DEBUG, "Network timeout not supported, transaction timeout only checked before commit.");
+            return -1;
+        }
+    }
+
+    private static void restoreTimeout(Connection c, int networkTimeout) throws SQLException {
+        if (c instanceof PooledConnection pooled) {
+            pooled.clearTransactionDeadline();
+        } else if (networkTimeout != -1) {
+            c.setNetworkTimeout(NETWORK_TIMEOUT_EXECUTOR, networkTimeout);
+        }
+    }
+
+    private static void checkTimeout(Duration timeout, long start) throws SQLTimeoutException {
+        if (!timeout.isZero() && System.nanoTime() - start > timeout.toNanos()) {
+            throw new SQLTimeoutException("Transaction not completed after " + timeout.toMillis() + "ms, rolled back.", "HYT01");
         }
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Options applied to the connection for the duration of a transaction: isolation level, read-only mode and timeout.
+ * Instances are immutable, every modifier returns a new instance.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class TransactionOptions {
+
+    /**
+     * Options keeping the connection state, read-write at the driver default isolation, without timeout.
+     */
+    public static final TransactionOptions DEFAULT = new TransactionOptions(Isolation.DEFAULT, false, Duration.ZERO);
+
+    private final Isolation isolation;
+
+    private final boolean readOnly;
+
+    private final Duration timeout;
+
+    private TransactionOptions(Isolation isolation, boolean readOnly, Duration timeout) {
+        super();
+        this.isolation = Objects.requireNonNull(isolation);
+        this.readOnly = readOnly;
+        this.timeout = Objects.requireNonNull(timeout);
+    }
+
+    /**
+     * @param isolation Isolation level to use for the transaction.
+     * @return Options with the isolation level.
+     */
+    public TransactionOptions isolation(Isolation isolation) {
+        return new TransactionOptions(isolation, this.readOnly, this.timeout);
+    }
+
+    /**
+     * A read-only transaction lets the database skip the undo logging, or route the queries to a replica.
+     *
+     * @return Options with the read-only mode.
+     */
+    public TransactionOptions readOnly() {
+        return new TransactionOptions(this.isolation, true, this.timeout);
+    }
+
+    /**
+     * The statements created during the transaction are limited to its remaining time,
+     * and a transaction still running once the timeout is elapsed is rolled back instead of committed.
+     *
+     * @param timeout Maximum duration of the transaction, zero for no timeout.
+     * @return Options with the timeout.
+     * @throws IllegalArgumentException If the timeout is negative.
+     */
+    public TransactionOptions timeout(Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout cannot be negative: " + timeout);
+        }
+        return new TransactionOptions(this.isolation, this.readOnly, timeout);
+    }
+
+    public Isolation getIsolation() {
+        return this.isolation;
+    }
+
+    public boolean isReadOnly() {
+        return this.readOnly;
+    }
+
+    public Duration getTimeout() {
+        return this.timeout;
+    }
+
+    @Override
+    public String toString() {
+        return "isolation: " + this.isolation + ", read only: " + this.readOnly + ", timeout: " + this.timeout;
+    }
+
+    /**
+     * Transaction isolation levels, mapped to the JDBC constants.
+     */
+    public enum Isolation {
+
+        /**
+         * Keep the isolation level of the connection.
+         */
+        DEFAULT(-1),
+
+        READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+
+        READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+
+        REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+
+        SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+        /**
+         * JDBC isolation level.
+         */
+        private final int level;
+
+        Isolation(int level) {
+            this.level = level;
+        }
+
+        int getLevel() {
+            return this.level;
+        }
+    }
+}
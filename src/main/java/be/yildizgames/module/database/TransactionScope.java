@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transaction running on a thread, nested transactions on the same thread execute on its connection inside a savepoint.
+ * Cache invalidations of the nested transactions are deferred until the outer transaction completes,
+ * so results read by other connections before the commit are not cached after it.
+ *
+ * @author Grégory Van den Borre
+ */
+final class TransactionScope {
+
+    /**
+     * Connection of the outer transaction.
+     */
+    private final Connection connection;
+
+    /**
+     * Invalidations to run once the outer transaction completes.
+     */
+    private final List<Runnable> invalidations;
+
+    TransactionScope(Connection connection, List<Runnable> invalidations) {
+        super();
+        this.connection = connection;
+        this.invalidations = invalidations;
+    }
+
+    TransactionScope(Connection connection) {
+        this(connection, new ArrayList<>());
+    }
+
+    Connection getConnection() {
+        return this.connection;
+    }
+
+    void deferInvalidation(Runnable invalidation) {
+        this.invalidations.add(invalidation);
+    }
+}
@@ -33,7 +33,10 @@ import java.sql.SQLWarning;
 import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -41,21 +44,168 @@ import java.util.Objects;
  */
 public class WrappedPreparedStatement implements PreparedStatement {
 
+    /**
+     * Value captured for the stream and large object parameters, whose value is not kept.
+     */
+    static final Object NOT_CAPTURED = new Object() {
+        @Override
+        public String toString() {
+            return "<not captured>";
+        }
+    };
+
     private final PreparedStatement statement;
 
-    private WrappedPreparedStatement(final PreparedStatement statement) {
+    /**
+     * Value added to every parameter index, to bind several rows in a single statement.
+     */
+    private int parameterOffset;
+
+    /**
+     * Column labels resolved by a previous result, null if no label was resolved yet.
+     */
+    private ColumnLabels columnLabels;
+
+    /**
+     * Parameters bound since the capture started, by index from 0, null if parameters are not captured.
+     * Stream and large object parameters are captured as NOT_CAPTURED.
+     */
+    private Object[] capturedParameters;
+
+    /**
+     * Highest parameter index bound since the capture started, so trailing null parameters are kept.
+     */
+    private int capturedCount;
+
+    WrappedPreparedStatement(final PreparedStatement statement) {
         super();
         this.statement = Objects.requireNonNull(statement);
     }
 
+    /**
+     * Wrap a prepared statement, a statement already wrapped is returned as is.
+     *
+     * @param statement Statement to wrap.
+     * @return The wrapped statement.
+     */
     public static WrappedPreparedStatement create(final PreparedStatement statement) {
+        if (statement instanceof WrappedPreparedStatement wrapped) {
+            return wrapped;
+        }
         return new WrappedPreparedStatement(statement);
     }
 
+    /**
+     * Shift the index of the parameters set afterwards, so a binder written for a single row can bind any row
+     * of a statement inserting several rows.
+     *
+     * @param parameterOffset Value added to every parameter index, 0 to bind the parameters at their own index.
+     */
+    final void setParameterOffset(int parameterOffset) {
+        this.parameterOffset = parameterOffset;
+    }
+
+    /**
+     * Column labels of the results of this statement, shared by all its executions.
+     * Only used by the thread holding the statement.
+     */
+    final ColumnLabels getColumnLabels() {
+        return this.columnLabels;
+    }
+
+    final void setColumnLabels(ColumnLabels columnLabels) {
+        this.columnLabels = columnLabels;
+    }
+
+    /**
+     * Start or stop capturing the parameters bound to this statement, for the slow query log and the result cache keys.
+     * Parameters are not captured by default, as capturing boxes every primitive value.
+     *
+     * @param capture <code>true</code> to capture the parameters set afterwards, false to stop and forget the captured parameters.
+     */
+    final void captureParameters(boolean capture) {
+        if (!capture) {
+            this.capturedParameters = null;
+        } else if (this.capturedParameters == null) {
+            this.capturedParameters = new Object[8];
+        } else {
+            Arrays.fill(this.capturedParameters, null);
+        }
+        this.capturedCount = 0;
+    }
+
+    /**
+     * Provide the captured parameters.
+     *
+     * @return The parameters bound since the capture started, by index from 0, empty if parameters are not captured.
+     */
+    final List<Object> getCapturedParameters() {
+        var captured = this.capturedParameters;
+        if (captured == null) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(captured, this.capturedCount)));
+    }
+
+    private void capture(int index, Object value) {
+        var captured = this.capturedParameters;
+        if (captured != null) {
+            int position = this.parameterOffset + index - 1;
+            if (position >= captured.length) {
+                captured = Arrays.copyOf(captured, Math.max(position + 1, captured.length * 2));
+                this.capturedParameters = captured;
+            }
+            captured[position] = value;
+            this.capturedCount = Math.max(this.capturedCount, position + 1);
+        }
+    }
+
+    private void capture(int index, byte value) {
+        if (this.capturedParameters != null) {
+            this.capture(index, (Object) value);
+        }
+    }
+
+    private void capture(int index, short value) {
+        if (this.capturedParameters != null) {
+            this.capture(index, (Object) value);
+        }
+    }
+
+    private void capture(int index, boolean value) {
+        if (this.capturedParameters != null) {
+            this.capture(index, (Object) value);
+        }
+    }
+
+    private void capture(int index, int value) {
+        if (this.capturedParameters != null) {
+            this.capture(index, (Object) value);
+        }
+    }
+
+    private void capture(int index, float value) {
+        if (this.capturedParameters != null) {
+            this.capture(index, (Object) value);
+        }
+    }
+
+    private void capture(int index, long value) {
+        if (this.capturedParameters != null) {
+            this.capture(index, (Object) value);
+        }
+    }
+
+    private void capture(int index, double value) {
+        if (this.capturedParameters != null) {
+            this.capture(index, (Object) value);
+        }
+    }
+
     @Override
     public final ResultSet executeQuery() {
         try {
-            return this.statement.executeQuery();
+            return WrappedResultSet.wrap(this.statement.executeQuery(), this);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -73,7 +223,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setNull(int i, int i1) {
         try {
-            this.statement.setNull(i, i1);
+            this.statement.setNull(this.parameterOffset + i, i1);
+            this.capture(i, (Object) null);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -82,7 +233,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setBoolean(int i, boolean b) {
         try {
-            this.statement.setBoolean(i, b);
+            this.statement.setBoolean(this.parameterOffset + i, b);
+            this.capture(i, b);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -91,7 +243,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setByte(int i, byte b) {
         try {
-            this.statement.setByte(i, b);
+            this.statement.setByte(this.parameterOffset + i, b);
+            this.capture(i, b);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -100,7 +253,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setShort(int i, short i1) {
         try {
-            this.statement.setShort(i, i1);
+            this.statement.setShort(this.parameterOffset + i, i1);
+            this.capture(i, i1);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -109,7 +263,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setInt(int i, int i1) {
         try {
-            this.statement.setInt(i, i1);
+            this.statement.setInt(this.parameterOffset + i, i1);
+            this.capture(i, i1);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -118,7 +273,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setLong(int i, long l) {
         try {
-            this.statement.setLong(i, l);
+            this.statement.setLong(this.parameterOffset + i, l);
+            this.capture(i, l);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -127,7 +283,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setFloat(int i, float v) {
         try {
-            this.statement.setFloat(i, v);
+            this.statement.setFloat(this.parameterOffset + i, v);
+            this.capture(i, v);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -136,7 +293,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setDouble(int i, double v) {
         try {
-            this.statement.setDouble(i, v);
+            this.statement.setDouble(this.parameterOffset + i, v);
+            this.capture(i, v);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -145,7 +303,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setBigDecimal(int i, BigDecimal bigDecimal) {
         try {
-            this.statement.setBigDecimal(i, bigDecimal);
+            this.statement.setBigDecimal(this.parameterOffset + i, bigDecimal);
+            this.capture(i, bigDecimal);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -154,7 +313,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setString(int i, String s) {
         try {
-            this.statement.setString(i, s);
+            this.statement.setString(this.parameterOffset + i, s);
+            this.capture(i, s);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -163,7 +323,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setBytes(int i, byte[] bytes) {
         try {
-            this.statement.setBytes(i, bytes);
+            this.statement.setBytes(this.parameterOffset + i, bytes);
+            this.capture(i, bytes);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -172,7 +333,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setDate(int i, Date date) {
         try {
-            this.statement.setDate(i, date);
+            this.statement.setDate(this.parameterOffset + i, date);
+            this.capture(i, date);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -181,7 +343,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setTime(int i, Time time) {
         try {
-            this.statement.setTime(i, time);
+            this.statement.setTime(this.parameterOffset + i, time);
+            this.capture(i, time);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -190,7 +353,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setTimestamp(int i, Timestamp timestamp) {
         try {
-            this.statement.setTimestamp(i, timestamp);
+            this.statement.setTimestamp(this.parameterOffset + i, timestamp);
+            this.capture(i, timestamp);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -199,7 +363,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setAsciiStream(int i, InputStream inputStream, int i1) {
         try {
-            this.statement.setAsciiStream(i, inputStream, i1);
+            this.statement.setAsciiStream(this.parameterOffset + i, inputStream, i1);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -209,7 +374,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setUnicodeStream(int i, InputStream inputStream, int i1) {
         try {
-            this.statement.setUnicodeStream(i, inputStream, i1);
+            this.statement.setUnicodeStream(this.parameterOffset + i, inputStream, i1);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -218,7 +384,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setBinaryStream(int i, InputStream inputStream, int i1) {
         try {
-            this.statement.setBinaryStream(i, inputStream, i1);
+            this.statement.setBinaryStream(this.parameterOffset + i, inputStream, i1);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -226,6 +393,10 @@ public class WrappedPreparedStatement implements PreparedStatement {
 
     @Override
     public void clearParameters() {
+        if (this.capturedParameters != null) {
+            Arrays.fill(this.capturedParameters, null);
+            this.capturedCount = 0;
+        }
         try {
             this.statement.clearParameters();
         } catch (SQLException e) {
@@ -236,7 +407,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setObject(int i, Object o, int i1) {
         try {
-            this.statement.setObject(i, o, i1);
+            this.statement.setObject(this.parameterOffset + i, o, i1);
+            this.capture(i, o);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -245,7 +417,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setObject(int i, Object o) {
         try {
-            this.statement.setObject(i, o);
+            this.statement.setObject(this.parameterOffset + i, o);
+            this.capture(i, o);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -272,7 +445,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setCharacterStream(int i, Reader reader, int i1) {
         try {
-            this.statement.setCharacterStream(i, reader, i1);
+            this.statement.setCharacterStream(this.parameterOffset + i, reader, i1);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -281,7 +455,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setRef(int i, Ref ref) {
         try {
-            this.statement.setRef(i, ref);
+            this.statement.setRef(this.parameterOffset + i, ref);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -290,7 +465,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setBlob(int i, Blob blob) {
         try {
-            this.statement.setBlob(i, blob);
+            this.statement.setBlob(this.parameterOffset + i, blob);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -299,7 +475,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setClob(int i, Clob clob) {
         try {
-            this.statement.setClob(i, clob);
+            this.statement.setClob(this.parameterOffset + i, clob);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -308,7 +485,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setArray(int i, Array array) {
         try {
-            this.statement.setArray(i, array);
+            this.statement.setArray(this.parameterOffset + i, array);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -326,7 +504,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setDate(int i, Date date, Calendar calendar) {
         try {
-            this.statement.setDate(i, date, calendar);
+            this.statement.setDate(this.parameterOffset + i, date, calendar);
+            this.capture(i, date);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -335,7 +514,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setTime(int i, Time time, Calendar calendar) {
         try {
-            this.statement.setTime(i, time, calendar);
+            this.statement.setTime(this.parameterOffset + i, time, calendar);
+            this.capture(i, time);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -344,7 +524,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setTimestamp(int i, Timestamp timestamp, Calendar calendar) {
         try {
-            this.statement.setTimestamp(i, timestamp, calendar);
+            this.statement.setTimestamp(this.parameterOffset + i, timestamp, calendar);
+            this.capture(i, timestamp);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -353,7 +534,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setNull(int i, int i1, String s) {
         try {
-            this.statement.setNull(i, i1, s);
+            this.statement.setNull(this.parameterOffset + i, i1, s);
+            this.capture(i, (Object) null);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -362,7 +544,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setURL(int i, URL url) {
         try {
-            this.statement.setURL(i, url);
+            this.statement.setURL(this.parameterOffset + i, url);
+            this.capture(i, url);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -380,7 +563,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setRowId(int i, RowId rowId) {
         try {
-            this.statement.setRowId(i, rowId);
+            this.statement.setRowId(this.parameterOffset + i, rowId);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -389,7 +573,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setNString(int i, String s) {
         try {
-            this.statement.setNString(i, s);
+            this.statement.setNString(this.parameterOffset + i, s);
+            this.capture(i, s);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -398,7 +583,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setNCharacterStream(int i, Reader reader, long l) {
         try {
-            this.statement.setNCharacterStream(i, reader, l);
+            this.statement.setNCharacterStream(this.parameterOffset + i, reader, l);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -407,7 +593,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setNClob(int i, NClob nClob) {
         try {
-            this.statement.setNClob(i, nClob);
+            this.statement.setNClob(this.parameterOffset + i, nClob);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -416,7 +603,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setClob(int i, Reader reader, long l) {
         try {
-            this.statement.setClob(i, reader, l);
+            this.statement.setClob(this.parameterOffset + i, reader, l);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -425,7 +613,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setBlob(int i, InputStream inputStream, long l) {
         try {
-            this.statement.setBlob(i, inputStream, l);
+            this.statement.setBlob(this.parameterOffset + i, inputStream, l);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -434,7 +623,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setNClob(int i, Reader reader, long l) {
         try {
-            this.statement.setNClob(i, reader, l);
+            this.statement.setNClob(this.parameterOffset + i, reader, l);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -443,7 +633,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setSQLXML(int i, SQLXML sqlxml) {
         try {
-            this.statement.setSQLXML(i, sqlxml);
+            this.statement.setSQLXML(this.parameterOffset + i, sqlxml);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -452,7 +643,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setObject(int i, Object o, int i1, int i2) {
         try {
-            this.statement.setObject(i, o, i1, i2);
+            this.statement.setObject(this.parameterOffset + i, o, i1, i2);
+            this.capture(i, o);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -461,7 +653,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setAsciiStream(int i, InputStream inputStream, long l) {
         try {
-            this.statement.setAsciiStream(i, inputStream, l);
+            this.statement.setAsciiStream(this.parameterOffset + i, inputStream, l);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -470,7 +663,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setBinaryStream(int i, InputStream inputStream, long l) {
         try {
-            this.statement.setBinaryStream(i, inputStream, l);
+            this.statement.setBinaryStream(this.parameterOffset + i, inputStream, l);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -479,7 +673,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setCharacterStream(int i, Reader reader, long l) {
         try {
-            this.statement.setCharacterStream(i, reader, l);
+            this.statement.setCharacterStream(this.parameterOffset + i, reader, l);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -488,7 +683,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setAsciiStream(int i, InputStream inputStream) {
         try {
-            this.statement.setAsciiStream(i, inputStream);
+            this.statement.setAsciiStream(this.parameterOffset + i, inputStream);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -497,7 +693,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setBinaryStream(int i, InputStream inputStream) {
         try {
-            this.statement.setBinaryStream(i, inputStream);
+            this.statement.setBinaryStream(this.parameterOffset + i, inputStream);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -506,7 +703,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setCharacterStream(int i, Reader reader) {
         try {
-            this.statement.setCharacterStream(i, reader);
+            this.statement.setCharacterStream(this.parameterOffset + i, reader);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -515,7 +713,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setNCharacterStream(int i, Reader reader) {
         try {
-            this.statement.setNCharacterStream(i, reader);
+            this.statement.setNCharacterStream(this.parameterOffset + i, reader);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -524,7 +723,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setClob(int i, Reader reader) {
         try {
-            this.statement.setClob(i, reader);
+            this.statement.setClob(this.parameterOffset + i, reader);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -533,7 +733,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setBlob(int i, InputStream inputStream) {
         try {
-            this.statement.setBlob(i, inputStream);
+            this.statement.setBlob(this.parameterOffset + i, inputStream);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -542,7 +743,8 @@ public class WrappedPreparedStatement implements PreparedStatement {
     @Override
     public void setNClob(int i, Reader reader) {
         try {
-            this.statement.setNClob(i, reader);
+            this.statement.setNClob(this.parameterOffset + i, reader);
+            this.capture(i, NOT_CAPTURED);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -56,13 +56,96 @@ public class WrappedResultSet implements ResultSet {
 
     private final ResultSet resultSet;
 
-    private WrappedResultSet(ResultSet resultSet) {
+    /**
+     * Statement sharing its column labels with all its results, null if the labels are not shared.
+     */
+    private final WrappedPreparedStatement statement;
+
+    /**
+     * Column indexes by label, resolved at the first access by label.
+     */
+    private ColumnLabels labels;
+
+    private WrappedResultSet(ResultSet resultSet, WrappedPreparedStatement statement) {
         super();
         this.resultSet = Objects.requireNonNull(resultSet);
+        this.statement = statement;
     }
 
     public static WrappedResultSet wrap(ResultSet resultSet) {
-        return new WrappedResultSet(resultSet);
+        if (resultSet instanceof WrappedResultSet wrapped) {
+            return wrapped;
+        }
+        return new WrappedResultSet(resultSet, null);
+    }
+
+    /**
+     * Wrap the result of a prepared statement, the column labels resolved for a result are reused by the next results of the same statement.
+     *
+     * @param resultSet Result set to wrap.
+     * @param statement Statement producing the result.
+     * @return The wrapped result set.
+     */
+    static WrappedResultSet wrap(ResultSet resultSet, WrappedPreparedStatement statement) {
+        return new WrappedResultSet(resultSet, statement);
+    }
+
+    /**
+     * Wrap a result set whose column labels are already known.
+     *
+     * @param resultSet Result set to wrap.
+     * @param labels Column labels of the result set.
+     * @return The wrapped result set.
+     */
+    static WrappedResultSet wrap(ResultSet resultSet, ColumnLabels labels) {
+        var wrapped = new WrappedResultSet(resultSet, null);
+        wrapped.labels = labels;
+        return wrapped;
+    }
+
+    /**
+     * Provide the column labels of this result, resolved once per result or once per statement if shared.
+     *
+     * @return The column labels.
+     */
+    final ColumnLabels getColumnLabels() {
+        if (this.labels == null) {
+            this.labels = this.loadLabels();
+        }
+        return this.labels;
+    }
+
+    /**
+     * Resolve a column label to its index without asking the driver, labels unknown from the metadata are resolved by the driver.
+     *
+     * @param columnLabel Column label.
+     * @return The column index.
+     */
+    private int column(String columnLabel) {
+        int index = this.getColumnLabels().find(columnLabel);
+        return index > 0 ? index : this.findColumn(columnLabel);
+    }
+
+    /**
+     * Reuse the labels of the statement if the result has the same columns in the same order, otherwise build them from the metadata.
+     *
+     * @return The column labels.
+     */
+    private ColumnLabels loadLabels() {
+        try {
+            var metaData = this.resultSet.getMetaData();
+            var shared = this.statement == null ? null : this.statement.getColumnLabels();
+            if (shared != null && shared.matches(metaData)) {
+                return shared;
+            }
+            var loaded = ColumnLabels.of(metaData);
+            if (this.statement != null) {
+                this.statement.setColumnLabels(loaded);
+            }
+            return loaded;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     @Override
@@ -241,7 +324,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final String getString(String columnLabel) {
         try {
-            return this.resultSet.getString(columnLabel);
+            return this.resultSet.getString(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -250,7 +333,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final boolean getBoolean(String columnLabel) {
         try {
-            return this.resultSet.getBoolean(columnLabel);
+            return this.resultSet.getBoolean(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -259,7 +342,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final byte getByte(String columnLabel) {
         try {
-            return this.resultSet.getByte(columnLabel);
+            return this.resultSet.getByte(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -268,7 +351,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final short getShort(String columnLabel) {
         try {
-            return this.resultSet.getShort(columnLabel);
+            return this.resultSet.getShort(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -277,7 +360,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final int getInt(String columnLabel) {
         try {
-            return this.resultSet.getInt(columnLabel);
+            return this.resultSet.getInt(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -286,7 +369,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final long getLong(String columnLabel) {
         try {
-            return this.resultSet.getLong(columnLabel);
+            return this.resultSet.getLong(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -295,7 +378,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final float getFloat(String columnLabel) {
         try {
-            return this.resultSet.getFloat(columnLabel);
+            return this.resultSet.getFloat(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -304,7 +387,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final double getDouble(String columnLabel) {
         try {
-            return this.resultSet.getDouble(columnLabel);
+            return this.resultSet.getDouble(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -314,7 +397,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final BigDecimal getBigDecimal(String columnLabel, int scale) {
         try {
-            return this.resultSet.getBigDecimal(columnLabel, scale);
+            return this.resultSet.getBigDecimal(this.column(columnLabel), scale);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -323,7 +406,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final byte[] getBytes(String columnLabel) {
         try {
-            return this.resultSet.getBytes(columnLabel);
+            return this.resultSet.getBytes(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -332,7 +415,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Date getDate(String columnLabel) {
         try {
-            return this.resultSet.getDate(columnLabel);
+            return this.resultSet.getDate(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -341,7 +424,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Time getTime(String columnLabel) {
         try {
-            return this.resultSet.getTime(columnLabel);
+            return this.resultSet.getTime(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -350,7 +433,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Timestamp getTimestamp(String columnLabel) {
         try {
-            return this.resultSet.getTimestamp(columnLabel);
+            return this.resultSet.getTimestamp(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -359,7 +442,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final InputStream getAsciiStream(String columnLabel) {
         try {
-            return this.resultSet.getAsciiStream(columnLabel);
+            return this.resultSet.getAsciiStream(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -369,7 +452,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final InputStream getUnicodeStream(String columnLabel) {
         try {
-            return this.resultSet.getUnicodeStream(columnLabel);
+            return this.resultSet.getUnicodeStream(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -378,7 +461,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final InputStream getBinaryStream(String columnLabel) {
         try {
-            return this.resultSet.getBinaryStream(columnLabel);
+            return this.resultSet.getBinaryStream(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -432,7 +515,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Object getObject(String columnLabel) {
         try {
-            return this.resultSet.getObject(columnLabel);
+            return this.resultSet.getObject(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -459,7 +542,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Reader getCharacterStream(String columnLabel) {
         try {
-            return this.resultSet.getCharacterStream(columnLabel);
+            return this.resultSet.getCharacterStream(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -477,7 +560,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final BigDecimal getBigDecimal(String columnLabel) {
         try {
-            return this.resultSet.getBigDecimal(columnLabel);
+            return this.resultSet.getBigDecimal(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -846,7 +929,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateNull(String columnLabel) {
         try {
-            this.resultSet.updateNull(columnLabel);
+            this.resultSet.updateNull(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -855,7 +938,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateBoolean(String columnLabel, boolean x) {
         try {
-            this.resultSet.updateBoolean(columnLabel, x);
+            this.resultSet.updateBoolean(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -864,7 +947,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateByte(String columnLabel, byte x) {
         try {
-            this.resultSet.updateByte(columnLabel, x);
+            this.resultSet.updateByte(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -873,7 +956,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateShort(String columnLabel, short x) {
         try {
-            this.resultSet.updateShort(columnLabel, x);
+            this.resultSet.updateShort(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -882,7 +965,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateInt(String columnLabel, int x) {
         try {
-            this.resultSet.updateInt(columnLabel, x);
+            this.resultSet.updateInt(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -891,7 +974,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateLong(String columnLabel, long x) {
         try {
-            this.resultSet.updateLong(columnLabel, x);
+            this.resultSet.updateLong(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -900,7 +983,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateFloat(String columnLabel, float x) {
         try {
-            this.resultSet.updateFloat(columnLabel, x);
+            this.resultSet.updateFloat(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -909,7 +992,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateDouble(String columnLabel, double x) {
         try {
-            this.resultSet.updateDouble(columnLabel, x);
+            this.resultSet.updateDouble(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -918,7 +1001,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateBigDecimal(String columnLabel, BigDecimal x) {
         try {
-            this.resultSet.updateBigDecimal(columnLabel, x);
+            this.resultSet.updateBigDecimal(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -927,7 +1010,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateString(String columnLabel, String x) {
         try {
-            this.resultSet.updateString(columnLabel, x);
+            this.resultSet.updateString(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -936,7 +1019,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateBytes(String columnLabel, byte[] x) {
         try {
-            this.resultSet.updateBytes(columnLabel, x);
+            this.resultSet.updateBytes(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -945,7 +1028,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateDate(String columnLabel, Date x) {
         try {
-            this.resultSet.updateDate(columnLabel, x);
+            this.resultSet.updateDate(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -954,7 +1037,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateTime(String columnLabel, Time x) {
         try {
-            this.resultSet.updateTime(columnLabel, x);
+            this.resultSet.updateTime(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -963,7 +1046,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateTimestamp(String columnLabel, Timestamp x) {
         try {
-            this.resultSet.updateTimestamp(columnLabel, x);
+            this.resultSet.updateTimestamp(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -972,7 +1055,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateAsciiStream(String columnLabel, InputStream x, int length) {
         try {
-            this.resultSet.updateAsciiStream(columnLabel, x, length);
+            this.resultSet.updateAsciiStream(this.column(columnLabel), x, length);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -981,7 +1064,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateBinaryStream(String columnLabel, InputStream x, int length) {
         try {
-            this.resultSet.updateBinaryStream(columnLabel, x, length);
+            this.resultSet.updateBinaryStream(this.column(columnLabel), x, length);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -990,7 +1073,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateCharacterStream(String columnLabel, Reader reader, int length) {
         try {
-            this.resultSet.updateCharacterStream(columnLabel, reader, length);
+            this.resultSet.updateCharacterStream(this.column(columnLabel), reader, length);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -999,7 +1082,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateObject(String columnLabel, Object x, int scaleOrLength) {
         try {
-            this.resultSet.updateObject(columnLabel, x, scaleOrLength);
+            this.resultSet.updateObject(this.column(columnLabel), x, scaleOrLength);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1008,7 +1091,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateObject(String columnLabel, Object x) {
         try {
-            this.resultSet.updateObject(columnLabel, x);
+            this.resultSet.updateObject(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1134,7 +1217,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Object getObject(String columnLabel, Map<String, Class<?>> map) {
         try {
-            return this.resultSet.getObject(columnLabel, map);
+            return this.resultSet.getObject(this.column(columnLabel), map);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1143,7 +1226,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Ref getRef(String columnLabel) {
         try {
-            return this.resultSet.getRef(columnLabel);
+            return this.resultSet.getRef(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1152,7 +1235,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Blob getBlob(String columnLabel) {
         try {
-            return this.resultSet.getBlob(columnLabel);
+            return this.resultSet.getBlob(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1161,7 +1244,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Clob getClob(String columnLabel) {
         try {
-            return this.resultSet.getClob(columnLabel);
+            return this.resultSet.getClob(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1170,7 +1253,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Array getArray(String columnLabel) {
         try {
-            return this.resultSet.getArray(columnLabel);
+            return this.resultSet.getArray(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1188,7 +1271,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Date getDate(String columnLabel, Calendar cal) {
         try {
-            return this.resultSet.getDate(columnLabel, cal);
+            return this.resultSet.getDate(this.column(columnLabel), cal);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1206,7 +1289,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Time getTime(String columnLabel, Calendar cal) {
         try {
-            return this.resultSet.getTime(columnLabel, cal);
+            return this.resultSet.getTime(this.column(columnLabel), cal);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1224,7 +1307,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Timestamp getTimestamp(String columnLabel, Calendar cal) {
         try {
-            return this.resultSet.getTimestamp(columnLabel, cal);
+            return this.resultSet.getTimestamp(this.column(columnLabel), cal);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1242,7 +1325,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final URL getURL(String columnLabel) {
         try {
-            return this.resultSet.getURL(columnLabel);
+            return this.resultSet.getURL(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1260,7 +1343,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateRef(String columnLabel, Ref x) {
         try {
-            this.resultSet.updateRef(columnLabel, x);
+            this.resultSet.updateRef(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1278,7 +1361,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateBlob(String columnLabel, Blob x) {
         try {
-            this.resultSet.updateBlob(columnLabel, x);
+            this.resultSet.updateBlob(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1296,7 +1379,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateClob(String columnLabel, Clob x) {
         try {
-            this.resultSet.updateClob(columnLabel, x);
+            this.resultSet.updateClob(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1314,7 +1397,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateArray(String columnLabel, Array x) {
         try {
-            this.resultSet.updateArray(columnLabel, x);
+            this.resultSet.updateArray(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1332,7 +1415,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final RowId getRowId(String columnLabel) {
         try {
-            return this.resultSet.getRowId(columnLabel);
+            return this.resultSet.getRowId(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1350,7 +1433,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateRowId(String columnLabel, RowId x) {
         try {
-            this.resultSet.updateRowId(columnLabel, x);
+            this.resultSet.updateRowId(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1386,7 +1469,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateNString(String columnLabel, String nString) {
         try {
-            this.resultSet.updateNString(columnLabel, nString);
+            this.resultSet.updateNString(this.column(columnLabel), nString);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1404,7 +1487,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateNClob(String columnLabel, NClob nClob) {
         try {
-            this.resultSet.updateNClob(columnLabel, nClob);
+            this.resultSet.updateNClob(this.column(columnLabel), nClob);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1422,7 +1505,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final NClob getNClob(String columnLabel) {
         try {
-            return this.resultSet.getNClob(columnLabel);
+            return this.resultSet.getNClob(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1440,7 +1523,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final SQLXML getSQLXML(String columnLabel) {
         try {
-            return this.resultSet.getSQLXML(columnLabel);
+            return this.resultSet.getSQLXML(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1458,7 +1541,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateSQLXML(String columnLabel, SQLXML xmlObject) {
         try {
-            this.resultSet.updateSQLXML(columnLabel, xmlObject);
+            this.resultSet.updateSQLXML(this.column(columnLabel), xmlObject);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1476,7 +1559,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final String getNString(String columnLabel) {
         try {
-            return this.resultSet.getNString(columnLabel);
+            return this.resultSet.getNString(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1494,7 +1577,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final Reader getNCharacterStream(String columnLabel) {
         try {
-            return this.resultSet.getNCharacterStream(columnLabel);
+            return this.resultSet.getNCharacterStream(this.column(columnLabel));
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1512,7 +1595,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateNCharacterStream(String columnLabel, Reader reader, long length) {
         try {
-            this.resultSet.updateNCharacterStream(columnLabel, reader, length);
+            this.resultSet.updateNCharacterStream(this.column(columnLabel), reader, length);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1548,7 +1631,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateAsciiStream(String columnLabel, InputStream x, long length) {
         try {
-            this.resultSet.updateAsciiStream(columnLabel, x, length);
+            this.resultSet.updateAsciiStream(this.column(columnLabel), x, length);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1557,7 +1640,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateBinaryStream(String columnLabel, InputStream x, long length) {
         try {
-            this.resultSet.updateBinaryStream(columnLabel, x, length);
+            this.resultSet.updateBinaryStream(this.column(columnLabel), x, length);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1566,7 +1649,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateCharacterStream(String columnLabel, Reader reader, long length) {
         try {
-            this.resultSet.updateCharacterStream(columnLabel, reader, length);
+            this.resultSet.updateCharacterStream(this.column(columnLabel), reader, length);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1584,7 +1667,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateBlob(String columnLabel, InputStream inputStream, long length) {
         try {
-            this.resultSet.updateBlob(columnLabel, inputStream, length);
+            this.resultSet.updateBlob(this.column(columnLabel), inputStream, length);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1602,7 +1685,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateClob(String columnLabel, Reader reader, long length) {
         try {
-            this.resultSet.updateClob(columnLabel, reader, length);
+            this.resultSet.updateClob(this.column(columnLabel), reader, length);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1620,7 +1703,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateNClob(String columnLabel, Reader reader, long length) {
         try {
-            this.resultSet.updateNClob(columnLabel, reader, length);
+            this.resultSet.updateNClob(this.column(columnLabel), reader, length);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1638,7 +1721,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateNCharacterStream(String columnLabel, Reader reader) {
         try {
-            this.resultSet.updateNCharacterStream(columnLabel, reader);
+            this.resultSet.updateNCharacterStream(this.column(columnLabel), reader);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1674,7 +1757,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateAsciiStream(String columnLabel, InputStream x) {
         try {
-            this.resultSet.updateAsciiStream(columnLabel, x);
+            this.resultSet.updateAsciiStream(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1683,7 +1766,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateBinaryStream(String columnLabel, InputStream x) {
         try {
-            this.resultSet.updateBinaryStream(columnLabel, x);
+            this.resultSet.updateBinaryStream(this.column(columnLabel), x);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1692,7 +1775,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateCharacterStream(String columnLabel, Reader reader) {
         try {
-            this.resultSet.updateCharacterStream(columnLabel, reader);
+            this.resultSet.updateCharacterStream(this.column(columnLabel), reader);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1710,7 +1793,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateBlob(String columnLabel, InputStream inputStream) {
         try {
-            this.resultSet.updateBlob(columnLabel, inputStream);
+            this.resultSet.updateBlob(this.column(columnLabel), inputStream);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1728,7 +1811,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateClob(String columnLabel, Reader reader) {
         try {
-            this.resultSet.updateClob(columnLabel, reader);
+            this.resultSet.updateClob(this.column(columnLabel), reader);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1746,7 +1829,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateNClob(String columnLabel, Reader reader) {
         try {
-            this.resultSet.updateNClob(columnLabel, reader);
+            this.resultSet.updateNClob(this.column(columnLabel), reader);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1764,7 +1847,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final <T> T getObject(String columnLabel, Class<T> type) {
         try {
-            return this.resultSet.getObject(columnLabel, type);
+            return this.resultSet.getObject(this.column(columnLabel), type);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1782,7 +1865,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateObject(String columnLabel, Object x, SQLType targetSqlType, int scaleOrLength) {
         try {
-            this.resultSet.updateObject(columnLabel, x, targetSqlType, scaleOrLength);
+            this.resultSet.updateObject(this.column(columnLabel), x, targetSqlType, scaleOrLength);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
@@ -1800,7 +1883,7 @@ public class WrappedResultSet implements ResultSet {
     @Override
     public final void updateObject(String columnLabel, Object x, SQLType targetSqlType) {
         try {
-            this.resultSet.updateObject(columnLabel, x, targetSqlType);
+            this.resultSet.updateObject(this.column(columnLabel), x, targetSqlType);
         } catch (SQLException e) {
             throw new IllegalStateException(e);
         }
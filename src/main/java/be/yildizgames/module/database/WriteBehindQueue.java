@@ -0,0 +1,552 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Buffer writes and execute them later as a single batch, in a single transaction.
+ * Writes for a same key made before the next flush are collapsed, only the last one is executed.
+ * Pending writes are flushed at a fixed interval, or as soon as their number reaches a threshold.
+ * The number of pending writes is bounded, callers submitting a new key to a full buffer wait for the next flush.
+ * If a flush fails on a data error, its writes are retried one by one on a single connection so a single failing row does not block the others.
+ * The failing writes are put back in the buffer unless a newer write was submitted for their key, and are retried at the next flush.
+ * A write failing too many times, or that cannot be put back because the buffer is full again, is given to a dead letter handler.
+ * If a flush fails because the database cannot be reached, the whole batch is put back without counting as a failed attempt for its writes,
+ * and the scheduled flushes are delayed, doubling the delay at every consecutive failure up to 64 intervals.
+ *
+ * @param <K> Type of the key identifying the written row.
+ * @param <T> Type of the written objects.
+ * @author Grégory Van den Borre
+ */
+public final class WriteBehindQueue<K, T> implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(WriteBehindQueue.class.getName());
+
+    /**
+     * SQL state class of the connection exceptions.
+     */
+    private static final String CONNECTION_EXCEPTION = "08";
+
+    /**
+     * Maximum number of times the scheduled flushes interval is doubled after connection failures.
+     */
+    private static final int MAX_BACKOFF_SHIFT = 6;
+
+    private final DataBaseConnectionProvider provider;
+
+    private final QueryExecutor executor;
+
+    private final String query;
+
+    private final ItemBinder<T> binder;
+
+    private final Function<T, K> keyOf;
+
+    private final int maxPending;
+
+    private final long intervalNanos;
+
+    private final int flushThreshold;
+
+    /**
+     * Number of flushes a write can fail before being given to the dead letter handler.
+     */
+    private final int maxAttempts;
+
+    /**
+     * Handler receiving the writes dropped after failing, with their last failure.
+     */
+    private final BiConsumer<T, RuntimeException> deadLetter;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notFull = this.lock.newCondition();
+
+    /**
+     * Only one flush at a time, so writes for a same key are executed in submission order.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Pending writes by key, guarded by the lock.
+     */
+    private LinkedHashMap<K, T> pending = new LinkedHashMap<>();
+
+    /**
+     * Number of failed flushes of the pending writes that already failed, by key, guarded by the lock.
+     */
+    private final Map<K, Integer> attempts = new HashMap<>();
+
+    /**
+     * <code>true</code> if a flush was requested because the threshold was reached, guarded by the lock.
+     */
+    private boolean flushRequested;
+
+    private boolean closed;
+
+    /**
+     * Number of consecutive flushes that failed to reach the database, guarded by the flush lock.
+     */
+    private int connectionFailures;
+
+    /**
+     * Time before which scheduled flushes are skipped after a connection failure.
+     */
+    private volatile long retryAt;
+
+    private final LongAdder submitted = new LongAdder();
+
+    private final LongAdder collapsed = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder flushes = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder deadLetters = new LongAdder();
+
+    /**
+     * Create a new queue and start its scheduled flushes.
+     * A write is given up after failing in 3 flushes, and is then only logged.
+     *
+     * @param provider Provider for the connections.
+     * @param query Statement executed for every write, with a ? for every parameter.
+     * @param binder Binder setting the parameters of a single write.
+     * @param keyOf Function providing the key of a written object, writes with the same key are collapsed.
+     * @param maxPending Maximum number of pending writes.
+     * @param flushThreshold Number of pending writes triggering a flush before the interval.
+     * @param interval Time between two scheduled flushes.
+     * @throws IllegalArgumentException If a size is not positive, the threshold is greater than the maximum or the interval is not positive.
+     */
+    public WriteBehindQueue(DataBaseConnectionProvider provider, String query, ItemBinder<T> binder, Function<T, K> keyOf,
+                            int maxPending, int flushThreshold, Duration interval) {
+        this(provider, query, binder, keyOf, maxPending, flushThreshold, interval, 3, (object, e) ->
+                LOGGER.log(System.Logger.Level.ERROR, "Write behind write dropped: " + object, e));
+    }
+
+    /**
+     * Create a new queue and start its scheduled flushes.
+     *
+     * @param provider Provider for the connections.
+     * @param query Statement executed for every write, with a ? for every parameter.
+     * @param binder Binder setting the parameters of a single write.
+     * @param keyOf Function providing the key of a written object, writes with the same key are collapsed.
+     * @param maxPending Maximum number of pending writes.
+     * @param flushThreshold Number of pending writes triggering a flush before the interval.
+     * @param interval Time between two scheduled flushes.
+     * @param maxAttempts Number of flushes a write can fail before being given to the dead letter handler.
+     * @param deadLetter Handler receiving the dropped writes with their last failure, called from the flushing thread.
+     * @throws IllegalArgumentException If a size or the number of attempts is not positive, the threshold is greater than the maximum or the interval is not positive.
+     */
+    public WriteBehindQueue(DataBaseConnectionProvider provider, String query, ItemBinder<T> binder, Function<T, K> keyOf,
+                            int maxPending, int flushThreshold, Duration interval, int maxAttempts, BiConsumer<T, RuntimeException> deadLetter) {
+        super();
+        if (flushThreshold < 1 || maxPending < flushThreshold) {
+            throw new IllegalArgumentException("Flush threshold must be between 1 and the maximum pending writes, values are " + flushThreshold + " and " + maxPending);
+        }
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive, value is " + interval);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Maximum attempts must be at least 1, value is " + maxAttempts);
+        }
+        this.provider = provider;
+        this.executor = new QueryExecutor(provider);
+        this.query = query;
+        this.binder = binder;
+        this.keyOf = keyOf;
+        this.maxPending = maxPending;
+        this.flushThreshold = flushThreshold;
+        this.maxAttempts = maxAttempts;
+        this.deadLetter = deadLetter;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("write-behind").factory());
+        this.intervalNanos = interval.toNanos();
+        this.scheduler.scheduleWithFixedDelay(this::scheduledFlush, this.intervalNanos, this.intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Submit a write, replacing any pending write with the same key.
+     * If the buffer is full and has no pending write for the key, wait until a flush makes room.
+     *
+     * @param object Object to write.
+     * @throws IllegalStateException If the queue is closed, or the thread is interrupted while waiting.
+     */
+    public void submit(T object) {
+        this.submit(object, Long.MAX_VALUE);
+    }
+
+    /**
+     * Submit a write, replacing any pending write with the same key.
+     * If the buffer is full and has no pending write for the key, wait until a flush makes room, at most for the given time.
+     *
+     * @param object Object to write.
+     * @param timeout Maximum time to wait for room in the buffer.
+     * @return true if the write was accepted, false if the buffer stayed full.
+     * @throws IllegalStateException If the queue is closed, or the thread is interrupted while waiting.
+     */
+    public boolean submit(T object, Duration timeout) {
+        return this.submit(object, timeout.toNanos());
+    }
+
+    private boolean submit(T object, long timeoutNanos) {
+        var key = this.keyOf.apply(object);
+        long nanos = timeoutNanos;
+        this.lock.lock();
+        try {
+            while (!this.closed && this.pending.size() >= this.maxPending && !this.pending.containsKey(key)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = this.notFull.awaitNanos(nanos);
+            }
+            if (this.closed) {
+                throw new IllegalStateException("Write behind queue is closed.");
+            }
+            this.submitted.increment();
+            if (this.pending.put(key, object) != null) {
+                this.collapsed.increment();
+            }
+            if (!this.attempts.isEmpty()) {
+                this.attempts.remove(key);
+            }
+            if (this.pending.size() >= this.flushThreshold && !this.flushRequested) {
+                this.flushRequested = true;
+                this.scheduler.execute(this::scheduledFlush);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room in the write behind queue.", e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Execute all the pending writes now, even while the scheduled flushes are delayed after a connection failure.
+     * If the batch fails on a data error, its writes are executed one by one, and only the failing ones are kept to be retried.
+     * If the batch fails because the database cannot be reached, all its writes are kept to be retried.
+     *
+     * @throws IllegalStateException If some writes failed, with the failure of the first one.
+     */
+    public void flush() {
+        this.flushLock.lock();
+        try {
+            Map<K, T> batch;
+            this.lock.lock();
+            try {
+                this.flushRequested = false;
+                if (this.pending.isEmpty()) {
+                    return;
+                }
+                batch = this.pending;
+                this.pending = new LinkedHashMap<>();
+                this.notFull.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+            try {
+                this.executor.executeBatch(this.query, new ArrayList<>(batch.values()), this.binder, batch.size());
+                this.written.add(batch.size());
+                this.flushes.increment();
+            } catch (RuntimeException e) {
+                this.failures.increment();
+                if (isConnectionFailure(e)) {
+                    this.requeue(batch, e);
+                } else {
+                    this.isolate(batch);
+                }
+                return;
+            }
+            this.connectionFailures = 0;
+            this.retryAt = 0;
+            this.forgetAttempts(batch.keySet());
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stop the scheduled flushes and execute the pending writes, no write can be submitted after.
+     *
+     * @throws IllegalStateException If the last writes failed.
+     */
+    @Override
+    public void close() {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        this.scheduler.close();
+        this.flush();
+    }
+
+    public int getPendingCount() {
+        this.lock.lock();
+        try {
+            return this.pending.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public long getSubmitted() {
+        return this.submitted.sum();
+    }
+
+    /**
+     * @return The number of writes replaced by a later write with the same key before being flushed.
+     */
+    public long getCollapsed() {
+        return this.collapsed.sum();
+    }
+
+    /**
+     * @return The number of writes executed.
+     */
+    public long getWritten() {
+        return this.written.sum();
+    }
+
+    public long getFlushes() {
+        return this.flushes.sum();
+    }
+
+    /**
+     * @return The number of flushes whose batch failed.
+     */
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    /**
+     * @return The number of writes given to the dead letter handler.
+     */
+    public long getDeadLetters() {
+        return this.deadLetters.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "submitted: " + this.getSubmitted() + ", collapsed: " + this.getCollapsed() + ", written: " + this.getWritten()
+                + ", flushes: " + this.getFlushes() + ", failures: " + this.getFailures() + ", dead letters: " + this.getDeadLetters();
+    }
+
+    private void scheduledFlush() {
+        if (System.nanoTime() - this.retryAt < 0) {
+            return;
+        }
+        try {
+            this.flush();
+        } catch (RuntimeException e) {
+            LOGGER.log(System.Logger.Level.ERROR, "Write behind flush failed, writes will be retried.", e);
+        }
+    }
+
+    /**
+     * Put back all the writes of a batch that failed to reach the database, and delay the scheduled flushes.
+     *
+     * @param batch Writes of the failed batch.
+     * @param error Connection failure.
+     * @throws RuntimeException The connection failure.
+     */
+    private void requeue(Map<K, T> batch, RuntimeException error) {
+        this.connectionFailures++;
+        this.retryAt = System.nanoTime() + (this.intervalNanos << Math.min(this.connectionFailures - 1, MAX_BACKOFF_SHIFT));
+        this.giveUp(this.restore(batch, false), batch, Map.of(), error);
+        throw error;
+    }
+
+    /**
+     * Execute the writes of a failed batch one by one on a single connection, put back the failing ones and give up on the ones failing too often.
+     * If the connection fails, the writes not executed yet are put back like after a batch connection failure.
+     *
+     * @param batch Writes of the failed batch.
+     * @throws IllegalStateException If some writes failed, with the failure of the first one.
+     */
+    private void isolate(Map<K, T> batch) {
+        Map<K, T> failed = new LinkedHashMap<>();
+        Map<K, RuntimeException> errors = new HashMap<>();
+        List<K> succeeded = new ArrayList<>();
+        Map<K, T> remaining = new LinkedHashMap<>(batch);
+        try (var c = this.provider.getConnection(); var pstmt = WrappedPreparedStatement.create(c.prepareStatement(this.query))) {
+            boolean autoCommit = c.getAutoCommit();
+            c.setAutoCommit(true);
+            try {
+                for (var write : batch.entrySet()) {
+                    long start = System.nanoTime();
+                    try {
+                        pstmt.clearParameters();
+                        this.binder.bind(pstmt, write.getValue());
+                        pstmt.executeUpdate();
+                        this.provider.getMetrics().recordQuery(this.query, System.nanoTime() - start, 1);
+                        this.written.increment();
+                        succeeded.add(write.getKey());
+                    } catch (RuntimeException e) {
+                        this.provider.getMetrics().recordQueryError();
+                        if (isConnectionFailure(e)) {
+                            throw e;
+                        }
+                        failed.put(write.getKey(), write.getValue());
+                        errors.put(write.getKey(), e);
+                    }
+                    remaining.remove(write.getKey());
+                }
+            } finally {
+                c.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | RuntimeException e) {
+            var error = e instanceof RuntimeException re ? re : new IllegalStateException(e);
+            if (!remaining.isEmpty() && isConnectionFailure(error)) {
+                this.invalidate(succeeded);
+                this.giveUp(this.restore(failed, true), failed, errors, error);
+                this.requeue(remaining, error);
+            }
+            for (var key : remaining.keySet()) {
+                errors.put(key, error);
+            }
+            failed.putAll(remaining);
+        }
+        this.invalidate(succeeded);
+        if (failed.isEmpty()) {
+            return;
+        }
+        this.giveUp(this.restore(failed, true), failed, errors, null);
+        throw errors.get(failed.keySet().iterator().next());
+    }
+
+    /**
+     * Forget the attempts of the executed writes and invalidate the results cached by the provider.
+     *
+     * @param succeeded Keys of the executed writes.
+     */
+    private void invalidate(List<K> succeeded) {
+        this.forgetAttempts(succeeded);
+        if (!succeeded.isEmpty()) {
+            this.provider.invalidateResults(this.query);
+        }
+    }
+
+    /**
+     * Give the writes that cannot be retried to the dead letter handler.
+     *
+     * @param dropped Keys of the writes that cannot be retried.
+     * @param writes Writes, by key.
+     * @param errors Failure of each write, by key.
+     * @param error Failure for the writes without their own.
+     */
+    private void giveUp(List<K> dropped, Map<K, T> writes, Map<K, RuntimeException> errors, RuntimeException error) {
+        for (var key : dropped) {
+            this.deadLetters.increment();
+            try {
+                this.deadLetter.accept(writes.get(key), errors.getOrDefault(key, error));
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.ERROR, "Write behind dead letter handler failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Check if a failure comes from the connection to the database rather than from the written data.
+     *
+     * @param e Failure to check.
+     * @return true if the failure, or one of its causes, is a connection exception.
+     */
+    private static boolean isConnectionFailure(Throwable e) {
+        for (var cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith(CONNECTION_EXCEPTION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Put back the failed writes, before the writes submitted since, and without replacing them or exceeding the maximum pending writes.
+     *
+     * @param failed Writes to put back.
+     * @param attempt true to count a failed attempt for the writes, false if they were not at fault.
+     * @return The keys of the writes that cannot be retried, because they failed too many times or the buffer is full.
+     */
+    private List<K> restore(Map<K, T> failed, boolean attempt) {
+        List<K> dropped = new ArrayList<>();
+        this.lock.lock();
+        try {
+            var merged = new LinkedHashMap<K, T>();
+            int room = this.maxPending - this.pending.size();
+            for (var write : failed.entrySet()) {
+                var key = write.getKey();
+                if (this.pending.containsKey(key)) {
+                    continue;
+                }
+                int count = attempt ? this.attempts.merge(key, 1, Integer::sum) : this.attempts.getOrDefault(key, 0);
+                if (count >= this.maxAttempts || room == 0) {
+                    this.attempts.remove(key);
+                    dropped.add(key);
+                } else {
+                    merged.put(key, write.getValue());
+                    room--;
+                }
+            }
+            merged.putAll(this.pending);
+            this.pending = merged;
+        } finally {
+            this.lock.unlock();
+        }
+        return dropped;
+    }
+
+    /**
+     * Forget the failed attempts of written keys.
+     *
+     * @param written Keys of the executed writes.
+     */
+    private void forgetAttempts(Collection<K> written) {
+        this.lock.lock();
+        try {
+            if (!this.attempts.isEmpty()) {
+                this.attempts.keySet().removeAll(written);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
@@ -25,6 +25,8 @@
 open module be.yildizgames.module.database {
 
     requires java.sql;
+    requires java.management;
+    requires jdk.jfr;
 
     exports be.yildizgames.module.database;
 
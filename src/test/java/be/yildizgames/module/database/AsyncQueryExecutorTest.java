@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import be.yildizgames.module.database.dummy.DummyDbProperties;
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class AsyncQueryExecutorTest {
+
+    private static final TableSchema ITEM = TableSchema.createWithId("item",
+            TableSchemaColumn.integer("id"),
+            TableSchemaColumn.varchar("name", 20));
+
+    private PooledConnectionProvider provider;
+
+    private AsyncQueryExecutor executor;
+
+    @BeforeEach
+    void init() throws SQLException {
+        this.provider = new PooledConnectionProvider(new DummyMemorySystem("async-query-executor"), new DummyDbProperties("async-query-executor", 2), false);
+        this.executor = new AsyncQueryExecutor(this.provider);
+        var queryExecutor = new QueryExecutor(this.provider);
+        queryExecutor.dropTables(ITEM);
+        queryExecutor.createTableIfNotExists(ITEM);
+        try (var c = this.provider.getConnection(); var stmt = c.createStatement()) {
+            for (int i = 1; i <= 10; i++) {
+                stmt.execute("INSERT INTO item VALUES (" + i + ", 'item" + i + "')");
+            }
+        }
+    }
+
+    @AfterEach
+    void close() {
+        this.executor.close();
+        this.provider.close();
+    }
+
+    @Nested
+    class Select {
+
+        @Test
+        void happyFlow() throws Exception {
+            var result = executor.select("SELECT name FROM item WHERE id = ?", s -> s.setInt(1, 3), rs -> rs.getString(1));
+            assertEquals(List.of("item3"), result.get(5, TimeUnit.SECONDS));
+        }
+
+        @Test
+        void invalidQuery() {
+            var result = executor.select("SELECT missing FROM item", rs -> rs.getString(1));
+            var e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+
+        @Test
+        void inFlightBoundedToPoolSize() throws Exception {
+            // Every query holds its connection longer than the pool acquire timeout.
+            List<CompletableFuture<List<String>>> futures = IntStream.range(0, 6)
+                    .mapToObj(i -> executor.select("SELECT name FROM item WHERE id = ?", s -> {
+                        sleep(600);
+                        s.setInt(1, 1);
+                    }, rs -> rs.getString(1)))
+                    .toList();
+            for (var future : futures) {
+                assertEquals(List.of("item1"), future.get(30, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Nested
+    class Update {
+
+        @Test
+        void happyFlow() throws Exception {
+            var result = executor.update("UPDATE item SET name = ? WHERE id > ?", s -> {
+                s.setString(1, "updated");
+                s.setInt(2, 5);
+            });
+            assertEquals(5, result.get(5, TimeUnit.SECONDS));
+        }
+
+        @Test
+        void queryExecution() throws Exception {
+            QueryExecution<Integer> delete = (s, id) -> {
+                s.setInt(1, id);
+                return s.executeUpdate() == 1;
+            };
+            assertTrue(executor.execute("DELETE FROM item WHERE id = ?", 4, delete).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Nested
+    class Cancel {
+
+        @Test
+        void runningStatement() throws Exception {
+            var result = executor.select("SELECT SUM(X) FROM SYSTEM_RANGE(1, 100000000000)", rs -> rs.getLong(1));
+            sleep(300);
+            assertTrue(result.cancel(true));
+            assertThrows(CancellationException.class, result::join);
+            long limit = System.currentTimeMillis() + 5000;
+            while (provider.getIdleSize() != provider.getSize() && System.currentTimeMillis() < limit) {
+                sleep(10);
+            }
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -24,10 +24,12 @@
  */
 package be.yildizgames.module.database;
 
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -67,6 +69,14 @@ class DatabaseConnectionProviderFactoryTest {
             assertEquals(DataBaseConnectionProvider.DBSystem.POSTGRES, p.getSystem());
         }*/
 
+        @Test
+        void poolByDefault() throws Exception {
+            DatabaseConnectionProviderFactory.getInstance().addSystem("h2-memory", new DummyMemorySystem("factory-pool"));
+            try (DataBaseConnectionProvider p = DatabaseConnectionProviderFactory.getInstance().create(givenADbProperties("h2-memory"))) {
+                assertInstanceOf(PooledConnectionProvider.class, p);
+            }
+        }
+
         @Disabled
         @Test
         void withNull() {
@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+
+import be.yildizgames.module.database.dummy.DummyDbProperties;
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class DatabaseMetricsTest {
+
+    private static final TableSchema ITEM = TableSchema.createWithId("item",
+            TableSchemaColumn.integer("id"));
+
+    private static final String SELECT = "SELECT id FROM item";
+
+    private PooledConnectionProvider provider;
+
+    private QueryExecutor executor;
+
+    @BeforeEach
+    void init() {
+        this.provider = new PooledConnectionProvider(new DummyMemorySystem("metrics"), new DummyDbProperties("metrics", 2), false);
+        this.executor = new QueryExecutor(this.provider);
+        this.executor.dropTables(ITEM);
+        this.executor.createTableIfNotExists(ITEM);
+        this.provider.getMetrics().reset();
+    }
+
+    @AfterEach
+    void close() {
+        this.provider.close();
+    }
+
+    @Nested
+    class Record {
+
+        @Test
+        void queries() {
+            executor.executeBatch("INSERT INTO item (id) VALUES (?)", List.of(1, 2, 3), (s, i) -> {
+                s.setInt(1, i);
+            }, 10);
+            executor.select(SELECT, r -> r.getInt(1));
+            executor.selectInts(SELECT, r -> r.getInt(1));
+            var metrics = provider.getMetrics();
+            assertEquals(3, metrics.getQueryCount());
+            assertEquals(9, metrics.getRowsReturned());
+            assertEquals(1, metrics.getBatchCount());
+            assertEquals(3, metrics.getAverageBatchSize());
+            var select = metrics.getQueryMetrics(SELECT);
+            assertEquals(2, select.getCount());
+            assertEquals(6, select.getRows());
+            assertTrue(select.getMaxMillis() >= select.getP50Millis());
+            assertEquals(SELECT, metrics.getQueryMetrics().stream().filter(q -> q.getCount() == 2).findFirst().orElseThrow().getFingerprint());
+            assertTrue(metrics.getConnectionAcquireCount() >= 3);
+        }
+
+        @Test
+        void errors() {
+            assertThrows(IllegalStateException.class, () -> executor.select("SELECT missing FROM item", r -> r.getInt(1)));
+            assertEquals(1, provider.getMetrics().getQueryErrorCount());
+            assertEquals(0, provider.getMetrics().getQueryCount());
+        }
+
+        @Test
+        void binderErrors() {
+            assertThrows(UnsupportedOperationException.class, () -> executor.select(SELECT, s -> {
+                throw new UnsupportedOperationException("Expected exception");
+            }, r -> r.getInt(1)));
+            assertEquals(1, provider.getMetrics().getQueryErrorCount());
+            assertEquals(0, provider.getMetrics().getQueryCount());
+        }
+
+        @Test
+        void transactions() {
+            var t = new Transaction(provider);
+            t.execute(c -> {});
+            t.execute(c -> {throw new Exception("Expected exception");});
+            assertEquals(1, provider.getMetrics().getCommitCount());
+            assertEquals(1, provider.getMetrics().getRollbackCount());
+        }
+
+        @Test
+        void connections() throws SQLException {
+            try (Connection c = provider.getConnection()) {
+                assertFalse(c.isClosed());
+                assertEquals(1, provider.getMetrics().getActiveConnections());
+            }
+            assertEquals(0, provider.getMetrics().getActiveConnections());
+            assertEquals(1, provider.getMetrics().getIdleConnections());
+        }
+
+        @Test
+        void fingerprintsBounded() {
+            for (int i = 0; i < DatabaseMetrics.MAX_FINGERPRINTS + 10; i++) {
+                provider.getMetrics().recordQuery("SELECT " + i, 10, 1);
+            }
+            assertEquals(DatabaseMetrics.MAX_FINGERPRINTS + 1, provider.getMetrics().getQueryMetrics().size());
+            assertEquals(10, provider.getMetrics().getQueryMetrics(DatabaseMetrics.OTHER).getCount());
+            provider.getMetrics().reset();
+            assertNull(provider.getMetrics().getQueryMetrics(DatabaseMetrics.OTHER));
+        }
+    }
+
+    @Nested
+    class Register {
+
+        @Test
+        void publishedAsMXBean() throws Exception {
+            executor.select(SELECT, r -> r.getInt(1));
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName("be.yildizgames.module.database:type=DatabaseMetrics,name=\"metrics-test\"");
+            provider.getMetrics().register("metrics-test");
+            try {
+                assertEquals(1L, server.getAttribute(name, "QueryCount"));
+                assertEquals(1, ((Object[]) server.getAttribute(name, "QueryMetrics")).length);
+            } finally {
+                provider.getMetrics().unregister();
+            }
+            assertFalse(server.isRegistered(name));
+        }
+    }
+
+    @Nested
+    class Histogram {
+
+        @Test
+        void indexAndBound() {
+            for (long v : new long[]{0, 1, 3, 4, 5, 7, 8, 1000, 123_456_789, Long.MAX_VALUE}) {
+                int index = LatencyHistogram.index(v);
+                assertTrue(LatencyHistogram.upperBound(index) >= v);
+                assertTrue(index == 0 || LatencyHistogram.upperBound(index - 1) < v);
+            }
+        }
+
+        @Test
+        void percentile() {
+            var histogram = new LatencyHistogram();
+            for (int i = 1; i <= 100; i++) {
+                histogram.record(i * 1000L);
+            }
+            assertEquals(100, histogram.getCount());
+            assertEquals(100_000, histogram.getMax());
+            long p50 = histogram.getPercentile(0.5);
+            assertTrue(p50 >= 50_000 && p50 <= 50_000 * 1.25, "p50 " + p50);
+            assertEquals(100_000, histogram.getPercentile(1));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import be.yildizgames.module.database.dummy.DummyDbProperties;
+import be.yildizgames.module.database.dummy.DummyItem;
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class EntityCacheTest {
+
+    private static final TableSchema ITEM = TableSchema.createWithId("item",
+            TableSchemaColumn.integer("id"),
+            TableSchemaColumn.varchar("name", 20));
+
+    private PooledConnectionProvider provider;
+
+    @BeforeEach
+    void init() throws SQLException {
+        this.provider = new PooledConnectionProvider(new DummyMemorySystem("entity-cache"), new DummyDbProperties("entity-cache", 4), false);
+        var executor = new QueryExecutor(this.provider);
+        executor.dropTables(ITEM);
+        executor.createTableIfNotExists(ITEM);
+        executor.executeBatch("INSERT INTO item VALUES (?, ?)", IntStream.rangeClosed(1, 20).boxed().toList(), (s, id) -> {
+            s.setInt(1, id);
+            s.setString(2, "item" + id);
+        }, 20);
+    }
+
+    @AfterEach
+    void close() {
+        this.provider.close();
+    }
+
+    private EntityCache<Integer, DummyItem> cache(RowMapper<DummyItem> mapper, int maxSize, Duration ttl) {
+        return new EntityCache<>(this.provider, ITEM, mapper, DummyItem::id, maxSize, ttl);
+    }
+
+    private EntityCache<Integer, DummyItem> cache() {
+        return this.cache(RowMapper.forRecord(DummyItem.class), 100, Duration.ofMinutes(1));
+    }
+
+    @Nested
+    class FindById {
+
+        @Test
+        void loadedOnce() {
+            var cache = cache();
+            assertEquals(Optional.of(new DummyItem(3, "item3")), cache.findById(3));
+            assertEquals(Optional.of(new DummyItem(3, "item3")), cache.findById(3));
+            assertEquals(1, cache.getQueries());
+            assertEquals(1, cache.getHits());
+        }
+
+        @Test
+        void notFound() {
+            var cache = cache();
+            assertEquals(Optional.empty(), cache.findById(50));
+            assertEquals(0, cache.size());
+        }
+
+        @Test
+        void invalidate() {
+            var cache = cache();
+            cache.findById(3);
+            cache.invalidate(3);
+            cache.findById(3);
+            assertEquals(2, cache.getQueries());
+        }
+
+        @Test
+        void expired() throws InterruptedException {
+            var cache = cache(RowMapper.forRecord(DummyItem.class), 100, Duration.ofMillis(20));
+            cache.findById(3);
+            Thread.sleep(50);
+            cache.findById(3);
+            assertEquals(2, cache.getQueries());
+        }
+
+        @Test
+        void concurrentCallersShareLoad() throws Exception {
+            RowMapper<DummyItem> slow = rs -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new DummyItem(rs.getInt("id"), rs.getString("name"));
+            };
+            var cache = cache(slow, 100, Duration.ofMinutes(1));
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Optional<DummyItem>>> futures = IntStream.range(0, 20).mapToObj(i -> executor.submit(() -> cache.findById(5))).toList();
+                for (var future : futures) {
+                    assertEquals(Optional.of(new DummyItem(5, "item5")), future.get());
+                }
+            }
+            assertEquals(1, cache.getQueries());
+        }
+
+        @Test
+        void concurrentMissesQueryOnce() throws Exception {
+            var cache = cache();
+            try (var executor = Executors.newFixedThreadPool(8)) {
+                for (int round = 0; round < 50; round++) {
+                    cache.invalidateAll();
+                    var start = new CountDownLatch(1);
+                    List<Future<Optional<DummyItem>>> futures = IntStream.range(0, 8).mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return cache.findById(7);
+                    })).toList();
+                    start.countDown();
+                    for (var future : futures) {
+                        assertEquals(Optional.of(new DummyItem(7, "item7")), future.get());
+                    }
+                }
+            }
+            assertEquals(50, cache.getQueries());
+        }
+    }
+
+    @Nested
+    class Invalidation {
+
+        @Test
+        void update() {
+            var cache = cache();
+            cache.findById(3);
+            new QueryExecutor(provider).update("UPDATE item SET name = ? WHERE id = ?", s -> {
+                s.setString(1, "renamed");
+                s.setInt(2, 3);
+            });
+            assertEquals(Optional.of(new DummyItem(3, "renamed")), cache.findById(3));
+        }
+
+        @Test
+        void otherTable() {
+            var executor = new QueryExecutor(provider);
+            executor.update("CREATE TABLE IF NOT EXISTS other (id INT)", ParameterBinder.NONE);
+            var cache = cache();
+            cache.findById(3);
+            executor.update("DELETE FROM other WHERE id = 1", ParameterBinder.NONE);
+            cache.findById(3);
+            assertEquals(1, cache.getQueries());
+        }
+
+        @Test
+        void transaction() {
+            var cache = cache();
+            cache.findById(3);
+            new Transaction(provider).execute(c -> {
+                try (var s = c.prepareStatement("UPDATE item SET name = 'renamed' WHERE id = 3")) {
+                    s.executeUpdate();
+                }
+            });
+            assertEquals(Optional.of(new DummyItem(3, "renamed")), cache.findById(3));
+        }
+
+        @Test
+        void closed() {
+            var cache = cache();
+            cache.findById(3);
+            cache.close();
+            new QueryExecutor(provider).update("UPDATE item SET name = 'renamed' WHERE id = 3", ParameterBinder.NONE);
+            assertEquals(Optional.of(new DummyItem(3, "item3")), cache.findById(3));
+        }
+    }
+
+    @Nested
+    class FindAllById {
+
+        @Test
+        void missesLoadedTogether() {
+            var cache = cache();
+            cache.findById(1);
+            cache.findById(2);
+            Map<Integer, DummyItem> result = cache.findAllById(List.of(1, 2, 3, 4, 5, 99));
+            assertEquals(List.of(1, 2, 3, 4, 5), List.copyOf(result.keySet()).stream().sorted().toList());
+            assertEquals(3, cache.getQueries());
+        }
+
+        @Test
+        void moreThanBatch() {
+            var cache = cache();
+            var ids = IntStream.rangeClosed(1, EntityCache.MAX_BATCH + 1).boxed().toList();
+            assertEquals(20, cache.findAllById(ids).size());
+            assertEquals(2, cache.getQueries());
+        }
+
+        @Test
+        void evictedWhenFull() {
+            var cache = cache(RowMapper.forRecord(DummyItem.class), 10, Duration.ofMinutes(1));
+            cache.findAllById(IntStream.rangeClosed(1, 5).boxed().toList());
+            cache.findById(1);
+            cache.findAllById(IntStream.rangeClosed(6, 20).boxed().toList());
+            assertTrue(cache.size() <= 10);
+        }
+    }
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void queryShapes() {
+            assertEquals("SELECT * FROM item WHERE id IN (?,?,?,?)", cache().query(4));
+        }
+
+        @Test
+        void tableWithoutId() {
+            var table = TableSchema.createWithoutId("item", TableSchemaColumn.integer("id"));
+            assertThrows(IllegalArgumentException.class, () -> new EntityCache<Integer, DummyItem>(provider, table, RowMapper.forRecord(DummyItem.class), DummyItem::id, 10, Duration.ofMinutes(1)));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+
+import be.yildizgames.module.database.dummy.DummyDbProperties;
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class FlightRecorderEventsTest {
+
+    private static final TableSchema ITEM = TableSchema.createWithId("item",
+            TableSchemaColumn.integer("id"));
+
+    private PooledConnectionProvider provider;
+
+    private QueryExecutor executor;
+
+    @BeforeEach
+    void init() {
+        this.provider = new PooledConnectionProvider(new DummyMemorySystem("flight-recorder"), new DummyDbProperties("flight-recorder", 2), false);
+        this.executor = new QueryExecutor(this.provider);
+        this.executor.dropTables(ITEM);
+        this.executor.createTableIfNotExists(ITEM);
+    }
+
+    @AfterEach
+    void close() {
+        this.provider.close();
+    }
+
+    private static List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+        var file = Files.createTempFile("database-events", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable(eventName).withoutStackTrace();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream().filter(e -> e.getEventType().getName().equals(eventName)).toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Nested
+    class Emit {
+
+        @Test
+        void query() throws IOException {
+            var events = record("be.yildizgames.module.database.DatabaseQuery", () -> executor.selectInts("SELECT id FROM item", r -> r.getInt(1)));
+            assertEquals(1, events.size());
+            assertEquals("SELECT id FROM item", events.get(0).getString("sql"));
+            assertEquals(0, events.get(0).getLong("rows"));
+            assertTrue(events.get(0).getBoolean("success"));
+        }
+
+        @Test
+        void asyncQuery() throws IOException {
+            var events = record("be.yildizgames.module.database.DatabaseQuery", () -> {
+                try (var async = new AsyncQueryExecutor(provider)) {
+                    async.select("SELECT id FROM item", r -> r.getInt(1)).join();
+                }
+            });
+            assertEquals(1, events.size());
+            assertTrue(events.get(0).getBoolean("success"));
+        }
+
+        @Test
+        void failedQuery() throws IOException {
+            var events = record("be.yildizgames.module.database.DatabaseQuery", () ->
+                    assertThrows(IllegalStateException.class, () -> executor.selectInts("SELECT missing FROM item", r -> r.getInt(1))));
+            assertEquals(1, events.size());
+            assertFalse(events.get(0).getBoolean("success"));
+        }
+
+        @Test
+        void batch() throws IOException {
+            var events = record("be.yildizgames.module.database.BatchExecute", () -> executor.executeBatch("INSERT INTO item (id) VALUES (?)", List.of(1, 2), (s, i) -> {
+                s.setInt(1, i);
+            }, 10));
+            assertEquals(1, events.size());
+            assertEquals(2, events.get(0).getLong("items"));
+            assertTrue(events.get(0).getBoolean("success"));
+        }
+
+        @Test
+        void failedBatch() throws IOException {
+            var events = record("be.yildizgames.module.database.BatchExecute", () ->
+                    assertThrows(IllegalStateException.class, () -> executor.executeBatch("INSERT INTO item (id) VALUES (?)", List.of(1, 1), (s, i) -> {
+                        s.setInt(1, i);
+                    }, 10)));
+            assertEquals(1, events.size());
+            assertEquals(0, events.get(0).getLong("items"));
+            assertFalse(events.get(0).getBoolean("success"));
+        }
+
+        @Test
+        void transaction() throws IOException {
+            var events = record("be.yildizgames.module.database.DatabaseTransaction", () -> {
+                var t = new Transaction(provider);
+                t.execute(c -> t.execute(n -> {}));
+            });
+            assertEquals(2, events.size());
+            assertTrue(events.stream().allMatch(e -> e.getBoolean("committed")));
+            assertEquals(1, events.stream().filter(e -> e.getBoolean("nested")).count());
+        }
+
+        @Test
+        void connectionAcquire() throws IOException {
+            var events = record("be.yildizgames.module.database.ConnectionAcquire", () -> executor.select("SELECT id FROM item", r -> r.getInt(1)));
+            assertEquals(1, events.size());
+            assertFalse(events.get(0).getString("uri").isEmpty());
+            assertTrue(events.get(0).getBoolean("success"));
+        }
+
+        @Test
+        void failedConnectionAcquire() throws IOException {
+            var closed = new PooledConnectionProvider(new DummyMemorySystem("flight-recorder-closed"), new DummyDbProperties("flight-recorder-closed", 1), false);
+            closed.close();
+            var events = record("be.yildizgames.module.database.ConnectionAcquire", () -> assertThrows(SQLException.class, closed::getConnection));
+            assertEquals(1, events.size());
+            assertFalse(events.get(0).getBoolean("success"));
+        }
+    }
+}
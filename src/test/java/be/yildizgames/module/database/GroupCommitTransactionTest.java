@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+
+import be.yildizgames.module.database.dummy.DummyDatabaseConnectionProvider;
+import be.yildizgames.module.database.dummy.DummyDbProperties;
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
+import be.yildizgames.module.database.dummy.DummySystem;
+import org.h2.Driver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class GroupCommitTransactionTest {
+
+    private static final TableSchema ITEM = TableSchema.createWithId("item",
+            TableSchemaColumn.integer("id"));
+
+    private PooledConnectionProvider provider;
+
+    private QueryExecutor executor;
+
+    @BeforeEach
+    void init() {
+        this.provider = new PooledConnectionProvider(new DummyMemorySystem("group-commit"), new DummyDbProperties("group-commit", 2), false);
+        this.executor = new QueryExecutor(this.provider);
+        this.executor.dropTables(ITEM);
+        this.executor.createTableIfNotExists(ITEM);
+    }
+
+    @AfterEach
+    void close() {
+        this.provider.close();
+    }
+
+    private static TransactionBehavior insert(int id) {
+        return c -> {
+            try (var stmt = c.prepareStatement("INSERT INTO item (id) VALUES (?)")) {
+                stmt.setInt(1, id);
+                stmt.executeUpdate();
+            }
+        };
+    }
+
+    private int count() {
+        return this.executor.selectInts("SELECT id FROM item", r -> r.getInt(1)).length;
+    }
+
+    @Nested
+    class Submit {
+
+        @Test
+        void groupedInFewerCommits() {
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            try (var transaction = new GroupCommitTransaction(provider, 50, Duration.ofMillis(50))) {
+                for (int i = 0; i < 100; i++) {
+                    futures.add(transaction.submit(insert(i)));
+                }
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+                assertEquals(100, transaction.getCommitted());
+                assertTrue(transaction.getGroups() < 100);
+                assertTrue(transaction.getAverageGroupSize() > 1);
+            }
+            assertEquals(100, count());
+        }
+
+        @Test
+        void failureIsolatedBySavepoint() {
+            try (var transaction = new GroupCommitTransaction(provider, 10, Duration.ofMillis(50))) {
+                var first = transaction.submit(insert(1));
+                var failing = transaction.submit(c -> {
+                    insert(2).execute(c);
+                    throw new SQLException("Expected failure");
+                });
+                var last = transaction.submit(insert(3));
+                first.join();
+                last.join();
+                var e = assertThrows(CompletionException.class, failing::join);
+                assertInstanceOf(SQLException.class, e.getCause());
+                assertEquals(1, transaction.getFailures());
+            }
+            assertEquals(List.of(1, 3), executor.select("SELECT id FROM item ORDER BY id", r -> r.getInt(1)));
+        }
+
+        @Test
+        void errorIsolatedBySavepoint() {
+            try (var transaction = new GroupCommitTransaction(provider, 10, Duration.ofMillis(50))) {
+                var first = transaction.submit(insert(1));
+                var failing = transaction.submit(c -> {
+                    insert(2).execute(c);
+                    throw new AssertionError("Expected failure");
+                });
+                var last = transaction.submit(insert(3));
+                first.join();
+                last.join();
+                var e = assertThrows(CompletionException.class, failing::join);
+                assertInstanceOf(AssertionError.class, e.getCause());
+                transaction.submit(insert(4)).join();
+            }
+            assertEquals(List.of(1, 3, 4), executor.select("SELECT id FROM item ORDER BY id", r -> r.getInt(1)));
+        }
+
+        @Test
+        void committerFailureClosesTransaction() {
+            var failing = new DummyDatabaseConnectionProvider(new DummySystem(Driver::new), new DummyDatabaseConnectionProvider.DefaultProperties(), false) {
+                @Override
+                protected Connection getConnectionImpl() {
+                    throw new IllegalStateException("Expected failure");
+                }
+            };
+            try (var transaction = new GroupCommitTransaction(failing, 10, Duration.ofMillis(10))) {
+                var future = transaction.submit(insert(1));
+                var e = assertThrows(CompletionException.class, future::join);
+                assertInstanceOf(IllegalStateException.class, e.getCause().getCause());
+                assertThrows(IllegalStateException.class, () -> transaction.submit(insert(2)));
+            }
+        }
+
+        @Test
+        void completedAfterCommit() throws Exception {
+            var latch = new CountDownLatch(1);
+            try (var transaction = new GroupCommitTransaction(provider, 2, Duration.ofSeconds(10))) {
+                var future = transaction.submit(insert(1));
+                transaction.submit(c -> latch.countDown());
+                future.get(5, TimeUnit.SECONDS);
+                assertTrue(latch.await(0, TimeUnit.SECONDS));
+                try (Connection c = provider.getConnection(); var stmt = c.createStatement(); var rs = stmt.executeQuery("SELECT COUNT(*) FROM item")) {
+                    assertTrue(rs.next());
+                    assertEquals(1, rs.getInt(1));
+                }
+            }
+        }
+
+        @Test
+        void closed() {
+            var transaction = new GroupCommitTransaction(provider, 10, Duration.ofMillis(1));
+            var pending = transaction.submit(insert(1));
+            transaction.close();
+            assertTrue(pending.isDone());
+            assertThrows(IllegalStateException.class, () -> transaction.submit(insert(2)));
+            assertEquals(1, count());
+        }
+    }
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void invalid() {
+            assertThrows(IllegalArgumentException.class, () -> new GroupCommitTransaction(provider, 0, Duration.ZERO));
+            assertThrows(IllegalArgumentException.class, () -> new GroupCommitTransaction(provider, 1, Duration.ofMillis(-1)));
+        }
+    }
+}
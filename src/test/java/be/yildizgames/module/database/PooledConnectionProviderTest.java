@@ -0,0 +1,335 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import be.yildizgames.module.database.dummy.DummyDbProperties;
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class PooledConnectionProviderTest {
+
+    private static PooledConnectionProvider givenAPool(String name, int size) {
+        return new PooledConnectionProvider(new DummyMemorySystem(name), new DummyDbProperties(name, size), false);
+    }
+
+    @Nested
+    class GetConnection {
+
+        @Test
+        void happyFlow() throws SQLException {
+            try (var pool = givenAPool("pool-happy", 2); Connection c = pool.getConnection(); var stmt = c.createStatement()) {
+                assertTrue(stmt.execute("SELECT 1"));
+                assertEquals(1, pool.getSize());
+            }
+        }
+
+        @Test
+        void reuseReleasedConnection() throws SQLException {
+            try (var pool = givenAPool("pool-reuse", 2)) {
+                Connection first;
+                try (Connection c = pool.getConnection()) {
+                    first = c.unwrap(org.h2.jdbc.JdbcConnection.class);
+                }
+                try (Connection c = pool.getConnection()) {
+                    assertSame(first, c.unwrap(org.h2.jdbc.JdbcConnection.class));
+                }
+                assertEquals(1, pool.getSize());
+                assertEquals(1, pool.getIdleSize());
+            }
+        }
+
+        @Test
+        void exhausted() throws SQLException {
+            try (var pool = givenAPool("pool-exhausted", 1)) {
+                Connection c = pool.getConnection();
+                assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+                assertEquals(1, pool.getSize());
+                c.close();
+                assertEquals(1, pool.getIdleSize());
+            }
+        }
+
+        @Test
+        void closedConnectionCannotBeUsed() throws SQLException {
+            try (var pool = givenAPool("pool-closed-connection", 1)) {
+                Connection c = pool.getConnection();
+                c.close();
+                assertTrue(c.isClosed());
+                assertThrows(SQLException.class, c::createStatement);
+                c.close();
+                assertEquals(1, pool.getIdleSize());
+            }
+        }
+
+        @Test
+        void pendingTransactionRolledBack() throws SQLException {
+            try (var pool = givenAPool("pool-rollback", 1)) {
+                try (Connection c = pool.getConnection(); var stmt = c.createStatement()) {
+                    stmt.execute("CREATE TABLE IF NOT EXISTS item (id INT)");
+                    c.setAutoCommit(false);
+                    stmt.execute("INSERT INTO item VALUES (1)");
+                }
+                try (Connection c = pool.getConnection(); var stmt = c.createStatement(); var rs = stmt.executeQuery("SELECT COUNT(*) FROM item")) {
+                    assertTrue(c.getAutoCommit());
+                    assertTrue(rs.next());
+                    assertEquals(0, rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Nested
+    class ConnectionState {
+
+        @Test
+        void stateChangeVisible() throws SQLException {
+            try (var pool = givenAPool("pool-state", 1); Connection c = pool.getConnection()) {
+                Connection physical = c.unwrap(org.h2.jdbc.JdbcConnection.class);
+                c.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+                assertEquals(Connection.TRANSACTION_SERIALIZABLE, c.getTransactionIsolation());
+                assertEquals(Connection.TRANSACTION_SERIALIZABLE, physical.getTransactionIsolation());
+                c.setAutoCommit(false);
+                assertFalse(physical.getAutoCommit());
+            }
+        }
+
+        @Test
+        void stateRestoredWhenReturned() throws SQLException {
+            try (var pool = givenAPool("pool-state-restored", 1)) {
+                int isolation;
+                try (Connection c = pool.getConnection()) {
+                    isolation = c.getTransactionIsolation();
+                    c.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+                    c.setReadOnly(true);
+                }
+                try (Connection c = pool.getConnection()) {
+                    Connection physical = c.unwrap(org.h2.jdbc.JdbcConnection.class);
+                    assertEquals(isolation, physical.getTransactionIsolation());
+                    assertEquals(isolation, c.getTransactionIsolation());
+                    assertFalse(c.isReadOnly());
+                }
+            }
+        }
+
+        @Test
+        void propertiesRestoredWhenReturned() throws SQLException {
+            try (var pool = givenAPool("pool-properties-restored", 1)) {
+                String schema;
+                int holdability;
+                try (Connection c = pool.getConnection(); var stmt = c.createStatement()) {
+                    schema = c.getSchema();
+                    holdability = c.getHoldability();
+                    stmt.execute("CREATE SCHEMA IF NOT EXISTS other");
+                    c.setSchema("OTHER");
+                    c.setHoldability(holdability == ResultSet.HOLD_CURSORS_OVER_COMMIT ? ResultSet.CLOSE_CURSORS_AT_COMMIT : ResultSet.HOLD_CURSORS_OVER_COMMIT);
+                    c.setNetworkTimeout(Runnable::run, 1234);
+                }
+                try (Connection c = pool.getConnection()) {
+                    Connection physical = c.unwrap(org.h2.jdbc.JdbcConnection.class);
+                    assertEquals(schema, physical.getSchema());
+                    assertEquals(holdability, physical.getHoldability());
+                    assertEquals(0, physical.getNetworkTimeout());
+                }
+            }
+        }
+
+        @Test
+        void statementsClosedWhenReturned() throws SQLException {
+            try (var pool = givenAPool("pool-statements-closed", 1)) {
+                Statement statement;
+                PreparedStatement prepared;
+                try (Connection c = pool.getConnection()) {
+                    statement = c.createStatement();
+                    prepared = c.prepareStatement("SELECT 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                }
+                assertTrue(statement.isClosed());
+                assertTrue(prepared.isClosed());
+            }
+        }
+    }
+
+    @Nested
+    class Close {
+
+        @Test
+        void happyFlow() throws SQLException {
+            var pool = givenAPool("pool-close", 2);
+            pool.getConnection().close();
+            pool.close();
+            assertEquals(0, pool.getSize());
+            assertThrows(SQLException.class, pool::getConnection);
+        }
+
+        @Test
+        void borrowedConnectionClosedWhenReturned() throws SQLException {
+            var pool = givenAPool("pool-close-borrowed", 2);
+            Connection c = pool.getConnection();
+            Connection physical = c.unwrap(org.h2.jdbc.JdbcConnection.class);
+            pool.close();
+            assertFalse(physical.isClosed());
+            c.close();
+            assertTrue(physical.isClosed());
+            assertEquals(0, pool.getSize());
+        }
+    }
+
+    @Nested
+    class PrepareStatement {
+
+        @Test
+        void reuseStatement() throws SQLException {
+            try (var pool = givenAPool("pool-statement-reuse", 1)) {
+                PreparedStatement first;
+                try (Connection c = pool.getConnection(); var stmt = c.prepareStatement("SELECT 1")) {
+                    first = stmt;
+                    assertInstanceOf(WrappedPreparedStatement.class, stmt);
+                }
+                try (Connection c = pool.getConnection(); var stmt = c.prepareStatement("SELECT 1"); var rs = stmt.executeQuery()) {
+                    assertSame(first, stmt);
+                    assertTrue(rs.next());
+                }
+                assertEquals(1, pool.getStatementCacheStatistics().getHits());
+                assertEquals(1, pool.getStatementCacheStatistics().getMisses());
+            }
+        }
+
+        @Test
+        void sameQueryInUse() throws SQLException {
+            try (var pool = givenAPool("pool-statement-in-use", 1); Connection c = pool.getConnection();
+                 var first = c.prepareStatement("SELECT 1"); var second = c.prepareStatement("SELECT 1")) {
+                assertNotSame(first, second);
+                assertEquals(2, pool.getStatementCacheStatistics().getMisses());
+            }
+        }
+
+        @Test
+        void eviction() throws SQLException {
+            var properties = new DummyDbProperties("pool-statement-eviction", 1) {
+                @Override
+                public int getStatementCacheSize() {
+                    return 2;
+                }
+            };
+            try (var pool = new PooledConnectionProvider(new DummyMemorySystem("pool-statement-eviction"), properties, false); Connection c = pool.getConnection()) {
+                var evicted = c.prepareStatement("SELECT 1");
+                evicted.close();
+                c.prepareStatement("SELECT 2").close();
+                c.prepareStatement("SELECT 3").close();
+                assertTrue(evicted.isClosed());
+                assertEquals(1, pool.getStatementCacheStatistics().getEvictions());
+            }
+        }
+
+        @Test
+        void modifiedStatementNotCached() throws SQLException {
+            try (var pool = givenAPool("pool-statement-modified", 1); Connection c = pool.getConnection()) {
+                var stmt = c.prepareStatement("SELECT 1");
+                stmt.setMaxRows(1);
+                stmt.close();
+                assertTrue(stmt.isClosed());
+            }
+        }
+
+        @Test
+        void closedAfterConnection() throws SQLException {
+            try (var pool = givenAPool("pool-statement-late", 1)) {
+                Connection c = pool.getConnection();
+                var stmt = c.prepareStatement("SELECT 1");
+                c.close();
+                stmt.close();
+                assertTrue(stmt.isClosed());
+            }
+        }
+
+        @Test
+        void disabled() throws SQLException {
+            var properties = new DummyDbProperties("pool-statement-disabled", 1) {
+                @Override
+                public int getStatementCacheSize() {
+                    return 0;
+                }
+            };
+            try (var pool = new PooledConnectionProvider(new DummyMemorySystem("pool-statement-disabled"), properties, false); Connection c = pool.getConnection()) {
+                var stmt = c.prepareStatement("SELECT 1");
+                stmt.close();
+                assertTrue(stmt.isClosed());
+                assertEquals(0, pool.getStatementCacheStatistics().getMisses());
+            }
+        }
+    }
+
+    @Nested
+    class VirtualThreads {
+
+        @Test
+        void noPinningWhileWaiting() throws Exception {
+            assumeTrue(System.getProperty("jdk.tracePinnedThreads") != null, "Pinned threads tracing not enabled.");
+            var done = new AtomicInteger();
+            var trace = new ByteArrayOutputStream();
+            PrintStream out = System.out;
+            System.setOut(new PrintStream(trace, true));
+            var properties = new DummyDbProperties("pool-virtual", 32) {
+                @Override
+                public long getPoolAcquireTimeout() {
+                    return 120_000;
+                }
+            };
+            try (var pool = new PooledConnectionProvider(new DummyMemorySystem("pool-virtual"), properties, false)) {
+                try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (int i = 0; i < 10_000; i++) {
+                        executor.submit(() -> {
+                            try (Connection c = pool.getConnection(); var stmt = c.createStatement(); var rs = stmt.executeQuery("SELECT 1")) {
+                                rs.next();
+                                // Simulate network latency so the callers have to wait for a connection.
+                                Thread.sleep(1);
+                                done.incrementAndGet();
+                            }
+                            return null;
+                        });
+                    }
+                }
+                assertTrue(pool.getSize() <= 32);
+            } finally {
+                System.setOut(out);
+            }
+            assertEquals(10_000, done.get());
+            assertTrue(trace.toString().lines()
+                    .noneMatch(l -> l.contains("be.yildizgames.module.database") && l.contains("<== monitors")), trace::toString);
+        }
+    }
+}
@@ -0,0 +1,773 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import be.yildizgames.module.database.dummy.DummyDbProperties;
+import be.yildizgames.module.database.dummy.DummyItem;
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class QueryExecutorTest {
+
+    private static final TableSchema ITEM = TableSchema.createWithId("item",
+            TableSchemaColumn.integer("id"),
+            TableSchemaColumn.varchar("name", 20));
+
+    private PooledConnectionProvider provider;
+
+    private QueryExecutor executor;
+
+    @BeforeEach
+    void init() throws SQLException {
+        this.provider = new PooledConnectionProvider(new DummyMemorySystem("query-executor"), new DummyDbProperties("query-executor", 4), false);
+        this.executor = new QueryExecutor(this.provider);
+        this.executor.dropTables(ITEM);
+        this.executor.createTableIfNotExists(ITEM);
+        try (var c = this.provider.getConnection(); var stmt = c.createStatement()) {
+            for (int i = 1; i <= 10; i++) {
+                stmt.execute("INSERT INTO item VALUES (" + i + ", 'item" + i + "')");
+            }
+        }
+    }
+
+    @AfterEach
+    void close() {
+        this.provider.close();
+    }
+
+    @Nested
+    class Select {
+
+        @Test
+        void happyFlow() {
+            List<String> result = executor.select("SELECT name FROM item WHERE id <= 3 ORDER BY id", rs -> rs.getString("name"));
+            assertEquals(List.of("item1", "item2", "item3"), result);
+        }
+
+        @Test
+        void withIntParameter() {
+            assertEquals(List.of("item2"), executor.select("SELECT name FROM item WHERE id = ?", 2, rs -> rs.getString(1)));
+            assertEquals(List.of("item5"), executor.select("SELECT name FROM item WHERE id = ?", 5, rs -> rs.getString(1)));
+            assertEquals(1, provider.getStatementCacheStatistics().getHits());
+        }
+
+        @Test
+        void withLongParameter() {
+            assertEquals(List.of("item3"), executor.select("SELECT name FROM item WHERE id = ?", 3L, rs -> rs.getString(1)));
+        }
+
+        @Test
+        void withStringParameter() {
+            assertEquals(List.of(4), executor.select("SELECT id FROM item WHERE name = ?", "item4", rs -> rs.getInt(1)));
+        }
+
+        @Test
+        void withBinder() {
+            List<Integer> result = executor.select("SELECT id FROM item WHERE id > ? AND name <> ? ORDER BY id",
+                    s -> {
+                        s.setInt(1, 7);
+                        s.setString(2, "item9");
+                    },
+                    rs -> rs.getInt(1));
+            assertEquals(List.of(8, 10), result);
+        }
+
+        @Test
+        void invalidQuery() {
+            assertThrows(IllegalStateException.class, () -> executor.select("SELECT missing FROM item", rs -> rs.getString(1)));
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+        @Test
+        void labelsIgnoreCase() {
+            assertEquals(List.of("2:item2"), executor.select("SELECT id, name FROM item WHERE id = ?", 2, rs -> rs.getInt("Id") + ":" + rs.getString("NAME")));
+        }
+
+        @Test
+        void duplicatedLabel() {
+            assertEquals(List.of("2"), executor.select("SELECT id AS a, name AS a FROM item WHERE id = ?", 2, rs -> rs.getString("a")));
+        }
+
+        @Test
+        void unknownLabel() {
+            assertThrows(IllegalStateException.class, () -> executor.select("SELECT id FROM item", rs -> rs.getString("missing")));
+        }
+
+        @Test
+        void labelsSharedByStatement() throws SQLException {
+            try (var c = provider.getConnection()) {
+                ColumnLabels first;
+                try (var stmt = (WrappedPreparedStatement) c.prepareStatement("SELECT name FROM item WHERE id = ?")) {
+                    stmt.setInt(1, 1);
+                    var rs = WrappedResultSet.wrap(stmt.executeQuery());
+                    rs.next();
+                    assertEquals("item1", rs.getString("name"));
+                    first = stmt.getColumnLabels();
+                }
+                try (var stmt = (WrappedPreparedStatement) c.prepareStatement("SELECT name FROM item WHERE id = ?")) {
+                    stmt.setInt(1, 2);
+                    var rs = WrappedResultSet.wrap(stmt.executeQuery());
+                    rs.next();
+                    assertEquals("item2", rs.getString("name"));
+                    assertSame(first, stmt.getColumnLabels());
+                }
+            }
+        }
+
+        @Test
+        void labelsNotSharedWhenColumnsReordered() throws SQLException {
+            try (var c = provider.getConnection(); var ddl = c.createStatement()) {
+                ddl.execute("CREATE TABLE shape (a INT, b INT)");
+                ddl.execute("INSERT INTO shape VALUES (1, 2)");
+                try (var stmt = c.prepareStatement("SELECT * FROM shape")) {
+                    var rs = WrappedResultSet.wrap(stmt.executeQuery());
+                    rs.next();
+                    assertEquals(1, rs.getInt("a"));
+                }
+                ddl.execute("DROP TABLE shape");
+                ddl.execute("CREATE TABLE shape (b INT, a INT)");
+                ddl.execute("INSERT INTO shape VALUES (2, 1)");
+                try (var stmt = c.prepareStatement("SELECT * FROM shape")) {
+                    var rs = WrappedResultSet.wrap(stmt.executeQuery());
+                    rs.next();
+                    assertEquals(1, rs.getInt("a"));
+                    assertEquals(2, rs.getInt("b"));
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Stream {
+
+        @Test
+        void happyFlow() {
+            try (var stream = executor.stream("SELECT id FROM item ORDER BY id", rs -> rs.getInt("id"), 3)) {
+                assertEquals(List.of(1, 2, 3, 4), stream.limit(4).collect(Collectors.toList()));
+                assertEquals(0, provider.getIdleSize());
+            }
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void withBinder() {
+            try (var stream = executor.stream("SELECT id FROM item WHERE id > ?", s -> s.setInt(1, 8), rs -> rs.getInt(1), 1)) {
+                assertEquals(19, stream.mapToInt(Integer::intValue).sum());
+            }
+        }
+
+        @Test
+        void releasedWhenConsumed() {
+            assertEquals(55, executor.stream("SELECT id FROM item", rs -> rs.getInt(1)).mapToInt(Integer::intValue).sum());
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void invalidQuery() {
+            assertThrows(IllegalStateException.class, () -> executor.stream("SELECT missing FROM item", rs -> rs.getInt(1)));
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void binderFailure() {
+            assertThrows(NullPointerException.class, () -> executor.stream("SELECT id FROM item WHERE id > ?", s -> s.setString(1, ((String) null).trim()), rs -> rs.getInt(1), 1));
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void mapperFailure() {
+            try (var stream = executor.stream("SELECT id FROM item", rs -> {
+                throw new NullPointerException();
+            })) {
+                assertThrows(NullPointerException.class, () -> stream.findFirst());
+                assertEquals(provider.getSize(), provider.getIdleSize());
+            }
+        }
+    }
+
+    @Nested
+    class ExecuteBatch {
+
+        private final List<Integer> ids = IntStream.rangeClosed(11, 60).boxed().toList();
+
+        private void bind(WrappedPreparedStatement stmt, Integer id) {
+            stmt.setInt(1, id);
+            stmt.setString(2, "item" + id);
+        }
+
+        @Test
+        void happyFlow() {
+            int[] counts = executor.executeBatch("INSERT INTO item VALUES (?, ?)", ids, this::bind, 16);
+            assertEquals(50, counts.length);
+            assertEquals(60, executor.select("SELECT COUNT(*) FROM item", rs -> rs.getInt(1)).get(0));
+            assertEquals("item60", executor.select("SELECT name FROM item WHERE id = ?", 60, rs -> rs.getString(1)).get(0));
+        }
+
+        @Test
+        void multiRowInsert() {
+            try (var multiRowProvider = new PooledConnectionProvider(new DummyMemorySystem("query-executor", true), new DummyDbProperties("query-executor", 4), false)) {
+                int[] counts = new QueryExecutor(multiRowProvider).executeBatch("INSERT INTO item VALUES (?, ?)", ids, this::bind, 16);
+                assertArrayEquals(IntStream.generate(() -> 1).limit(50).toArray(), counts);
+            }
+            assertEquals(60, executor.select("SELECT COUNT(*) FROM item", rs -> rs.getInt(1)).get(0));
+            assertEquals("item37", executor.select("SELECT name FROM item WHERE id = ?", 37, rs -> rs.getString(1)).get(0));
+        }
+
+        @Test
+        void multiRowInsertQuery() {
+            var insert = MultiRowInsert.parse("insert into item (id, name) values (?, ?);", 10);
+            assertEquals("insert into item (id, name) values (?, ?),(?, ?),(?, ?)", insert.query(3));
+        }
+
+        @Test
+        void notRewritable() {
+            assertNull(MultiRowInsert.parse("INSERT INTO item SELECT * FROM item", 10));
+            assertNull(MultiRowInsert.parse("INSERT INTO item VALUES (1, 'a')", 10));
+        }
+
+        @Test
+        void rollbackOnError() {
+            var withDuplicate = List.of(11, 12, 5);
+            assertThrows(IllegalStateException.class, () -> executor.executeBatch("INSERT INTO item VALUES (?, ?)", withDuplicate, this::bind, 2));
+            assertEquals(10, executor.select("SELECT COUNT(*) FROM item", rs -> rs.getInt(1)).get(0));
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void failedBatchNotReused() {
+            assertThrows(IllegalStateException.class, () -> executor.executeBatch("INSERT INTO item VALUES (?, ?)", List.of(11, 12), (stmt, id) -> {
+                if (id == 12) {
+                    throw new IllegalStateException("Expected exception");
+                }
+                this.bind(stmt, id);
+            }, 10));
+            executor.executeBatch("INSERT INTO item VALUES (?, ?)", List.of(13), this::bind, 10);
+            assertEquals(List.of(13), executor.select("SELECT id FROM item WHERE id > 10", rs -> rs.getInt(1)));
+        }
+
+        @Test
+        void invalidBatchSize() {
+            assertThrows(IllegalArgumentException.class, () -> executor.executeBatch("INSERT INTO item VALUES (?, ?)", ids, this::bind, 0));
+        }
+    }
+
+    @Nested
+    class Publish {
+
+        @Test
+        void onlyRequestedRows() throws InterruptedException {
+            var subscriber = new CollectingSubscriber();
+            executor.publish("SELECT id FROM item WHERE id > ? ORDER BY id", s -> s.setInt(1, 2), rs -> rs.getInt(1)).subscribe(subscriber);
+            subscriber.subscription.request(3);
+            await(() -> subscriber.items.size() == 3);
+            Thread.sleep(100);
+            assertEquals(List.of(3, 4, 5), List.copyOf(subscriber.items));
+            assertEquals(provider.getSize() - 1, provider.getIdleSize());
+            subscriber.subscription.request(Long.MAX_VALUE);
+            assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+            assertNull(subscriber.error);
+            assertEquals(8, subscriber.items.size());
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void noConnectionBeforeRequest() {
+            executor.publish("SELECT id FROM item", rs -> rs.getInt(1)).subscribe(new CollectingSubscriber());
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void cancelReleasesConnection() {
+            var subscriber = new CollectingSubscriber();
+            executor.publish("SELECT id FROM item", rs -> rs.getInt(1)).subscribe(subscriber);
+            subscriber.subscription.request(2);
+            await(() -> subscriber.items.size() == 2);
+            subscriber.subscription.cancel();
+            await(() -> provider.getSize() == provider.getIdleSize());
+            assertEquals(2, subscriber.items.size());
+        }
+
+        @Test
+        void invalidQuery() throws InterruptedException {
+            var subscriber = new CollectingSubscriber();
+            executor.publish("SELECT missing FROM item", rs -> rs.getInt(1)).subscribe(subscriber);
+            subscriber.subscription.request(1);
+            assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, subscriber.error);
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void nullRowRejected() throws InterruptedException {
+            var subscriber = new CollectingSubscriber();
+            executor.<Integer>publish("SELECT id FROM item", rs -> null).subscribe(subscriber);
+            subscriber.subscription.request(1);
+            assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+            assertInstanceOf(NullPointerException.class, subscriber.error);
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void invalidRequest() throws InterruptedException {
+            var subscriber = new CollectingSubscriber();
+            executor.publish("SELECT id FROM item", rs -> rs.getInt(1)).subscribe(subscriber);
+            subscriber.subscription.request(0);
+            assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        }
+    }
+
+    @Nested
+    class ParallelScan {
+
+        private final Set<Integer> all = IntStream.rangeClosed(1, 10).boxed().collect(Collectors.toSet());
+
+        @Test
+        void collector() {
+            assertEquals(all, executor.parallelScan(ITEM, rs -> rs.getInt(1), 3, Collectors.toSet()));
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void stream() {
+            try (var rows = executor.parallelScan(ITEM, rs -> rs.getInt(1), 3)) {
+                assertEquals(all, rows.collect(Collectors.toSet()));
+            }
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void closeBeforeEnd() {
+            try (var rows = executor.parallelScan(ITEM, rs -> rs.getInt(1), 4)) {
+                assertEquals(2, rows.limit(2).count());
+            }
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void nullRows() {
+            RowMapper<Integer> evenOnly = rs -> rs.getInt(1) % 2 == 0 ? rs.getInt(1) : null;
+            try (var rows = executor.parallelScan(ITEM, evenOnly, 3)) {
+                assertEquals(5, rows.filter(Objects::isNull).count());
+            }
+            assertEquals(10, executor.parallelScan(ITEM, evenOnly, 3, Collectors.toList()).size());
+        }
+
+        @Test
+        void callerHoldingConnection() throws SQLException {
+            try (var c = provider.getConnection()) {
+                assertFalse(c.isClosed());
+                assertEquals(all, executor.parallelScan(ITEM, rs -> rs.getInt(1), 4, Collectors.toSet()));
+            }
+        }
+
+        @Test
+        void emptyTable() {
+            executor.update("DELETE FROM item", ParameterBinder.NONE);
+            assertEquals(0, executor.parallelScan(ITEM, rs -> rs.getInt(1), 3, Collectors.counting()));
+        }
+
+        @Test
+        void split() {
+            var ranges = PartitionedScan.split(1, 10, 3);
+            assertArrayEquals(new long[]{1, 4}, ranges.get(0));
+            assertArrayEquals(new long[]{5, 7}, ranges.get(1));
+            assertArrayEquals(new long[]{8, 10}, ranges.get(2));
+            assertEquals(2, PartitionedScan.split(5, 6, 4).size());
+            var full = PartitionedScan.split(Long.MIN_VALUE, Long.MAX_VALUE, 2);
+            assertArrayEquals(new long[]{Long.MIN_VALUE, -1}, full.get(0));
+            assertArrayEquals(new long[]{0, Long.MAX_VALUE}, full.get(1));
+        }
+
+        @Test
+        void noNumericId() {
+            var table = TableSchema.createWithoutId("item", TableSchemaColumn.integer("id"));
+            assertThrows(IllegalArgumentException.class, () -> executor.parallelScan(table, rs -> rs.getInt(1), 2));
+        }
+
+        @Test
+        void invalidPartitions() {
+            assertThrows(IllegalArgumentException.class, () -> executor.parallelScan(ITEM, rs -> rs.getInt(1), 0));
+        }
+    }
+
+    @Nested
+    class SelectPrimitives {
+
+        @Test
+        void ints() {
+            assertArrayEquals(new int[]{8, 9, 10}, executor.selectInts("SELECT id FROM item WHERE id > ? ORDER BY id", s -> s.setInt(1, 7), rs -> rs.getInt(1)));
+        }
+
+        @Test
+        void longs() {
+            assertArrayEquals(LongStream.rangeClosed(1, 10).toArray(), executor.selectLongs("SELECT id FROM item ORDER BY id", rs -> rs.getLong(1)));
+        }
+
+        @Test
+        void doubles() {
+            assertArrayEquals(new double[]{0.5, 1}, executor.selectDoubles("SELECT id / 2.0 FROM item WHERE id < 3 ORDER BY id", rs -> rs.getDouble(1)));
+        }
+
+        @Test
+        void growBeyondInitialCapacity() {
+            executor.executeBatch("INSERT INTO item VALUES (?, ?)", IntStream.rangeClosed(11, 200).boxed().toList(), (stmt, id) -> {
+                stmt.setInt(1, id);
+                stmt.setString(2, "item" + id);
+            }, 50);
+            assertArrayEquals(IntStream.rangeClosed(1, 200).toArray(), executor.selectInts("SELECT id FROM item ORDER BY id", rs -> rs.getInt(1)));
+        }
+
+        @Test
+        void noRow() {
+            assertEquals(0, executor.selectInts("SELECT id FROM item WHERE id < 0", rs -> rs.getInt(1)).length);
+        }
+    }
+
+    @Nested
+    class SelectColumnar {
+
+        private static final String QUERY = "SELECT id, name, CAST(id AS BIGINT) * 1000000000 AS big, CAST(id AS DOUBLE PRECISION) / 4 AS ratio,"
+                + " CASE WHEN id > ? THEN NULL WHEN MOD(id, 2) = 0 THEN 'even' ELSE 'odd' END AS parity, id > 5 AS high FROM item ORDER BY id";
+
+        @Test
+        void typedColumns() {
+            var result = executor.selectColumnar(QUERY, s -> s.setInt(1, 8));
+            assertEquals(10, result.getRowCount());
+            assertEquals(6, result.getColumnCount());
+            assertArrayEquals(IntStream.rangeClosed(1, 10).toArray(), result.ints(0));
+            assertEquals("item3", result.getString(2, 1));
+            assertEquals(3_000_000_000L, result.getLong(2, result.getColumnIndex("big")));
+            assertEquals(0.75, result.doubles(result.getColumnIndex("RATIO"))[2]);
+            assertEquals(4L, result.getLong(3, 0));
+            assertEquals(Boolean.TRUE, result.getObject(5, 5));
+        }
+
+        @Test
+        void dictionaryAndNulls() {
+            var result = executor.selectColumnar(QUERY, s -> s.setInt(1, 8));
+            int parity = result.getColumnIndex("parity");
+            assertEquals(List.of("odd", "even"), result.dictionary(parity));
+            assertEquals("even", result.getString(7, parity));
+            assertTrue(result.isNull(8, parity));
+            assertNull(result.getString(9, parity));
+            assertNull(result.getObject(9, parity));
+        }
+
+        @Test
+        void wrongType() {
+            var result = executor.selectColumnar("SELECT id, name FROM item");
+            assertThrows(IllegalStateException.class, () -> result.getString(0, 0));
+            assertThrows(IllegalStateException.class, () -> result.ints(1));
+            assertThrows(IndexOutOfBoundsException.class, () -> result.getInt(10, 0));
+            assertThrows(IllegalArgumentException.class, () -> result.getColumnIndex("missing"));
+        }
+    }
+
+    @Nested
+    class ForRecord {
+
+        @Test
+        void publicRecord() {
+            assertEquals(List.of(new DummyItem(1, "item1"), new DummyItem(2, "item2")),
+                    executor.select("SELECT id, name FROM item WHERE id <= 2 ORDER BY id", RowMapper.forRecord(DummyItem.class)));
+        }
+
+        @Test
+        void columnOrderPerShape() {
+            var mapper = RowMapper.forRecord(DummyItem.class);
+            assertEquals(List.of(new DummyItem(3, "item3")), executor.select("SELECT name, id FROM item WHERE id = ?", 3, mapper));
+            assertEquals(List.of(new DummyItem(4, "item4")), executor.select("SELECT id, name FROM item WHERE id = ?", 4, mapper));
+        }
+
+        @Test
+        void cachedPerClass() {
+            assertSame(RowMapper.forRecord(DummyItem.class), RowMapper.forRecord(DummyItem.class));
+        }
+
+        @Test
+        void snakeCaseEnumAndNull() {
+            var result = executor.select("SELECT id AS item_id, CAST(NULL AS INT) AS bonus, CASE WHEN MOD(id, 2) = 0 THEN 'EVEN' ELSE 'ODD' END AS parity FROM item WHERE id = ?",
+                    6, RowMapper.forRecord(ItemDetail.class, MethodHandles.lookup()));
+            assertEquals(List.of(new ItemDetail(6L, null, Parity.EVEN)), result);
+        }
+
+        @Test
+        void missingColumn() {
+            assertThrows(IllegalStateException.class, () -> executor.select("SELECT id FROM item", RowMapper.forRecord(DummyItem.class)));
+        }
+    }
+
+    @Nested
+    class SelectSpilling {
+
+        private static final String QUERY = "SELECT id, name, CAST(id AS BIGINT) * 1000000000 AS big, id / 3.0 AS ratio, CAST(NULL AS VARCHAR) AS empty,"
+                + " id > 5 AS high, CAST(NULL AS INT) AS missing_int FROM item WHERE id >= ? ORDER BY id";
+
+        private String describe(WrappedResultSet rs) {
+            return rs.getInt("id") + ":" + rs.getString(2) + ":" + rs.getLong("BIG") + ":" + rs.getBigDecimal("ratio") + ":" + rs.getString("empty")
+                    + ":" + rs.getBoolean("high") + ":" + rs.getInt("missing_int") + ":" + rs.wasNull();
+        }
+
+        @Test
+        void withinBudget() {
+            try (var result = executor.selectSpilling(QUERY, s -> s.setInt(1, 1), this::describe, 1_000_000)) {
+                assertEquals(0, result.getSpilledRowCount());
+                assertEquals(executor.select(QUERY, s -> s.setInt(1, 1), this::describe), result);
+            }
+        }
+
+        @Test
+        void spilled() {
+            var expected = executor.select(QUERY, s -> s.setInt(1, 1), this::describe);
+            try (var result = executor.selectSpilling(QUERY, s -> s.setInt(1, 1), this::describe, 200)) {
+                assertTrue(result.getSpilledRowCount() > 0);
+                assertTrue(result.getSpilledRowCount() < 10);
+                assertEquals(expected, result);
+                assertEquals(expected.get(9), result.get(9));
+            }
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void records() {
+            try (var result = executor.selectSpilling("SELECT id, name FROM item ORDER BY id", ParameterBinder.NONE, RowMapper.forRecord(DummyItem.class), 0)) {
+                assertEquals(10, result.getSpilledRowCount());
+                assertEquals(new DummyItem(7, "item7"), result.get(6));
+            }
+        }
+
+        @Test
+        void closed() {
+            var result = executor.selectSpilling(QUERY, s -> s.setInt(1, 1), this::describe, 0);
+            result.close();
+            assertThrows(IllegalStateException.class, () -> result.get(0));
+        }
+
+        @Test
+        void onlyScalarTypes() {
+            assertThrows(IllegalStateException.class, () -> executor.selectSpilling("SELECT INTERVAL '1' DAY FROM item", ParameterBinder.NONE, rs -> rs.getObject(1), 0));
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void negativeBudget() {
+            assertThrows(IllegalArgumentException.class, () -> executor.selectSpilling(QUERY, s -> s.setInt(1, 1), this::describe, -1));
+        }
+    }
+
+    @Nested
+    class SelectCached {
+
+        private static final String QUERY = "SELECT name FROM item WHERE id = ?";
+
+        private static final RowMapper<String> NAME = rs -> rs.getString(1);
+
+        private QueryResultCache cache;
+
+        @BeforeEach
+        void enableCache() {
+            this.cache = new QueryResultCache(2, Duration.ofMinutes(1));
+            provider.setResultCache(this.cache);
+        }
+
+        @Test
+        void hit() {
+            var first = executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME);
+            assertSame(first, executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME));
+            assertEquals(1, this.cache.getHits());
+            assertEquals(1, this.cache.getMisses());
+            assertEquals(0.5, this.cache.getHitRate());
+            assertThrows(UnsupportedOperationException.class, () -> first.add("other"));
+        }
+
+        @Test
+        void keyedByParameters() {
+            assertEquals(List.of("item1"), executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME));
+            assertEquals(List.of("item2"), executor.selectCached(QUERY, s -> s.setInt(1, 2), NAME));
+            assertEquals(0, this.cache.getHits());
+        }
+
+        @Test
+        void keyedByMapperInstance() {
+            var item = RowMapper.forRecord(DummyItem.class);
+            var label = RowMapper.forRecord(ItemLabel.class, MethodHandles.lookup());
+            var query = "SELECT id, name FROM item WHERE id = ?";
+            assertEquals(List.of(new DummyItem(1, "item1")), executor.selectCached(query, s -> s.setInt(1, 1), item));
+            assertEquals(List.of(new ItemLabel("item1")), executor.selectCached(query, s -> s.setInt(1, 1), label));
+            assertEquals(0, this.cache.getHits());
+        }
+
+        @Test
+        void binderCalledOnce() {
+            var calls = new AtomicInteger();
+            ParameterBinder binder = s -> {
+                calls.incrementAndGet();
+                s.setInt(1, 1);
+            };
+            executor.selectCached(QUERY, binder, NAME);
+            executor.selectCached(QUERY, binder, NAME);
+            assertEquals(2, calls.get());
+            assertEquals(1, this.cache.getHits());
+        }
+
+        @Test
+        void hitWithoutConnection() {
+            executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME);
+            long acquired = provider.getMetrics().getConnectionAcquireCount();
+            assertEquals(List.of("item1"), executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME));
+            assertEquals(acquired, provider.getMetrics().getConnectionAcquireCount());
+            assertEquals(1, this.cache.getHits());
+        }
+
+        @Test
+        void onlyParametersSetByBinder() {
+            assertThrows(UnsupportedOperationException.class, () -> executor.selectCached(QUERY, s -> s.executeQuery(), NAME));
+            assertEquals(provider.getSize(), provider.getIdleSize());
+        }
+
+        @Test
+        void invalidatedByWrite() {
+            executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME);
+            executor.update("UPDATE item SET name = ? WHERE id = ?", s -> {
+                s.setString(1, "updated");
+                s.setInt(2, 1);
+            });
+            assertEquals(List.of("updated"), executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME));
+            assertEquals(1, this.cache.getInvalidations());
+        }
+
+        @Test
+        void notInvalidatedByOtherTable() {
+            var other = TableSchema.createWithId("other", TableSchemaColumn.integer("id"));
+            executor.createTableIfNotExists(other);
+            executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME);
+            executor.update("INSERT INTO other VALUES (?)", s -> s.setInt(1, 1));
+            executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME);
+            assertEquals(1, this.cache.getHits());
+            executor.dropTables(other);
+        }
+
+        @Test
+        void invalidatedByTransaction() {
+            executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME);
+            new Transaction(provider).execute(c -> {
+                try (var stmt = c.prepareStatement("DELETE FROM item WHERE id = 1")) {
+                    stmt.execute();
+                }
+            }, ITEM);
+            assertEquals(List.of(), executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME));
+        }
+
+        @Test
+        void expired() throws InterruptedException {
+            var shortLived = new QueryResultCache(2, Duration.ofMillis(20));
+            provider.setResultCache(shortLived);
+            executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME);
+            Thread.sleep(50);
+            executor.selectCached(QUERY, s -> s.setInt(1, 1), NAME);
+            assertEquals(0, shortLived.getHits());
+            assertEquals(1, shortLived.getEvictions());
+        }
+
+        @Test
+        void leastRecentlyUsedEvicted() {
+            for (int i = 1; i <= 3; i++) {
+                int id = i;
+                executor.selectCached(QUERY, s -> s.setInt(1, id), NAME);
+            }
+            assertEquals(2, this.cache.size());
+            assertEquals(1, this.cache.getEvictions());
+        }
+    }
+
+    private enum Parity {
+        EVEN, ODD
+    }
+
+    private record ItemDetail(long itemId, Integer bonus, Parity parity) {}
+
+    private record ItemLabel(String name) {}
+
+    private static void await(BooleanSupplier condition) {
+        long limit = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limit, "Condition not met in time.");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<Integer> {
+
+        private final Queue<Integer> items = new ConcurrentLinkedQueue<>();
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile Flow.Subscription subscription;
+
+        private volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            this.items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+            this.done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.done.countDown();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+
+import be.yildizgames.module.database.dummy.DummyDbProperties;
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class SlowQueryLogTest {
+
+    private static final TableSchema ITEM = TableSchema.createWithId("item",
+            TableSchemaColumn.integer("id"));
+
+    private PooledConnectionProvider provider;
+
+    private QueryExecutor executor;
+
+    private final BlockingQueue<SlowQuery> logged = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void init() {
+        this.provider = new PooledConnectionProvider(new DummyMemorySystem("slow-query"), new DummyDbProperties("slow-query", 2), false);
+        this.executor = new QueryExecutor(this.provider);
+        this.executor.dropTables(ITEM);
+        this.executor.createTableIfNotExists(ITEM);
+        this.provider.getSlowQueryLog().setSink(this.logged::add);
+    }
+
+    @AfterEach
+    void close() {
+        this.provider.close();
+    }
+
+    @Nested
+    class Record {
+
+        @Test
+        void disabledByDefault() throws InterruptedException {
+            assertFalse(provider.getSlowQueryLog().isEnabled());
+            executor.select("SELECT id FROM item", r -> r.getInt(1));
+            assertNull(logged.poll(50, TimeUnit.MILLISECONDS));
+            assertEquals(0, provider.getSlowQueryLog().getRecorded());
+        }
+
+        @Test
+        void debugModeLogsAllWithParameters() throws InterruptedException {
+            provider.setDebugMode();
+            executor.update("INSERT INTO item (id) VALUES (?)", s -> s.setInt(1, 7));
+            var query = logged.poll(5, TimeUnit.SECONDS);
+            assertNotNull(query);
+            assertEquals("INSERT INTO item (id) VALUES (?)", query.sql());
+            assertEquals(List.of(7), query.parameters());
+            assertEquals(1, query.rows());
+            assertFalse(query.thread().isEmpty());
+        }
+
+        @Test
+        void parametersNotKeptByCachedStatement() throws InterruptedException {
+            provider.getSlowQueryLog().setThreshold(Duration.ZERO);
+            provider.getSlowQueryLog().setParameterSampling(1);
+            executor.select("SELECT id FROM item WHERE id = ?", s -> s.setInt(1, 1), r -> r.getInt(1));
+            assertEquals(List.of(1), logged.poll(5, TimeUnit.SECONDS).parameters());
+            provider.getSlowQueryLog().setParameterSampling(Integer.MAX_VALUE);
+            executor.select("SELECT id FROM item WHERE id = ?", s -> s.setInt(1, 2), r -> r.getInt(1));
+            assertTrue(logged.poll(5, TimeUnit.SECONDS).parameters().isEmpty());
+        }
+
+        @Test
+        void parametersKeepTrailingNullAndType() throws InterruptedException {
+            provider.setDebugMode();
+            executor.select("SELECT id FROM item WHERE id = ? OR id = ? OR id = ?", s -> {
+                s.setByte(1, (byte) 1);
+                s.setShort(2, (short) 2);
+                s.setNull(3, Types.INTEGER);
+            }, r -> r.getInt(1));
+            assertEquals(Arrays.asList((byte) 1, (short) 2, null), logged.poll(5, TimeUnit.SECONDS).parameters());
+        }
+
+        @Test
+        void asyncQueryLogged() throws InterruptedException {
+            provider.setDebugMode();
+            try (var async = new AsyncQueryExecutor(provider)) {
+                assertEquals(1, async.update("INSERT INTO item (id) VALUES (?)", s -> s.setInt(1, 3)).join());
+            }
+            var query = logged.poll(5, TimeUnit.SECONDS);
+            assertNotNull(query);
+            assertEquals(List.of(3), query.parameters());
+            assertEquals(1, query.rows());
+        }
+
+        @Test
+        void underThreshold() throws InterruptedException {
+            provider.getSlowQueryLog().setThreshold(Duration.ofHours(1));
+            executor.select("SELECT id FROM item", r -> r.getInt(1));
+            assertNull(logged.poll(50, TimeUnit.MILLISECONDS));
+        }
+
+        @Test
+        void fullBufferDrops() throws InterruptedException {
+            var log = provider.getSlowQueryLog();
+            var release = new CountDownLatch(1);
+            var started = new CountDownLatch(1);
+            log.setSink(q -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            log.setThreshold(Duration.ZERO);
+            log.record("SELECT 1", 1, 1, null);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < SlowQueryLog.CAPACITY + 10; i++) {
+                log.record("SELECT 1", 1, 1, null);
+            }
+            assertTrue(log.getDropped() >= 10);
+            release.countDown();
+        }
+
+        @Test
+        void invalidConfiguration() {
+            assertThrows(IllegalArgumentException.class, () -> provider.getSlowQueryLog().setThreshold(Duration.ofMillis(-1)));
+            assertThrows(IllegalArgumentException.class, () -> provider.getSlowQueryLog().setParameterSampling(0));
+        }
+    }
+}
@@ -26,11 +26,21 @@
 package be.yildizgames.module.database;
 
 import be.yildizgames.module.database.dummy.DummyDatabaseConnectionProvider;
+import be.yildizgames.module.database.dummy.DummyDbProperties;
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
 import be.yildizgames.module.database.dummy.DummySystem;
 import org.h2.Driver;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author Grégory Van den Borre
  */
@@ -55,7 +65,274 @@ class TransactionTest {
                     new DummyDatabaseConnectionProvider.DefaultProperties(),
                     false));
             t.execute(c -> {throw new Exception("Expected exception");});
+            Assertions.assertEquals(1, t.getFailures());
+        }
+
+        @Test
+        void signatureUnchanged() throws NoSuchMethodException {
+            Assertions.assertEquals(void.class, Transaction.class.getMethod("execute", TransactionBehavior.class).getReturnType());
+        }
+    }
+
+    @Nested
+    class Retry {
+
+        private final RetryPolicy policy = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5));
+
+        private Transaction transaction() {
+            return new Transaction(new DummyDatabaseConnectionProvider(
+                    new DummySystem(Driver::new),
+                    new DummyDatabaseConnectionProvider.DefaultProperties(),
+                    false), policy);
+        }
+
+        @Test
+        void serializationFailureIsRetried() {
+            Transaction t = transaction();
+            AtomicInteger calls = new AtomicInteger();
+            boolean committed = t.tryExecute(c -> {
+                if (calls.incrementAndGet() == 1) {
+                    throw new SQLException("Expected serialization failure", "40001");
+                }
+            });
+            Assertions.assertTrue(committed);
+            Assertions.assertEquals(2, calls.get());
+            Assertions.assertEquals(2, t.getAttempts());
+            Assertions.assertEquals(1, t.getRetries());
+            Assertions.assertEquals(1, t.getCommits());
+            Assertions.assertEquals(0, t.getFailures());
+        }
+
+        @Test
+        void stopsAfterMaxAttempts() {
+            Transaction t = transaction();
+            AtomicInteger calls = new AtomicInteger();
+            boolean committed = t.tryExecute(c -> {
+                calls.incrementAndGet();
+                throw new SQLException("Expected deadlock", "40P01");
+            });
+            Assertions.assertFalse(committed);
+            Assertions.assertEquals(3, calls.get());
+            Assertions.assertEquals(1, t.getFailures());
+        }
+
+        @Test
+        void otherFailureIsNotRetried() {
+            Transaction t = transaction();
+            AtomicInteger calls = new AtomicInteger();
+            boolean committed = t.tryExecute(c -> {
+                calls.incrementAndGet();
+                throw new SQLException("Expected constraint violation", "23505");
+            });
+            Assertions.assertFalse(committed);
+            Assertions.assertEquals(1, calls.get());
+        }
+
+        @Test
+        void classification() {
+            Assertions.assertTrue(policy.isRetryable(new IllegalStateException(new SQLException("deadlock", "40P01"))));
+            Assertions.assertTrue(policy.isRetryable(new SQLTimeoutException("lock timeout", "HYT00")));
+            Assertions.assertTrue(policy.isRetryable(new SQLException("mysql deadlock", "HY000", 1213)));
+            Assertions.assertFalse(policy.isRetryable(new SQLException("syntax", "42000")));
+            Assertions.assertFalse(policy.isRetryable(new IllegalStateException("no sql")));
+        }
+
+        @Test
+        void backoffIsBounded() {
+            for (int attempt = 2; attempt < 80; attempt++) {
+                Duration d = policy.backoff(attempt);
+                Assertions.assertFalse(d.isNegative());
+                Assertions.assertTrue(d.compareTo(Duration.ofMillis(5)) <= 0);
+            }
+        }
+
+        @Test
+        void invalidPolicy() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(0, Duration.ofMillis(1), Duration.ofMillis(1)));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(1, Duration.ofMillis(2), Duration.ofMillis(1)));
+        }
+    }
+
+    @Nested
+    class Options {
+
+        private PooledConnectionProvider givenAPool(String name) {
+            return new PooledConnectionProvider(new DummyMemorySystem(name), new DummyDbProperties(name, 1), false);
+        }
+
+        @Test
+        void isolationAppliedAndRestored() throws SQLException {
+            try (var pool = givenAPool("transaction-isolation")) {
+                int isolation;
+                try (Connection c = pool.getConnection()) {
+                    isolation = c.getTransactionIsolation();
+                }
+                AtomicInteger inside = new AtomicInteger();
+                Transaction t = new Transaction(pool);
+                Assertions.assertTrue(t.tryExecute(TransactionOptions.DEFAULT.isolation(TransactionOptions.Isolation.SERIALIZABLE),
+                        c -> inside.set(c.getTransactionIsolation())));
+                Assertions.assertEquals(Connection.TRANSACTION_SERIALIZABLE, inside.get());
+                try (Connection c = pool.getConnection()) {
+                    Assertions.assertEquals(isolation, c.unwrap(org.h2.jdbc.JdbcConnection.class).getTransactionIsolation());
+                }
+            }
+        }
+
+        @Test
+        void readOnlyRestored() throws SQLException {
+            try (var pool = givenAPool("transaction-read-only")) {
+                Transaction t = new Transaction(pool);
+                Assertions.assertTrue(t.tryExecute(TransactionOptions.DEFAULT.readOnly(), c -> Assertions.assertTrue(c.isReadOnly())));
+                try (Connection c = pool.getConnection()) {
+                    Assertions.assertFalse(c.isReadOnly());
+                }
+            }
+        }
+
+        @Test
+        void timeoutRollsBack() throws SQLException {
+            try (var pool = givenAPool("transaction-timeout")) {
+                try (Connection c = pool.getConnection(); var stmt = c.createStatement()) {
+                    stmt.execute("CREATE TABLE item (id INT)");
+                }
+                Transaction t = new Transaction(pool);
+                Assertions.assertFalse(t.tryExecute(TransactionOptions.DEFAULT.timeout(Duration.ofMillis(1)), c -> {
+                    try (var stmt = c.createStatement()) {
+                        stmt.execute("INSERT INTO item VALUES (1)");
+                    }
+                    Thread.sleep(20);
+                }));
+                try (Connection c = pool.getConnection(); var stmt = c.createStatement(); var rs = stmt.executeQuery("SELECT COUNT(*) FROM item")) {
+                    Assertions.assertTrue(rs.next());
+                    Assertions.assertEquals(0, rs.getInt(1));
+                }
+            }
+        }
+
+        @Test
+        void timeoutAppliedToStatements() throws SQLException {
+            try (var pool = givenAPool("transaction-timeout-statements")) {
+                Transaction t = new Transaction(pool);
+                Assertions.assertTrue(t.tryExecute(TransactionOptions.DEFAULT.timeout(Duration.ofSeconds(30)), c -> {
+                    try (var prepared = c.prepareStatement("SELECT 1"); var stmt = c.createStatement()) {
+                        Assertions.assertTrue(prepared.getQueryTimeout() > 0 && prepared.getQueryTimeout() <= 30);
+                        Assertions.assertTrue(stmt.getQueryTimeout() > 0 && stmt.getQueryTimeout() <= 30);
+                    }
+                }));
+                try (Connection c = pool.getConnection(); var prepared = c.prepareStatement("SELECT 1"); var stmt = c.createStatement()) {
+                    Assertions.assertEquals(0, prepared.getQueryTimeout());
+                    Assertions.assertEquals(0, stmt.getQueryTimeout());
+                }
+            }
+        }
+
+        @Test
+        void negativeTimeout() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> TransactionOptions.DEFAULT.timeout(Duration.ofMillis(-1)));
         }
     }
 
+    @Nested
+    class Nesting {
+
+        private PooledConnectionProvider givenATable(String name) throws SQLException {
+            var pool = new PooledConnectionProvider(new DummyMemorySystem(name), new DummyDbProperties(name, 1), false);
+            try (Connection c = pool.getConnection(); var stmt = c.createStatement()) {
+                stmt.execute("CREATE TABLE item (id INT)");
+            }
+            return pool;
+        }
+
+        private void insert(Connection c, int id) throws SQLException {
+            try (var stmt = c.prepareStatement("INSERT INTO item VALUES (?)")) {
+                stmt.setInt(1, id);
+                stmt.executeUpdate();
+            }
+        }
+
+        private int count(Connection c) throws SQLException {
+            try (var stmt = c.createStatement(); var rs = stmt.executeQuery("SELECT COUNT(*) FROM item")) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+
+        @Test
+        void innerUsesOuterConnection() throws SQLException {
+            try (var pool = givenATable("transaction-nested")) {
+                Transaction t = new Transaction(pool);
+                AtomicInteger seen = new AtomicInteger();
+                Assertions.assertTrue(t.tryExecute(outer -> {
+                    insert(outer, 1);
+                    Assertions.assertTrue(new Transaction(pool).tryExecute(inner -> {
+                        Assertions.assertSame(outer, inner);
+                        seen.set(count(inner));
+                        insert(inner, 2);
+                    }));
+                }));
+                Assertions.assertEquals(1, seen.get());
+                try (Connection c = pool.getConnection()) {
+                    Assertions.assertEquals(2, count(c));
+                }
+            }
+        }
+
+        @Test
+        void innerFailureRollsBackInnerOnly() throws SQLException {
+            try (var pool = givenATable("transaction-nested-failure")) {
+                Transaction t = new Transaction(pool);
+                Assertions.assertTrue(t.tryExecute(outer -> {
+                    insert(outer, 1);
+                    Assertions.assertFalse(t.tryExecute(inner -> {
+                        insert(inner, 2);
+                        throw new Exception("Expected exception");
+                    }));
+                    insert(outer, 3);
+                }));
+                Assertions.assertEquals(1, t.getFailures());
+                try (Connection c = pool.getConnection(); var stmt = c.createStatement(); var rs = stmt.executeQuery("SELECT SUM(id) FROM item")) {
+                    rs.next();
+                    Assertions.assertEquals(4, rs.getInt(1));
+                }
+            }
+        }
+
+        @Test
+        void retryableInnerFailureRetriesOuter() throws SQLException {
+            try (var pool = givenATable("transaction-nested-retry")) {
+                Transaction t = new Transaction(pool, new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5)));
+                Transaction nested = new Transaction(pool);
+                AtomicInteger calls = new AtomicInteger();
+                Assertions.assertTrue(t.tryExecute(outer -> {
+                    insert(outer, 1);
+                    nested.execute(inner -> {
+                        insert(inner, 2);
+                        if (calls.incrementAndGet() == 1) {
+                            throw new SQLTransactionRollbackException("Deadlock", "40001");
+                        }
+                    });
+                }));
+                Assertions.assertEquals(2, t.getAttempts());
+                Assertions.assertEquals(1, t.getRetries());
+                try (Connection c = pool.getConnection()) {
+                    Assertions.assertEquals(2, count(c));
+                }
+            }
+        }
+
+        @Test
+        void outerFailureRollsBackInner() throws SQLException {
+            try (var pool = givenATable("transaction-nested-outer-failure")) {
+                Transaction t = new Transaction(pool);
+                Assertions.assertFalse(t.tryExecute(outer -> {
+                    Assertions.assertTrue(t.tryExecute(inner -> insert(inner, 1)));
+                    throw new Exception("Expected exception");
+                }));
+                try (Connection c = pool.getConnection()) {
+                    Assertions.assertEquals(0, count(c));
+                    Assertions.assertNull(pool.getTransactionScope());
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,274 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database;
+
+import be.yildizgames.module.database.dummy.DummyDbProperties;
+import be.yildizgames.module.database.dummy.DummyItem;
+import be.yildizgames.module.database.dummy.DummyMemorySystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class WriteBehindQueueTest {
+
+    private static final TableSchema ITEM = TableSchema.createWithId("item",
+            TableSchemaColumn.integer("id"),
+            TableSchemaColumn.varchar("name", 20));
+
+    private static final ItemBinder<DummyItem> MERGE = (s, item) -> {
+        s.setInt(1, item.id());
+        s.setString(2, item.name());
+    };
+
+    private PooledConnectionProvider provider;
+
+    private QueryExecutor executor;
+
+    @BeforeEach
+    void init() {
+        this.provider = new PooledConnectionProvider(new DummyMemorySystem("write-behind"), new DummyDbProperties("write-behind", 4), false);
+        this.executor = new QueryExecutor(this.provider);
+        this.executor.dropTables(ITEM);
+        this.executor.createTableIfNotExists(ITEM);
+    }
+
+    @AfterEach
+    void close() {
+        this.provider.close();
+    }
+
+    private WriteBehindQueue<Integer, DummyItem> queue(int maxPending, int threshold, Duration interval) {
+        return new WriteBehindQueue<>(this.provider, "MERGE INTO item KEY(id) VALUES (?, ?)", MERGE, DummyItem::id, maxPending, threshold, interval);
+    }
+
+    private List<DummyItem> items() {
+        return this.executor.select("SELECT id, name FROM item ORDER BY id", RowMapper.forRecord(DummyItem.class));
+    }
+
+    @Nested
+    class Submit {
+
+        @Test
+        void collapsedByKey() {
+            try (var queue = queue(10, 10, Duration.ofHours(1))) {
+                queue.submit(new DummyItem(1, "a"));
+                queue.submit(new DummyItem(2, "b"));
+                queue.submit(new DummyItem(1, "c"));
+                assertEquals(2, queue.getPendingCount());
+                queue.flush();
+                assertEquals(List.of(new DummyItem(1, "c"), new DummyItem(2, "b")), items());
+                assertEquals(1, queue.getCollapsed());
+                assertEquals(2, queue.getWritten());
+            }
+        }
+
+        @Test
+        void flushedAtThreshold() {
+            try (var queue = queue(10, 3, Duration.ofHours(1))) {
+                for (int i = 1; i <= 3; i++) {
+                    queue.submit(new DummyItem(i, "item" + i));
+                }
+                await(() -> queue.getWritten() == 3);
+                assertEquals(3, items().size());
+            }
+        }
+
+        @Test
+        void flushedAtInterval() {
+            try (var queue = queue(10, 10, Duration.ofMillis(20))) {
+                queue.submit(new DummyItem(1, "item1"));
+                await(() -> queue.getWritten() == 1);
+            }
+        }
+
+        @Test
+        void boundedPending() {
+            try (var queue = queue(2, 2, Duration.ofHours(1))) {
+                for (int i = 1; i <= 20; i++) {
+                    queue.submit(new DummyItem(i, "item" + i));
+                    assertTrue(queue.getPendingCount() <= 2);
+                }
+            }
+            assertEquals(20, items().size());
+        }
+
+        @Test
+        void closed() {
+            var queue = queue(10, 10, Duration.ofHours(1));
+            queue.submit(new DummyItem(1, "item1"));
+            queue.close();
+            assertEquals(1, items().size());
+            assertThrows(IllegalStateException.class, () -> queue.submit(new DummyItem(2, "item2")));
+        }
+    }
+
+    @Nested
+    class Flush {
+
+        @Test
+        void failingWriteIsolated() {
+            try (var queue = queue(10, 10, Duration.ofHours(1))) {
+                queue.submit(new DummyItem(1, "item1"));
+                queue.submit(new DummyItem(2, "a name longer than the column"));
+                assertThrows(IllegalStateException.class, queue::flush);
+                assertEquals(1, queue.getPendingCount());
+                assertEquals(List.of(new DummyItem(1, "item1")), items());
+                queue.submit(new DummyItem(2, "item2"));
+                queue.flush();
+                assertEquals(List.of(new DummyItem(1, "item1"), new DummyItem(2, "item2")), items());
+                assertEquals(1, queue.getFailures());
+            }
+        }
+
+        @Test
+        void deadLetterAfterMaxAttempts() {
+            List<DummyItem> dropped = new ArrayList<>();
+            try (var queue = new WriteBehindQueue<>(provider, "MERGE INTO item KEY(id) VALUES (?, ?)", MERGE, DummyItem::id, 10, 10,
+                    Duration.ofHours(1), 2, (DummyItem item, RuntimeException e) -> dropped.add(item))) {
+                var invalid = new DummyItem(1, "a name longer than the column");
+                queue.submit(invalid);
+                assertThrows(IllegalStateException.class, queue::flush);
+                assertEquals(1, queue.getPendingCount());
+                assertThrows(IllegalStateException.class, queue::flush);
+                assertEquals(0, queue.getPendingCount());
+                assertEquals(List.of(invalid), dropped);
+                assertEquals(1, queue.getDeadLetters());
+            }
+        }
+
+        @Test
+        void isolationOnSingleConnection() {
+            try (var queue = queue(10, 10, Duration.ofHours(1))) {
+                queue.submit(new DummyItem(1, "item1"));
+                queue.submit(new DummyItem(2, "a name longer than the column"));
+                queue.submit(new DummyItem(3, "item3"));
+                long acquired = provider.getMetrics().getConnectionAcquireCount();
+                assertThrows(IllegalStateException.class, queue::flush);
+                assertEquals(2, provider.getMetrics().getConnectionAcquireCount() - acquired);
+                assertEquals(List.of(new DummyItem(1, "item1"), new DummyItem(3, "item3")), items());
+                queue.submit(new DummyItem(2, "item2"));
+            }
+        }
+    }
+
+    @Nested
+    class ConnectionFailure {
+
+        @Test
+        void batchRequeuedWithoutAttempt() {
+            var down = new AtomicBoolean(true);
+            var binds = new AtomicInteger();
+            List<DummyItem> dropped = new ArrayList<>();
+            try (var queue = new WriteBehindQueue<>(provider, "MERGE INTO item KEY(id) VALUES (?, ?)", unreachable(down, binds), DummyItem::id, 10, 10,
+                    Duration.ofHours(1), 1, (DummyItem item, RuntimeException e) -> dropped.add(item))) {
+                queue.submit(new DummyItem(1, "item1"));
+                queue.submit(new DummyItem(2, "item2"));
+                assertThrows(IllegalStateException.class, queue::flush);
+                assertEquals(2, queue.getPendingCount());
+                assertEquals(1, binds.get());
+                assertEquals(List.of(), dropped);
+                down.set(false);
+                queue.flush();
+                assertEquals(List.of(new DummyItem(1, "item1"), new DummyItem(2, "item2")), items());
+            }
+        }
+
+        @Test
+        void scheduledFlushesDelayed() throws InterruptedException {
+            var down = new AtomicBoolean(true);
+            try (var queue = new WriteBehindQueue<>(provider, "MERGE INTO item KEY(id) VALUES (?, ?)", unreachable(down, new AtomicInteger()), DummyItem::id, 10, 10, Duration.ofMillis(10))) {
+                queue.submit(new DummyItem(1, "item1"));
+                Thread.sleep(400);
+                long failures = queue.getFailures();
+                assertTrue(failures >= 1 && failures <= 8, "Failures: " + failures);
+                down.set(false);
+            }
+            assertEquals(List.of(new DummyItem(1, "item1")), items());
+        }
+
+        private static ItemBinder<DummyItem> unreachable(AtomicBoolean down, AtomicInteger binds) {
+            return (s, item) -> {
+                binds.incrementAndGet();
+                if (down.get()) {
+                    throw new IllegalStateException(new SQLTransientConnectionException("Connection lost."));
+                }
+                MERGE.bind(s, item);
+            };
+        }
+    }
+
+    @Nested
+    class SubmitTimeout {
+
+        @Test
+        void fullBufferRejected() throws InterruptedException {
+            var blocked = new CountDownLatch(1);
+            var release = new CountDownLatch(1);
+            ItemBinder<DummyItem> blocking = (s, item) -> {
+                if (item.id() == 1) {
+                    blocked.countDown();
+                    awaitUninterruptibly(release);
+                }
+                MERGE.bind(s, item);
+            };
+            try (var queue = new WriteBehindQueue<>(provider, "MERGE INTO item KEY(id) VALUES (?, ?)", blocking, DummyItem::id, 1, 1, Duration.ofHours(1))) {
+                queue.submit(new DummyItem(1, "item1"));
+                assertTrue(blocked.await(5, TimeUnit.SECONDS));
+                queue.submit(new DummyItem(2, "item2"));
+                assertFalse(queue.submit(new DummyItem(3, "item3"), Duration.ofMillis(20)));
+                Thread.currentThread().interrupt();
+                assertThrows(IllegalStateException.class, () -> queue.submit(new DummyItem(3, "item3")));
+                assertTrue(Thread.interrupted());
+                release.countDown();
+                assertTrue(queue.submit(new DummyItem(3, "item3"), Duration.ofSeconds(5)));
+            }
+            assertEquals(3, items().size());
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long limit = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limit, "Condition not met in time.");
+            Thread.onSpinWait();
+        }
+    }
+}
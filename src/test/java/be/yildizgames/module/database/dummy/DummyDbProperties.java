@@ -36,8 +36,15 @@ public class DummyDbProperties implements DbProperties {
 
     private final String name;
 
+    private final int poolSize;
+
     public DummyDbProperties(String databaseName) {
+        this(databaseName, DEFAULT_POOL_MAX_SIZE);
+    }
+
+    public DummyDbProperties(String databaseName, int poolSize) {
         this.name = databaseName;
+        this.poolSize = poolSize;
     }
 
     @Override
@@ -79,4 +86,14 @@ public class DummyDbProperties implements DbProperties {
     public String getDbRootPassword() {
         return getDbPassword();
     }
+
+    @Override
+    public int getPoolMaxSize() {
+        return this.poolSize;
+    }
+
+    @Override
+    public long getPoolAcquireTimeout() {
+        return 1_000;
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Grégory Van den Borre
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package be.yildizgames.module.database.dummy;
+
+import be.yildizgames.module.database.DatabaseSystem;
+import be.yildizgames.module.database.DbProperties;
+import be.yildizgames.module.database.DriverProvider;
+import org.h2.Driver;
+
+/**
+ * In memory H2 database, kept alive until the JVM stops.
+ *
+ * @author Grégory Van den Borre
+ */
+public record DummyMemorySystem(String name, boolean multiRowInsert) implements DatabaseSystem {
+
+    public DummyMemorySystem(String name) {
+        this(name, false);
+    }
+
+    @Override
+    public String getDriver() {
+        return "org.h2.Driver";
+    }
+
+    @Override
+    public DriverProvider driverProvider() {
+        return Driver::new;
+    }
+
+    @Override
+    public String getUrl(DbProperties p) {
+        return "jdbc:h2:mem:" + this.name + ";DB_CLOSE_DELAY=-1";
+    }
+
+    @Override
+    public boolean requirePool() {
+        return true;
+    }
+
+    @Override
+    public boolean supportMultiRowInsert() {
+        return this.multiRowInsert;
+    }
+}